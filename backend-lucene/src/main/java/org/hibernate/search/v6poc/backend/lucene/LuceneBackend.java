@@ -7,9 +7,25 @@
 package org.hibernate.search.v6poc.backend.lucene;
 
 import org.hibernate.search.v6poc.backend.Backend;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneQueryResultCacheStatistics;
 
 public interface LuceneBackend extends Backend {
 
 	// TODO add Lucene-specific backend APIs
 
+	/**
+	 * Cancels the background optimization of an index, if any.
+	 * <p>
+	 * Only relevant when optimizations are executed in the background:
+	 * the optimization stops once the current merge step is complete, and segments merged so far are kept.
+	 *
+	 * @param indexName The name of the index.
+	 */
+	void cancelOptimize(String indexName);
+
+	/**
+	 * @return Statistics about the query result cache of this backend.
+	 */
+	LuceneQueryResultCacheStatistics getQueryResultCacheStatistics();
+
 }
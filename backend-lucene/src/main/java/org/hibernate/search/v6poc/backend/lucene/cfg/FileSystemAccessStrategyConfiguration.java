@@ -0,0 +1,48 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.cfg;
+
+import java.lang.invoke.MethodHandles;
+
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+public enum FileSystemAccessStrategyConfiguration {
+
+	/**
+	 * Let Lucene pick the best strategy for the current platform.
+	 */
+	AUTO("auto"),
+
+	/**
+	 * Memory-map index files. Requires a large virtual address space.
+	 */
+	MMAP("mmap"),
+
+	/**
+	 * Read index files using NIO positional reads.
+	 * Useful when the virtual address space is limited, in containers for instance.
+	 */
+	NIO("nio");
+
+	private static Log LOG = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final String externalRepresentation;
+
+	private FileSystemAccessStrategyConfiguration(String externalRepresentation) {
+		this.externalRepresentation = externalRepresentation;
+	}
+
+	public static FileSystemAccessStrategyConfiguration fromExternalRepresentation(String fileSystemAccessStrategy) {
+		for ( FileSystemAccessStrategyConfiguration candidate : values() ) {
+			if ( candidate.externalRepresentation.equals( fileSystemAccessStrategy ) ) {
+				return candidate;
+			}
+		}
+		throw LOG.unknownFileSystemAccessStrategyConfiguration( fileSystemAccessStrategy );
+	}
+}
@@ -18,8 +18,96 @@ public final class SearchBackendLuceneSettings {
 
 	public static final String LUCENE_ROOT_DIRECTORY = "lucene.root_directory";
 
+	public static final String LUCENE_FILESYSTEM_ACCESS_STRATEGY = "lucene.filesystem_access_strategy";
+
+	public static final String LUCENE_MMAP_PRELOAD = "lucene.mmap.preload";
+
+	public static final String LUCENE_MMAP_MAX_CHUNK_SIZE = "lucene.mmap.max_chunk_size";
+
+	public static final String LUCENE_NRT_CACHING_ENABLED = "lucene.nrt_caching.enabled";
+
+	public static final String LUCENE_NRT_CACHING_MAX_MERGE_SIZE = "lucene.nrt_caching.max_merge_size";
+
+	public static final String LUCENE_NRT_CACHING_MAX_CACHED = "lucene.nrt_caching.max_cached";
+
 	public static final String MULTI_TENANCY_STRATEGY = "multi_tenancy_strategy";
 
+	public static final String INDEXING_QUEUE_SIZE = "indexing.queue_size";
+
+	public static final String INDEXING_MAX_BATCH_SIZE = "indexing.max_batch_size";
+
+	public static final String INDEXING_COMMIT_INTERVAL = "indexing.commit_interval";
+
+	public static final String INDEXING_COMMIT_MAX_PENDING_WORKS = "indexing.commit_max_pending_works";
+
+	public static final String INDEXING_RAM_BUFFER_SIZE = "indexing.ram_buffer_size";
+
+	public static final String INDEXING_MERGE_SEGMENTS_PER_TIER = "indexing.merge.segments_per_tier";
+
+	public static final String INDEXING_MERGE_MAX_MERGE_AT_ONCE = "indexing.merge.max_merge_at_once";
+
+	public static final String INDEXING_MERGE_MAX_MERGED_SEGMENT_SIZE = "indexing.merge.max_merged_segment_size";
+
+	public static final String INDEXING_MERGE_FLOOR_SEGMENT_SIZE = "indexing.merge.floor_segment_size";
+
+	public static final String INDEXING_MERGE_SCHEDULER_MAX_THREAD_COUNT = "indexing.merge.scheduler.max_thread_count";
+
+	public static final String INDEXING_MERGE_SCHEDULER_MAX_MERGE_COUNT = "indexing.merge.scheduler.max_merge_count";
+
+	public static final String INDEXING_MERGE_SCHEDULER_FORCE_MERGE_MAX_RATE = "indexing.merge.scheduler.force_merge_max_rate";
+
+	public static final String INDEXING_CODEC = "indexing.codec";
+
+	public static final String INDEXING_STREAM_BULK_ENABLED = "indexing.stream.bulk.enabled";
+
+	public static final String INDEXING_STREAM_BULK_THREAD_COUNT = "indexing.stream.bulk.thread_count";
+
+	public static final String INDEXING_STREAM_BULK_RAM_BUFFER_SIZE = "indexing.stream.bulk.ram_buffer_size";
+
+	public static final String INDEXING_STREAM_BULK_FORCE_MERGE_MAX_SEGMENTS = "indexing.stream.bulk.force_merge_max_segments";
+
+	public static final String INDEXING_STREAM_MAX_IN_FLIGHT_WORKS = "indexing.stream.max_in_flight_works";
+
+	public static final String INDEXING_STREAM_MAX_IN_FLIGHT_SIZE = "indexing.stream.max_in_flight_size";
+
+	public static final String INDEXING_OPTIMIZE_MAX_SEGMENTS = "indexing.optimize.max_segments";
+
+	public static final String INDEXING_OPTIMIZE_BACKGROUND_ENABLED = "indexing.optimize.background.enabled";
+
+	public static final String INDEXING_JOURNAL_ENABLED = "indexing.journal.enabled";
+
+	public static final String INDEXING_JOURNAL_DIRECTORY = "indexing.journal.directory";
+
+	public static final String INDEXING_JOURNAL_MAX_FILE_SIZE = "indexing.journal.max_file_size";
+
+	public static final String INDEXING_DOCUMENT_BUILDING_THREAD_COUNT = "indexing.document_building.thread_count";
+
+	public static final String INDEXING_DOCUMENT_BUILDING_QUEUE_SIZE = "indexing.document_building.queue_size";
+
+	public static final String REFRESH_INTERVAL = "refresh_interval";
+
+	public static final String SHARDING_NUMBER_OF_SHARDS = "sharding.number_of_shards";
+
+	public static final String SEARCH_QUERY_THREAD_COUNT = "search.query.thread_count";
+
+	public static final String SEARCH_QUERY_QUEUE_SIZE = "search.query.queue_size";
+
+	public static final String SEARCH_PARALLEL_THREAD_COUNT = "search.parallel.thread_count";
+
+	public static final String SEARCH_PARALLEL_QUEUE_SIZE = "search.parallel.queue_size";
+
+	public static final String SEARCH_PARALLEL_MAX_SLICES_PER_QUERY = "search.parallel.max_slices_per_query";
+
+	public static final String SEARCH_DEFAULT_MAX_RESULTS = "search.default_max_results";
+
+	public static final String SEARCH_RESULT_CACHE_ENABLED = "search.result_cache.enabled";
+
+	public static final String SEARCH_RESULT_CACHE_MAX_ENTRIES = "search.result_cache.max_entries";
+
+	public static final String SEARCH_WARMING_ENABLED = "search.warming.enabled";
+
+	public static final String SEARCH_WARMING_SORTS = "search.warming.sorts";
+
 	/**
 	 * Default values for the different settings if no values are given.
 	 */
@@ -28,6 +116,38 @@ public final class SearchBackendLuceneSettings {
 		private Defaults() {
 		}
 
+		public static final FileSystemAccessStrategyConfiguration LUCENE_FILESYSTEM_ACCESS_STRATEGY = FileSystemAccessStrategyConfiguration.MMAP;
+		public static final boolean LUCENE_MMAP_PRELOAD = false;
+		public static final int LUCENE_MMAP_MAX_CHUNK_SIZE = 1024;
+		public static final boolean LUCENE_NRT_CACHING_ENABLED = false;
+		public static final double LUCENE_NRT_CACHING_MAX_MERGE_SIZE = 5.0;
+		public static final double LUCENE_NRT_CACHING_MAX_CACHED = 60.0;
 		public static final MultiTenancyStrategyConfiguration MULTI_TENANCY_STRATEGY = MultiTenancyStrategyConfiguration.NONE;
+		public static final int INDEXING_QUEUE_SIZE = 1000;
+		public static final int INDEXING_MAX_BATCH_SIZE = 100;
+		public static final long INDEXING_COMMIT_INTERVAL = 0L;
+		public static final int INDEXING_COMMIT_MAX_PENDING_WORKS = 10000;
+		public static final boolean INDEXING_STREAM_BULK_ENABLED = false;
+		public static final int INDEXING_STREAM_BULK_THREAD_COUNT = 4;
+		public static final int INDEXING_STREAM_BULK_RAM_BUFFER_SIZE = 256;
+		public static final int INDEXING_STREAM_BULK_FORCE_MERGE_MAX_SEGMENTS = 0;
+		public static final int INDEXING_STREAM_MAX_IN_FLIGHT_WORKS = 10000;
+		public static final int INDEXING_STREAM_MAX_IN_FLIGHT_SIZE = 0;
+		public static final int INDEXING_OPTIMIZE_MAX_SEGMENTS = 1;
+		public static final boolean INDEXING_OPTIMIZE_BACKGROUND_ENABLED = false;
+		public static final boolean INDEXING_JOURNAL_ENABLED = false;
+		public static final int INDEXING_JOURNAL_MAX_FILE_SIZE = 64;
+		public static final int INDEXING_DOCUMENT_BUILDING_THREAD_COUNT = 0;
+		public static final int INDEXING_DOCUMENT_BUILDING_QUEUE_SIZE = 1000;
+		public static final long REFRESH_INTERVAL = 0L;
+		public static final int SHARDING_NUMBER_OF_SHARDS = 1;
+		public static final int SEARCH_QUERY_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+		public static final int SEARCH_QUERY_QUEUE_SIZE = 1000;
+		public static final int SEARCH_PARALLEL_THREAD_COUNT = 0;
+		public static final int SEARCH_PARALLEL_QUEUE_SIZE = 1000;
+		public static final int SEARCH_PARALLEL_MAX_SLICES_PER_QUERY = 4;
+		public static final boolean SEARCH_RESULT_CACHE_ENABLED = false;
+		public static final int SEARCH_RESULT_CACHE_MAX_ENTRIES = 1000;
+		public static final boolean SEARCH_WARMING_ENABLED = false;
 	}
 }
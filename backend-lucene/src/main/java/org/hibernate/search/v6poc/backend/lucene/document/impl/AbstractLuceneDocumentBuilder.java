@@ -17,6 +17,9 @@ import org.hibernate.search.v6poc.backend.lucene.multitenancy.impl.MultiTenancyS
 import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexableField;
 
 /**
  * @author Guillaume Smet
@@ -27,12 +30,21 @@ public abstract class AbstractLuceneDocumentBuilder implements LuceneDocumentBui
 
 	protected final LuceneIndexSchemaObjectNode schemaNode;
 
+	// null unless field instances are reused from one entry to the next
+	private final ReusableFields reusableFields;
+
 	private List<LuceneFlattenedObjectDocumentBuilder> flattenedObjectDocumentBuilders;
 
 	private List<LuceneNestedObjectDocumentBuilder> nestedObjectDocumentBuilders;
 
-	protected AbstractLuceneDocumentBuilder(LuceneIndexSchemaObjectNode schemaNode) {
+	protected AbstractLuceneDocumentBuilder(LuceneIndexSchemaObjectNode schemaNode, ReusableFields reusableFields) {
 		this.schemaNode = schemaNode;
+		this.reusableFields = reusableFields;
+	}
+
+	@Override
+	public <F extends IndexableField> F reuseField(String absoluteFieldPath, Class<F> fieldType) {
+		return reusableFields == null ? null : reusableFields.reuse( absoluteFieldPath, fieldType );
 	}
 
 	@Override
@@ -60,6 +72,33 @@ public abstract class AbstractLuceneDocumentBuilder implements LuceneDocumentBui
 		}
 	}
 
+	ReusableFields getReusableFields() {
+		return reusableFields;
+	}
+
+	protected final void trackField(IndexableField field) {
+		if ( reusableFields != null ) {
+			reusableFields.track( field );
+		}
+	}
+
+	protected final void addMetadataField(Document document, String fieldName, String value) {
+		StringField field = reuseField( fieldName, StringField.class );
+		if ( field == null ) {
+			field = new StringField( fieldName, value, Store.YES );
+		}
+		else {
+			field.setStringValue( value );
+		}
+		trackField( field );
+		document.add( field );
+	}
+
+	void reset() {
+		flattenedObjectDocumentBuilders = null;
+		nestedObjectDocumentBuilders = null;
+	}
+
 	void contribute(String rootIndexName, MultiTenancyStrategy multiTenancyStrategy, String tenantId, String rootId, Document currentDocument,
 			List<Document> nestedDocuments) {
 		if ( flattenedObjectDocumentBuilders != null ) {
@@ -0,0 +1,50 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.document.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+
+/**
+ * A document element recording the values written to it, so that they can be encoded later, in another thread.
+ * <p>
+ * Document contributors run in the thread that owns the entity, which may be the only thread
+ * allowed to access the entity (for instance to load lazy associations);
+ * the values they write are then {@link #replay(DocumentElement) replayed} into an actual document builder,
+ * which encodes them into Lucene fields.
+ * <p>
+ * Written values are not copied: they must not be mutated until the element is replayed.
+ */
+public final class LuceneDeferredDocumentElement implements DocumentElement {
+
+	private final List<Consumer<DocumentElement>> operations = new ArrayList<>();
+
+	/**
+	 * Writes all the recorded values to the given element.
+	 *
+	 * @param target The element to write values to.
+	 */
+	public void replay(DocumentElement target) {
+		for ( Consumer<DocumentElement> operation : operations ) {
+			operation.accept( target );
+		}
+	}
+
+	void defer(Consumer<DocumentElement> operation) {
+		operations.add( operation );
+	}
+
+	LuceneDeferredDocumentElement deferChild(Function<DocumentElement, DocumentElement> childFactory) {
+		LuceneDeferredDocumentElement child = new LuceneDeferredDocumentElement();
+		operations.add( target -> child.replay( childFactory.apply( target ) ) );
+		return child;
+	}
+}
@@ -17,6 +17,18 @@ public interface LuceneDocumentBuilder extends DocumentElement {
 
 	void addField(IndexableField field);
 
+	/**
+	 * Returns a field instance that may be reused to add a value to the document being built.
+	 * <p>
+	 * The returned field was added to a previous entry built by the same builder;
+	 * callers are expected to set its value then to pass it to {@link #addField(IndexableField)}.
+	 *
+	 * @param absoluteFieldPath The absolute path of the field.
+	 * @param fieldType The exact type of the field.
+	 * @return A field that can be reused, or {@code null} if the caller must create a new field.
+	 */
+	<F extends IndexableField> F reuseField(String absoluteFieldPath, Class<F> fieldType);
+
 	void addNestedObjectDocumentBuilder(LuceneNestedObjectDocumentBuilder nestedObjectDocumentBuilder);
 
 	void addFlattenedObjectDocumentBuilder(LuceneFlattenedObjectDocumentBuilder flattenedObjectDocumentBuilder);
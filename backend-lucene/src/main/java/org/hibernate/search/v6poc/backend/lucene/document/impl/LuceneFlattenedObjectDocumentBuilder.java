@@ -22,12 +22,13 @@ class LuceneFlattenedObjectDocumentBuilder extends AbstractLuceneDocumentBuilder
 
 	private final Set<IndexableField> fields = new HashSet<>();
 
-	LuceneFlattenedObjectDocumentBuilder(LuceneIndexSchemaObjectNode schemaNode) {
-		super( schemaNode );
+	LuceneFlattenedObjectDocumentBuilder(LuceneIndexSchemaObjectNode schemaNode, ReusableFields reusableFields) {
+		super( schemaNode, reusableFields );
 	}
 
 	@Override
 	public void addField(IndexableField field) {
+		trackField( field );
 		fields.add( field );
 	}
 
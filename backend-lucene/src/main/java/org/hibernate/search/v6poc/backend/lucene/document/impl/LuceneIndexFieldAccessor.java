@@ -24,6 +24,10 @@ public class LuceneIndexFieldAccessor<T> implements IndexFieldAccessor<T> {
 
 	@Override
 	public void write(DocumentElement target, T value) {
+		if ( target instanceof LuceneDeferredDocumentElement ) {
+			( (LuceneDeferredDocumentElement) target ).defer( actualTarget -> write( actualTarget, value ) );
+			return;
+		}
 		LuceneDocumentBuilder documentBuilder = (LuceneDocumentBuilder) target;
 		documentBuilder.checkTreeConsistency( schemaNode.getParent() );
 		schemaNode.getCodec().encode( documentBuilder, schemaNode.getAbsoluteFieldPath(), value );
@@ -28,18 +28,22 @@ public class LuceneIndexObjectFieldAccessor implements IndexObjectFieldAccessor
 
 	@Override
 	public DocumentElement add(DocumentElement target) {
-		LuceneDocumentBuilder currentDocumentBuilder = (LuceneDocumentBuilder) target;
+		if ( target instanceof LuceneDeferredDocumentElement ) {
+			return ( (LuceneDeferredDocumentElement) target ).deferChild( this::add );
+		}
+		AbstractLuceneDocumentBuilder currentDocumentBuilder = (AbstractLuceneDocumentBuilder) target;
+		ReusableFields reusableFields = currentDocumentBuilder.getReusableFields();
 
 		currentDocumentBuilder.checkTreeConsistency( schemaNode.getParent() );
 
 		switch ( storage ) {
 			case NESTED:
-				LuceneNestedObjectDocumentBuilder nestedDocumentBuilder = new LuceneNestedObjectDocumentBuilder( schemaNode );
+				LuceneNestedObjectDocumentBuilder nestedDocumentBuilder = new LuceneNestedObjectDocumentBuilder( schemaNode, reusableFields );
 				currentDocumentBuilder.addNestedObjectDocumentBuilder( nestedDocumentBuilder );
 
 				return nestedDocumentBuilder;
 			default:
-				LuceneFlattenedObjectDocumentBuilder flattenedDocumentBuilder = new LuceneFlattenedObjectDocumentBuilder( schemaNode );
+				LuceneFlattenedObjectDocumentBuilder flattenedDocumentBuilder = new LuceneFlattenedObjectDocumentBuilder( schemaNode, reusableFields );
 				currentDocumentBuilder.addFlattenedObjectDocumentBuilder( flattenedDocumentBuilder );
 
 				return flattenedDocumentBuilder;
@@ -9,8 +9,6 @@ package org.hibernate.search.v6poc.backend.lucene.document.impl;
 import java.util.List;
 
 import org.apache.lucene.document.Document;
-import org.apache.lucene.document.Field.Store;
-import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.IndexableField;
 import org.hibernate.search.v6poc.backend.lucene.util.impl.LuceneFields;
 import org.hibernate.search.v6poc.backend.lucene.document.model.impl.LuceneIndexSchemaObjectNode;
@@ -23,22 +21,23 @@ class LuceneNestedObjectDocumentBuilder extends AbstractLuceneDocumentBuilder {
 
 	private final Document nestedDocument = new Document();
 
-	LuceneNestedObjectDocumentBuilder(LuceneIndexSchemaObjectNode schemaNode) {
-		super( schemaNode );
+	LuceneNestedObjectDocumentBuilder(LuceneIndexSchemaObjectNode schemaNode, ReusableFields reusableFields) {
+		super( schemaNode, reusableFields );
 	}
 
 	@Override
 	public void addField(IndexableField field) {
+		trackField( field );
 		nestedDocument.add( field );
 	}
 
 	@Override
 	void contribute(String rootIndexName, MultiTenancyStrategy multiTenancyStrategy, String tenantId, String rootId, Document currentDocument,
 			List<Document> nestedDocuments) {
-		nestedDocument.add( new StringField( LuceneFields.typeFieldName(), LuceneFields.TYPE_CHILD_DOCUMENT, Store.YES ) );
-		nestedDocument.add( new StringField( LuceneFields.rootIndexFieldName(), rootIndexName, Store.YES ) );
-		nestedDocument.add( new StringField( LuceneFields.rootIdFieldName(), rootId, Store.YES ) );
-		nestedDocument.add( new StringField( LuceneFields.nestedDocumentPathFieldName(), schemaNode.getAbsolutePath(), Store.YES ) );
+		addMetadataField( nestedDocument, LuceneFields.typeFieldName(), LuceneFields.TYPE_CHILD_DOCUMENT );
+		addMetadataField( nestedDocument, LuceneFields.rootIndexFieldName(), rootIndexName );
+		addMetadataField( nestedDocument, LuceneFields.rootIdFieldName(), rootId );
+		addMetadataField( nestedDocument, LuceneFields.nestedDocumentPathFieldName(), schemaNode.getAbsolutePath() );
 
 		multiTenancyStrategy.contributeToIndexedDocument( nestedDocument, tenantId );
 
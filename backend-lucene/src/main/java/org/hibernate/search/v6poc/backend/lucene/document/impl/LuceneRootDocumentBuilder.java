@@ -10,8 +10,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.lucene.document.Document;
-import org.apache.lucene.document.Field.Store;
-import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.IndexableField;
 import org.hibernate.search.v6poc.backend.lucene.util.impl.LuceneFields;
 import org.hibernate.search.v6poc.backend.lucene.document.model.impl.LuceneIndexSchemaObjectNode;
@@ -25,11 +23,29 @@ public class LuceneRootDocumentBuilder extends AbstractLuceneDocumentBuilder {
 	private final Document rootDocument = new Document();
 
 	public LuceneRootDocumentBuilder() {
-		super( LuceneIndexSchemaObjectNode.root() );
+		this( null );
+	}
+
+	private LuceneRootDocumentBuilder(ReusableFields reusableFields) {
+		super( LuceneIndexSchemaObjectNode.root(), reusableFields );
+	}
+
+	/**
+	 * Creates a builder that reuses its document and field instances from one entry to the next.
+	 * <p>
+	 * The builder must be confined to a single thread at a time,
+	 * and {@link #reset() reset} only once the entry it built has been indexed:
+	 * until then, the fields of that entry are still referenced by the index work.
+	 *
+	 * @return A reusable document builder.
+	 */
+	public static LuceneRootDocumentBuilder reusable() {
+		return new LuceneRootDocumentBuilder( new ReusableFields() );
 	}
 
 	@Override
 	public void addField(IndexableField field) {
+		trackField( field );
 		rootDocument.add( field );
 	}
 
@@ -37,12 +53,26 @@ public class LuceneRootDocumentBuilder extends AbstractLuceneDocumentBuilder {
 		return new LuceneIndexEntry( indexName, id, assembleDocuments( indexName, multiTenancyStrategy, tenantId, id ) );
 	}
 
+	/**
+	 * Prepares a {@link #reusable() reusable} builder for the next entry.
+	 */
+	@Override
+	public void reset() {
+		super.reset();
+		rootDocument.clear();
+		ReusableFields reusableFields = getReusableFields();
+		if ( reusableFields != null ) {
+			reusableFields.reset();
+		}
+	}
+
 	private List<Document> assembleDocuments(String indexName, MultiTenancyStrategy multiTenancyStrategy, String tenantId, String id) {
-		rootDocument.add( new StringField( LuceneFields.typeFieldName(), LuceneFields.TYPE_MAIN_DOCUMENT, Store.YES ) );
-		rootDocument.add( new StringField( LuceneFields.indexFieldName(), indexName, Store.YES ) );
-		rootDocument.add( new StringField( LuceneFields.idFieldName(), id, Store.YES ) );
+		addMetadataField( rootDocument, LuceneFields.typeFieldName(), LuceneFields.TYPE_MAIN_DOCUMENT );
+		addMetadataField( rootDocument, LuceneFields.indexFieldName(), indexName );
+		addMetadataField( rootDocument, LuceneFields.idFieldName(), id );
 
 		multiTenancyStrategy.contributeToIndexedDocument( rootDocument, tenantId );
+		multiTenancyStrategy.contributeToRootDocument( rootDocument, tenantId, id );
 
 		// all the ancestors of a subdocument must be added after it
 		List<Document> documents = new ArrayList<>();
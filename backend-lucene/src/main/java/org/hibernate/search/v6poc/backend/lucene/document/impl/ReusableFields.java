@@ -0,0 +1,93 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.document.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.index.IndexableField;
+
+/**
+ * The field instances created while building an index entry, kept so that they can be reused for the next entry.
+ * <p>
+ * Fields are identified by their name and their type; a field added several times to the same entry
+ * (multi-valued fields, nested documents, ...) gets a distinct instance for each occurrence.
+ * <p>
+ * Not thread-safe: instances must be confined to the thread building the entry,
+ * and {@link #reset() reset} only once the previous entry has been indexed.
+ */
+final class ReusableFields {
+
+	private final Map<String, List<FieldSlot>> slotsByName = new HashMap<>();
+
+	<F extends IndexableField> F reuse(String fieldName, Class<F> fieldType) {
+		FieldSlot slot = getSlot( fieldName, fieldType, false );
+		if ( slot == null || slot.used >= slot.instances.size() ) {
+			return null;
+		}
+		return fieldType.cast( slot.instances.get( slot.used ) );
+	}
+
+	void track(IndexableField field) {
+		FieldSlot slot = getSlot( field.name(), field.getClass(), true );
+		if ( slot.used < slot.instances.size() ) {
+			if ( slot.instances.get( slot.used ) == field ) {
+				++slot.used;
+			}
+			// Otherwise the field was not obtained through reuse(): we cannot reuse it
+		}
+		else {
+			slot.instances.add( field );
+			++slot.used;
+		}
+	}
+
+	void reset() {
+		for ( List<FieldSlot> slots : slotsByName.values() ) {
+			for ( FieldSlot slot : slots ) {
+				slot.used = 0;
+			}
+		}
+	}
+
+	private FieldSlot getSlot(String fieldName, Class<?> fieldType, boolean create) {
+		List<FieldSlot> slots = slotsByName.get( fieldName );
+		if ( slots == null ) {
+			if ( !create ) {
+				return null;
+			}
+			slots = new ArrayList<>( 2 );
+			slotsByName.put( fieldName, slots );
+		}
+		// There are very few field types per name: a linear search is fine
+		for ( int i = 0; i < slots.size(); i++ ) {
+			FieldSlot slot = slots.get( i );
+			if ( slot.fieldType == fieldType ) {
+				return slot;
+			}
+		}
+		if ( !create ) {
+			return null;
+		}
+		FieldSlot slot = new FieldSlot( fieldType );
+		slots.add( slot );
+		return slot;
+	}
+
+	private static final class FieldSlot {
+
+		private final Class<?> fieldType;
+		private final List<IndexableField> instances = new ArrayList<>( 1 );
+		private int used = 0;
+
+		FieldSlot(Class<?> fieldType) {
+			this.fieldType = fieldType;
+		}
+	}
+}
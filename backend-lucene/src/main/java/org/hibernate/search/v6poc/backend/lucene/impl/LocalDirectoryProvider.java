@@ -0,0 +1,109 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.hibernate.search.v6poc.backend.lucene.cfg.FileSystemAccessStrategyConfiguration;
+import org.hibernate.search.v6poc.backend.lucene.index.impl.DirectoryProvider;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.util.AssertionFailure;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.NIOFSDirectory;
+
+class LocalDirectoryProvider implements DirectoryProvider {
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final EventContext backendContext;
+
+	private final Path rootDirectory;
+
+	private final FileSystemAccessStrategyConfiguration accessStrategy;
+
+	private final boolean mmapPreload;
+
+	private final int mmapMaxChunkSize;
+
+	public LocalDirectoryProvider(EventContext backendContext, Path rootDirectory,
+			FileSystemAccessStrategyConfiguration accessStrategy, boolean mmapPreload, int mmapMaxChunkSize) {
+		this.backendContext = backendContext;
+		this.rootDirectory = rootDirectory;
+		this.accessStrategy = accessStrategy;
+		this.mmapPreload = mmapPreload;
+		this.mmapMaxChunkSize = mmapMaxChunkSize;
+
+		initializeRootDirectory( rootDirectory );
+	}
+
+	@Override
+	public Directory createDirectory(String indexName) throws IOException {
+		Path directoryPath = rootDirectory.resolve( indexName );
+		initializeIndexDirectory( directoryPath );
+		switch ( accessStrategy ) {
+			case AUTO:
+				return FSDirectory.open( directoryPath );
+			case MMAP:
+				MMapDirectory directory = new MMapDirectory( directoryPath, mmapMaxChunkSize );
+				directory.setPreload( mmapPreload );
+				return directory;
+			case NIO:
+				return new NIOFSDirectory( directoryPath );
+			default:
+				throw new AssertionFailure( "Unsupported filesystem access strategy: " + accessStrategy );
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "rootDirectory=" ).append( rootDirectory ).append( ", " )
+				.append( "accessStrategy=" ).append( accessStrategy )
+				.append( "]" )
+				.toString();
+	}
+
+	private void initializeRootDirectory(Path rootDirectory) {
+		if ( Files.exists( rootDirectory ) ) {
+			if ( !Files.isDirectory( rootDirectory ) || !Files.isWritable( rootDirectory ) ) {
+				throw log.localDirectoryBackendRootDirectoryNotWritableDirectory( rootDirectory, backendContext );
+			}
+		}
+		else {
+			try {
+				Files.createDirectories( rootDirectory );
+			}
+			catch (Exception e) {
+				throw log.unableToCreateRootDirectoryForLocalDirectoryBackend( rootDirectory, backendContext, e );
+			}
+		}
+	}
+
+	private void initializeIndexDirectory(Path indexDirectory) {
+		if ( Files.exists( indexDirectory ) ) {
+			if ( !Files.isDirectory( indexDirectory ) || !Files.isWritable( indexDirectory ) ) {
+				throw log.localDirectoryIndexRootDirectoryNotWritableDirectory( indexDirectory, backendContext );
+			}
+		}
+		else {
+			try {
+				Files.createDirectories( indexDirectory );
+			}
+			catch (Exception e) {
+				throw log.unableToCreateIndexRootDirectoryForLocalDirectoryBackend( indexDirectory, backendContext, e );
+			}
+		}
+	}
+}
@@ -0,0 +1,30 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.impl;
+
+import org.hibernate.search.v6poc.backend.lucene.index.impl.DirectoryProvider;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+
+/**
+ * A provider of directories stored in the JVM heap.
+ * <p>
+ * Indexes are lost when the application stops: only use this for tests or ephemeral indexes.
+ */
+class LocalHeapDirectoryProvider implements DirectoryProvider {
+
+	@Override
+	public Directory createDirectory(String indexName) {
+		return new RAMDirectory();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName();
+	}
+}
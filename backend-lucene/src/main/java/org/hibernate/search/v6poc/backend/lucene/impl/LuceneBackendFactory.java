@@ -12,12 +12,20 @@ import java.nio.file.Paths;
 import java.util.Locale;
 import java.util.Optional;
 
+import org.hibernate.search.v6poc.backend.lucene.cfg.FileSystemAccessStrategyConfiguration;
 import org.hibernate.search.v6poc.backend.lucene.cfg.MultiTenancyStrategyConfiguration;
 import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.backend.lucene.index.impl.DirectoryProvider;
 import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
 import org.hibernate.search.v6poc.backend.lucene.multitenancy.impl.DiscriminatorMultiTenancyStrategyImpl;
 import org.hibernate.search.v6poc.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
 import org.hibernate.search.v6poc.backend.lucene.multitenancy.impl.NoMultiTenancyStrategyImpl;
+import org.hibernate.search.v6poc.backend.lucene.index.impl.DocumentBuildingExecutor;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneParallelQueryWorkOrchestrator;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneQueryWorkOrchestrator;
+import org.hibernate.search.v6poc.backend.lucene.search.query.impl.IndexSearcherFactory;
+import org.hibernate.search.v6poc.backend.lucene.search.query.impl.QueryResultCache;
+import org.hibernate.search.v6poc.backend.lucene.search.query.impl.UnboundedQueryLimit;
 import org.hibernate.search.v6poc.backend.lucene.work.impl.StubLuceneWorkFactory;
 import org.hibernate.search.v6poc.backend.spi.BackendImplementor;
 import org.hibernate.search.v6poc.backend.spi.BackendFactory;
@@ -48,12 +56,107 @@ public class LuceneBackendFactory implements BackendFactory {
 					.withDefault( () -> Paths.get( "." ) )
 					.build();
 
+	private static final ConfigurationProperty<FileSystemAccessStrategyConfiguration> FILESYSTEM_ACCESS_STRATEGY =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.LUCENE_FILESYSTEM_ACCESS_STRATEGY )
+					.as( FileSystemAccessStrategyConfiguration.class, FileSystemAccessStrategyConfiguration::fromExternalRepresentation )
+					.withDefault( SearchBackendLuceneSettings.Defaults.LUCENE_FILESYSTEM_ACCESS_STRATEGY )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> MMAP_PRELOAD =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.LUCENE_MMAP_PRELOAD )
+					.asBoolean()
+					.withDefault( SearchBackendLuceneSettings.Defaults.LUCENE_MMAP_PRELOAD )
+					.build();
+
+	private static final ConfigurationProperty<Integer> MMAP_MAX_CHUNK_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.LUCENE_MMAP_MAX_CHUNK_SIZE )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.LUCENE_MMAP_MAX_CHUNK_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> NRT_CACHING_ENABLED =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.LUCENE_NRT_CACHING_ENABLED )
+					.asBoolean()
+					.withDefault( SearchBackendLuceneSettings.Defaults.LUCENE_NRT_CACHING_ENABLED )
+					.build();
+
+	private static final ConfigurationProperty<Double> NRT_CACHING_MAX_MERGE_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.LUCENE_NRT_CACHING_MAX_MERGE_SIZE )
+					.as( Double.class, Double::valueOf )
+					.withDefault( SearchBackendLuceneSettings.Defaults.LUCENE_NRT_CACHING_MAX_MERGE_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Double> NRT_CACHING_MAX_CACHED =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.LUCENE_NRT_CACHING_MAX_CACHED )
+					.as( Double.class, Double::valueOf )
+					.withDefault( SearchBackendLuceneSettings.Defaults.LUCENE_NRT_CACHING_MAX_CACHED )
+					.build();
+
 	private static final ConfigurationProperty<MultiTenancyStrategyConfiguration> MULTI_TENANCY_STRATEGY =
 			ConfigurationProperty.forKey( SearchBackendLuceneSettings.MULTI_TENANCY_STRATEGY )
 					.as( MultiTenancyStrategyConfiguration.class, MultiTenancyStrategyConfiguration::fromExternalRepresentation )
 					.withDefault( SearchBackendLuceneSettings.Defaults.MULTI_TENANCY_STRATEGY )
 					.build();
 
+	private static final ConfigurationProperty<Integer> INDEXING_DOCUMENT_BUILDING_THREAD_COUNT =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_DOCUMENT_BUILDING_THREAD_COUNT )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_DOCUMENT_BUILDING_THREAD_COUNT )
+					.build();
+
+	private static final ConfigurationProperty<Integer> INDEXING_DOCUMENT_BUILDING_QUEUE_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_DOCUMENT_BUILDING_QUEUE_SIZE )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_DOCUMENT_BUILDING_QUEUE_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Integer> SEARCH_QUERY_THREAD_COUNT =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.SEARCH_QUERY_THREAD_COUNT )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.SEARCH_QUERY_THREAD_COUNT )
+					.build();
+
+	private static final ConfigurationProperty<Integer> SEARCH_QUERY_QUEUE_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.SEARCH_QUERY_QUEUE_SIZE )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.SEARCH_QUERY_QUEUE_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Integer> SEARCH_PARALLEL_THREAD_COUNT =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.SEARCH_PARALLEL_THREAD_COUNT )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.SEARCH_PARALLEL_THREAD_COUNT )
+					.build();
+
+	private static final ConfigurationProperty<Integer> SEARCH_PARALLEL_QUEUE_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.SEARCH_PARALLEL_QUEUE_SIZE )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.SEARCH_PARALLEL_QUEUE_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Integer> SEARCH_PARALLEL_MAX_SLICES_PER_QUERY =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.SEARCH_PARALLEL_MAX_SLICES_PER_QUERY )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.SEARCH_PARALLEL_MAX_SLICES_PER_QUERY )
+					.build();
+
+	private static final ConfigurationProperty<Optional<Integer>> SEARCH_DEFAULT_MAX_RESULTS =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.SEARCH_DEFAULT_MAX_RESULTS )
+					.asInteger()
+					.build();
+
+	private static final ConfigurationProperty<Boolean> SEARCH_RESULT_CACHE_ENABLED =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.SEARCH_RESULT_CACHE_ENABLED )
+					.asBoolean()
+					.withDefault( SearchBackendLuceneSettings.Defaults.SEARCH_RESULT_CACHE_ENABLED )
+					.build();
+
+	private static final ConfigurationProperty<Integer> SEARCH_RESULT_CACHE_MAX_ENTRIES =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.SEARCH_RESULT_CACHE_MAX_ENTRIES )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.SEARCH_RESULT_CACHE_MAX_ENTRIES )
+					.build();
+
 	@Override
 	public BackendImplementor<?> create(String name, BackendBuildContext context, ConfigurationPropertySource propertySource) {
 		// TODO be more clever about the type, also supports providing a class
@@ -65,18 +168,92 @@ public class LuceneBackendFactory implements BackendFactory {
 			throw log.undefinedLuceneDirectoryProvider( backendContext );
 		}
 
-		String directoryProvider = directoryProviderProperty.get();
+		// Root directory for all files stored by the backend: indexes, journals, ...
+		// TODO GSM: implement the checks properly
+		Path rootDirectory = ROOT_DIRECTORY.get( propertySource ).toAbsolutePath();
+
+		DirectoryProvider directoryProvider = createDirectoryProvider(
+				directoryProviderProperty.get(), backendContext, rootDirectory, propertySource
+		);
+
+		MultiTenancyStrategy multiTenancyStrategy = getMultiTenancyStrategy( backendContext, propertySource );
+
+		return new LuceneLocalDirectoryBackend( name, directoryProvider, rootDirectory, new StubLuceneWorkFactory( multiTenancyStrategy ), multiTenancyStrategy,
+				createQueryOrchestrator( name, backendContext, propertySource ),
+				createIndexSearcherFactory( name, backendContext, propertySource ),
+				new UnboundedQueryLimit( SEARCH_DEFAULT_MAX_RESULTS.get( propertySource ).map( Integer::longValue ).orElse( null ) ),
+				createQueryResultCache( propertySource ),
+				createDocumentBuildingExecutor( name, backendContext, propertySource ), propertySource );
+	}
+
+	private DirectoryProvider createDirectoryProvider(String directoryProviderName, EventContext backendContext,
+			Path rootDirectory, ConfigurationPropertySource propertySource) {
+		DirectoryProvider directoryProvider;
+		if ( "local_directory".equals( directoryProviderName ) ) {
+			// Prevent overflows: Lucene rounds the chunk size down to a power of two anyway
+			int mmapMaxChunkSize = (int) Math.min( Integer.MAX_VALUE, MMAP_MAX_CHUNK_SIZE.get( propertySource ) * 1024L * 1024L );
+			directoryProvider = new LocalDirectoryProvider(
+					backendContext, rootDirectory,
+					FILESYSTEM_ACCESS_STRATEGY.get( propertySource ),
+					MMAP_PRELOAD.get( propertySource ), mmapMaxChunkSize
+			);
+		}
+		else if ( "local_heap".equals( directoryProviderName ) ) {
+			// Caching directories in the heap would be pointless
+			return new LocalHeapDirectoryProvider();
+		}
+		else {
+			throw log.unrecognizedLuceneDirectoryProvider( directoryProviderName, backendContext );
+		}
+
+		if ( NRT_CACHING_ENABLED.get( propertySource ) ) {
+			directoryProvider = new NRTCachingDirectoryProvider(
+					directoryProvider,
+					NRT_CACHING_MAX_MERGE_SIZE.get( propertySource ), NRT_CACHING_MAX_CACHED.get( propertySource )
+			);
+		}
+
+		return directoryProvider;
+	}
 
-		if ( "local_directory".equals( directoryProvider ) ) {
-			// TODO GSM: implement the checks properly
-			Path rootDirectory = ROOT_DIRECTORY.get( propertySource ).toAbsolutePath();
+	private LuceneQueryWorkOrchestrator createQueryOrchestrator(String backendName, EventContext backendContext,
+			ConfigurationPropertySource propertySource) {
+		return new LuceneParallelQueryWorkOrchestrator(
+				"Lucene query - " + backendName, backendContext,
+				SEARCH_QUERY_THREAD_COUNT.get( propertySource ), SEARCH_QUERY_QUEUE_SIZE.get( propertySource )
+		);
+	}
 
-			MultiTenancyStrategy multiTenancyStrategy = getMultiTenancyStrategy( backendContext, propertySource );
+	private DocumentBuildingExecutor createDocumentBuildingExecutor(String backendName, EventContext backendContext,
+			ConfigurationPropertySource propertySource) {
+		int threadCount = INDEXING_DOCUMENT_BUILDING_THREAD_COUNT.get( propertySource );
+		if ( threadCount <= 0 ) {
+			return new DocumentBuildingExecutor();
+		}
+		return new DocumentBuildingExecutor(
+				"Lucene document building - " + backendName, backendContext, threadCount,
+				INDEXING_DOCUMENT_BUILDING_QUEUE_SIZE.get( propertySource )
+		);
+	}
 
-			return new LuceneLocalDirectoryBackend( name, rootDirectory, new StubLuceneWorkFactory( multiTenancyStrategy ), multiTenancyStrategy );
+	private QueryResultCache createQueryResultCache(ConfigurationPropertySource propertySource) {
+		if ( !SEARCH_RESULT_CACHE_ENABLED.get( propertySource ) ) {
+			return new QueryResultCache( 0 );
 		}
+		return new QueryResultCache( SEARCH_RESULT_CACHE_MAX_ENTRIES.get( propertySource ) );
+	}
 
-		throw log.unrecognizedLuceneDirectoryProvider( directoryProvider, backendContext );
+	private IndexSearcherFactory createIndexSearcherFactory(String backendName, EventContext backendContext,
+			ConfigurationPropertySource propertySource) {
+		int threadCount = SEARCH_PARALLEL_THREAD_COUNT.get( propertySource );
+		if ( threadCount <= 0 ) {
+			return new IndexSearcherFactory();
+		}
+		return new IndexSearcherFactory(
+				"Lucene parallel search - " + backendName, backendContext, threadCount,
+				SEARCH_PARALLEL_QUEUE_SIZE.get( propertySource ),
+				SEARCH_PARALLEL_MAX_SLICES_PER_QUERY.get( propertySource )
+		);
 	}
 
 	private MultiTenancyStrategy getMultiTenancyStrategy(EventContext backendContext, ConfigurationPropertySource propertySource) {
@@ -7,20 +7,24 @@
 package org.hibernate.search.v6poc.backend.lucene.impl;
 
 import java.lang.invoke.MethodHandles;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import org.hibernate.search.v6poc.backend.Backend;
 import org.hibernate.search.v6poc.backend.index.spi.IndexManagerBuilder;
 import org.hibernate.search.v6poc.backend.lucene.LuceneBackend;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneRootDocumentBuilder;
+import org.hibernate.search.v6poc.backend.lucene.index.impl.DirectoryProvider;
+import org.hibernate.search.v6poc.backend.lucene.index.impl.DocumentBuildingExecutor;
 import org.hibernate.search.v6poc.backend.lucene.index.impl.IndexingBackendContext;
 import org.hibernate.search.v6poc.backend.lucene.index.impl.LuceneDirectoryIndexManagerBuilder;
 import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
 import org.hibernate.search.v6poc.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
 import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneQueryWorkOrchestrator;
-import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.StubLuceneQueryWorkOrchestrator;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneQueryResultCacheStatistics;
+import org.hibernate.search.v6poc.backend.lucene.search.query.impl.IndexSearcherFactory;
+import org.hibernate.search.v6poc.backend.lucene.search.query.impl.QueryResultCache;
 import org.hibernate.search.v6poc.backend.lucene.search.query.impl.SearchBackendContext;
+import org.hibernate.search.v6poc.backend.lucene.search.query.impl.UnboundedQueryLimit;
 import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneWorkFactory;
 import org.hibernate.search.v6poc.backend.spi.BackendImplementor;
 import org.hibernate.search.v6poc.cfg.ConfigurationPropertySource;
@@ -33,39 +37,50 @@ import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
 /**
  * @author Guillaume Smet
  */
-public class LuceneLocalDirectoryBackend implements BackendImplementor<LuceneRootDocumentBuilder>, Backend {
+public class LuceneLocalDirectoryBackend implements BackendImplementor<LuceneRootDocumentBuilder>, LuceneBackend {
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
 	private final String name;
 
-	private final Path rootDirectory;
+	private final DirectoryProvider directoryProvider;
 
 	private final LuceneQueryWorkOrchestrator queryOrchestrator;
+	private final IndexSearcherFactory indexSearcherFactory;
+	private final QueryResultCache queryResultCache;
+	private final DocumentBuildingExecutor documentBuildingExecutor;
 	private final MultiTenancyStrategy multiTenancyStrategy;
+	private final ConfigurationPropertySource propertySource;
 
 	private final EventContext eventContext;
 	private final IndexingBackendContext indexingContext;
 	private final SearchBackendContext searchContext;
 
-	LuceneLocalDirectoryBackend(String name, Path rootDirectory, LuceneWorkFactory workFactory,
-			MultiTenancyStrategy multiTenancyStrategy) {
+	LuceneLocalDirectoryBackend(String name, DirectoryProvider directoryProvider, Path rootDirectory,
+			LuceneWorkFactory workFactory,
+			MultiTenancyStrategy multiTenancyStrategy, LuceneQueryWorkOrchestrator queryOrchestrator,
+			IndexSearcherFactory indexSearcherFactory, UnboundedQueryLimit unboundedQueryLimit, QueryResultCache queryResultCache,
+			DocumentBuildingExecutor documentBuildingExecutor,
+			ConfigurationPropertySource propertySource) {
 		this.name = name;
-		this.rootDirectory = rootDirectory;
+		this.directoryProvider = directoryProvider;
 
-		this.queryOrchestrator = new StubLuceneQueryWorkOrchestrator();
+		this.queryOrchestrator = queryOrchestrator;
+		this.indexSearcherFactory = indexSearcherFactory;
+		this.queryResultCache = queryResultCache;
+		this.documentBuildingExecutor = documentBuildingExecutor;
 		this.multiTenancyStrategy = multiTenancyStrategy;
+		this.propertySource = propertySource;
 
 		this.eventContext = EventContexts.fromBackendName( name );
 		this.indexingContext = new IndexingBackendContext(
-				eventContext, new MMapDirectoryProvider( eventContext, rootDirectory ),
-				workFactory, multiTenancyStrategy
+				eventContext, directoryProvider, rootDirectory,
+				workFactory, multiTenancyStrategy, documentBuildingExecutor
 		);
 		this.searchContext = new SearchBackendContext(
-				eventContext, workFactory, multiTenancyStrategy, queryOrchestrator
+				eventContext, workFactory, multiTenancyStrategy, queryOrchestrator, indexSearcherFactory,
+				unboundedQueryLimit, queryResultCache
 		);
-
-		initializeRootDirectory( rootDirectory );
 	}
 
 	@Override
@@ -78,6 +93,16 @@ public class LuceneLocalDirectoryBackend implements BackendImplementor<LuceneRoo
 		);
 	}
 
+	@Override
+	public void cancelOptimize(String indexName) {
+		indexingContext.cancelOptimize( indexName );
+	}
+
+	@Override
+	public LuceneQueryResultCacheStatistics getQueryResultCacheStatistics() {
+		return queryResultCache;
+	}
+
 	@Override
 	public Backend toAPI() {
 		return this;
@@ -95,9 +120,10 @@ public class LuceneLocalDirectoryBackend implements BackendImplementor<LuceneRoo
 		 * or a reversible conversion of that name, as an internal key (file names, ...),
 		 * and therefore the internal key should stay unique.
 		 */
+		// Index settings that are not set for the index itself default to the settings of the backend
 		return new LuceneDirectoryIndexManagerBuilder(
 				indexingContext, searchContext,
-				indexName, context, propertySource
+				indexName, context, propertySource.withFallback( this.propertySource )
 		);
 	}
 
@@ -105,6 +131,8 @@ public class LuceneLocalDirectoryBackend implements BackendImplementor<LuceneRoo
 	public void close() {
 		try ( Closer<RuntimeException> closer = new Closer<>() ) {
 			closer.push( LuceneQueryWorkOrchestrator::close, queryOrchestrator );
+			closer.push( IndexSearcherFactory::close, indexSearcherFactory );
+			closer.push( DocumentBuildingExecutor::close, documentBuildingExecutor );
 		}
 	}
 
@@ -113,24 +141,8 @@ public class LuceneLocalDirectoryBackend implements BackendImplementor<LuceneRoo
 		return new StringBuilder( getClass().getSimpleName() )
 				.append( "[" )
 				.append( "name=" ).append( name ).append( ", " )
-				.append( "rootDirectory=" ).append( rootDirectory )
+				.append( "directoryProvider=" ).append( directoryProvider )
 				.append( "]" )
 				.toString();
 	}
-
-	private void initializeRootDirectory(Path rootDirectory) {
-		if ( Files.exists( rootDirectory ) ) {
-			if ( !Files.isDirectory( rootDirectory ) || !Files.isWritable( rootDirectory ) ) {
-				throw log.localDirectoryBackendRootDirectoryNotWritableDirectory( rootDirectory, eventContext );
-			}
-		}
-		else {
-			try {
-				Files.createDirectories( rootDirectory );
-			}
-			catch (Exception e) {
-				throw log.unableToCreateRootDirectoryForLocalDirectoryBackend( rootDirectory, eventContext, e );
-			}
-		}
-	}
 }
@@ -0,0 +1,49 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.impl;
+
+import java.io.IOException;
+
+import org.hibernate.search.v6poc.backend.lucene.index.impl.DirectoryProvider;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.NRTCachingDirectory;
+
+/**
+ * A provider wrapping the directories of another provider in a {@link NRTCachingDirectory},
+ * so that small, freshly flushed segments are kept in the JVM heap until they are merged or committed.
+ */
+class NRTCachingDirectoryProvider implements DirectoryProvider {
+
+	private final DirectoryProvider delegate;
+
+	private final double maxMergeSizeMb;
+
+	private final double maxCachedMb;
+
+	NRTCachingDirectoryProvider(DirectoryProvider delegate, double maxMergeSizeMb, double maxCachedMb) {
+		this.delegate = delegate;
+		this.maxMergeSizeMb = maxMergeSizeMb;
+		this.maxCachedMb = maxCachedMb;
+	}
+
+	@Override
+	public Directory createDirectory(String indexName) throws IOException {
+		return new NRTCachingDirectory( delegate.createDirectory( indexName ), maxMergeSizeMb, maxCachedMb );
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "delegate=" ).append( delegate ).append( ", " )
+				.append( "maxMergeSizeMb=" ).append( maxMergeSizeMb ).append( ", " )
+				.append( "maxCachedMb=" ).append( maxCachedMb )
+				.append( "]" )
+				.toString();
+	}
+}
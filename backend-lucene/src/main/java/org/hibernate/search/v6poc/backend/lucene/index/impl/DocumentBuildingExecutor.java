@@ -0,0 +1,94 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.index.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.Executors;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+/**
+ * Builds the documents of changesets.
+ * <p>
+ * Document contributors always run in the calling thread, as soon as a work is added to the changeset,
+ * since they may access state bound to that thread, such as a Hibernate ORM session.
+ * When parallel document building is enabled, the values written by contributors are only recorded,
+ * and encoded into Lucene documents concurrently when the changeset is prepared,
+ * on an executor shared by all the indexes of a backend.
+ */
+public class DocumentBuildingExecutor implements AutoCloseable {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final EventContext eventContext;
+	private final ExecutorService executor;
+
+	// Prevents tasks from being queued while the executor shuts down: they would never be executed
+	private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+	private boolean closed = false;
+
+	/**
+	 * Creates an executor building documents in the calling thread.
+	 */
+	public DocumentBuildingExecutor() {
+		this.eventContext = null;
+		this.executor = null;
+	}
+
+	/**
+	 * Creates an executor building documents in parallel.
+	 *
+	 * @param name The name of the executor threads.
+	 * @param eventContext The context of the backend.
+	 * @param threadCount The number of threads building documents.
+	 * @param queueSize The maximum number of documents waiting for a thread; when reached, preparing changesets will block.
+	 */
+	public DocumentBuildingExecutor(String name, EventContext eventContext, int threadCount, int queueSize) {
+		this.eventContext = eventContext;
+		this.executor = Executors.newFixedThreadPool( threadCount, name, queueSize );
+	}
+
+	@Override
+	public void close() {
+		if ( executor == null ) {
+			return;
+		}
+		closeLock.writeLock().lock();
+		try {
+			closed = true;
+			// Documents already submitted are still built, so that pending changesets complete
+			executor.shutdown();
+		}
+		finally {
+			closeLock.writeLock().unlock();
+		}
+	}
+
+	boolean isParallel() {
+		return executor != null;
+	}
+
+	<T> CompletableFuture<T> submit(Supplier<T> task) {
+		closeLock.readLock().lock();
+		try {
+			if ( closed ) {
+				throw log.documentBuildingExecutorClosed( eventContext );
+			}
+			return CompletableFuture.supplyAsync( task, executor );
+		}
+		finally {
+			closeLock.readLock().unlock();
+		}
+	}
+}
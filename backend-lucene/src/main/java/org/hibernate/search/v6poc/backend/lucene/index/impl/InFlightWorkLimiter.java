@@ -0,0 +1,125 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.index.impl;
+
+import java.lang.invoke.MethodHandles;
+
+import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.util.BytesRef;
+
+/**
+ * Limits the number of works submitted by stream workers that have not been completed yet,
+ * as well as the estimated size of their documents.
+ * <p>
+ * When a limit is reached, submitting blocks until enough works are completed,
+ * so that fast producers cannot fill the memory with documents waiting to be indexed.
+ * A work is always accepted when no other work is in flight, whatever its size.
+ */
+class InFlightWorkLimiter {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	// Rough estimates of the overhead of documents and fields, to avoid walking object graphs
+	private static final long DOCUMENT_OVERHEAD = 64L;
+	private static final long FIELD_OVERHEAD = 64L;
+
+	private final EventContext eventContext;
+	private final int maxWorks;
+	private final long maxBytes;
+
+	private int inFlightWorks = 0;
+	private long inFlightBytes = 0L;
+
+	/**
+	 * @param eventContext The event context of the index.
+	 * @param maxWorks The maximum number of works in flight, or {@code 0} for no limit.
+	 * @param maxBytes The maximum estimated size of the documents in flight, in bytes, or {@code 0} for no limit.
+	 */
+	InFlightWorkLimiter(EventContext eventContext, int maxWorks, long maxBytes) {
+		this.eventContext = eventContext;
+		this.maxWorks = maxWorks;
+		this.maxBytes = maxBytes;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "eventContext=" ).append( eventContext ).append( ", " )
+				.append( "maxWorks=" ).append( maxWorks ).append( ", " )
+				.append( "maxBytes=" ).append( maxBytes )
+				.append( "]" )
+				.toString();
+	}
+
+	/**
+	 * @param indexEntry An index entry.
+	 * @return The estimated size of the entry, or {@code 0} if sizes are not limited.
+	 */
+	long estimateSize(LuceneIndexEntry indexEntry) {
+		if ( maxBytes <= 0L ) {
+			return 0L;
+		}
+		long size = 0L;
+		for ( Document document : indexEntry ) {
+			size += DOCUMENT_OVERHEAD;
+			for ( IndexableField field : document ) {
+				size += FIELD_OVERHEAD + estimateValueSize( field );
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Blocks until a work of the given size can be submitted.
+	 *
+	 * @param bytes The estimated size of the work, as returned by {@link #estimateSize(LuceneIndexEntry)}.
+	 */
+	synchronized void acquire(long bytes) {
+		try {
+			while ( inFlightWorks > 0 && isLimitReached( bytes ) ) {
+				wait();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw log.interruptedWhileWaitingForIndexActivity( eventContext, e );
+		}
+		++inFlightWorks;
+		inFlightBytes += bytes;
+	}
+
+	synchronized void release(long bytes) {
+		--inFlightWorks;
+		inFlightBytes -= bytes;
+		notifyAll();
+	}
+
+	private boolean isLimitReached(long bytes) {
+		return maxWorks > 0 && inFlightWorks >= maxWorks
+				|| maxBytes > 0L && inFlightBytes + bytes > maxBytes;
+	}
+
+	private static long estimateValueSize(IndexableField field) {
+		String stringValue = field.stringValue();
+		if ( stringValue != null ) {
+			return 2L * stringValue.length();
+		}
+		BytesRef binaryValue = field.binaryValue();
+		if ( binaryValue != null ) {
+			return binaryValue.length;
+		}
+		// Numbers, or values we cannot measure cheaply
+		return Long.BYTES;
+	}
+}
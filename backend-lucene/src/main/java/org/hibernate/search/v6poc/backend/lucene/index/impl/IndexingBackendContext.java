@@ -7,33 +7,50 @@
 package org.hibernate.search.v6poc.backend.lucene.index.impl;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
 import org.hibernate.search.v6poc.backend.index.spi.StreamIndexWorker;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneRootDocumentBuilder;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
 import org.hibernate.search.v6poc.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
 import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexWorkOrchestrator;
 import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneWorkFactory;
 import org.hibernate.search.v6poc.engine.spi.SessionContext;
 import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
 
 import org.apache.lucene.store.Directory;
 
 public class IndexingBackendContext {
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
 	private final EventContext eventContext;
 
 	private final DirectoryProvider directoryProvider;
+	private final Path rootDirectory;
 	private final LuceneWorkFactory workFactory;
 	private final MultiTenancyStrategy multiTenancyStrategy;
+	private final DocumentBuildingExecutor documentBuildingExecutor;
+
+	private final ConcurrentMap<String, LuceneDirectoryIndexManager> indexManagers = new ConcurrentHashMap<>();
 
 	public IndexingBackendContext(EventContext eventContext,
 			DirectoryProvider directoryProvider,
+			Path rootDirectory,
 			LuceneWorkFactory workFactory,
-			MultiTenancyStrategy multiTenancyStrategy) {
+			MultiTenancyStrategy multiTenancyStrategy,
+			DocumentBuildingExecutor documentBuildingExecutor) {
 		this.eventContext = eventContext;
 		this.directoryProvider = directoryProvider;
+		this.rootDirectory = rootDirectory;
 		this.multiTenancyStrategy = multiTenancyStrategy;
 		this.workFactory = workFactory;
+		this.documentBuildingExecutor = documentBuildingExecutor;
 	}
 
 	@Override
@@ -45,25 +62,58 @@ public class IndexingBackendContext {
 		return eventContext;
 	}
 
+	/**
+	 * Cancels the background optimization of an index, if any.
+	 *
+	 * @param indexName The name of the index.
+	 */
+	public void cancelOptimize(String indexName) {
+		LuceneDirectoryIndexManager indexManager = indexManagers.get( indexName );
+		if ( indexManager == null ) {
+			throw log.unknownIndex( indexName, eventContext );
+		}
+		indexManager.cancelOptimize();
+	}
+
+	void register(LuceneDirectoryIndexManager indexManager) {
+		indexManagers.put( indexManager.getName(), indexManager );
+	}
+
+	void unregister(LuceneDirectoryIndexManager indexManager) {
+		indexManagers.remove( indexManager.getName(), indexManager );
+	}
+
+	LuceneWorkFactory getWorkFactory() {
+		return workFactory;
+	}
+
+	MultiTenancyStrategy getMultiTenancyStrategy() {
+		return multiTenancyStrategy;
+	}
+
+	Path getRootDirectory() {
+		return rootDirectory;
+	}
+
 	Directory createDirectory(String indexName) throws IOException {
 		return directoryProvider.createDirectory( indexName );
 	}
 
 	ChangesetIndexWorker<LuceneRootDocumentBuilder> createChangesetIndexWorker(
-			LuceneIndexWorkOrchestrator orchestrator,
+			List<LuceneIndexWorkOrchestrator> orchestrators,
 			String indexName, SessionContext sessionContext) {
 		multiTenancyStrategy.checkTenantId( sessionContext.getTenantIdentifier(), eventContext );
 
-		return new LuceneChangesetIndexWorker( workFactory, multiTenancyStrategy, orchestrator,
+		return new LuceneChangesetIndexWorker( workFactory, multiTenancyStrategy, orchestrators, documentBuildingExecutor,
 				indexName, sessionContext );
 	}
 
 	StreamIndexWorker<LuceneRootDocumentBuilder> createStreamIndexWorker(
-			LuceneIndexWorkOrchestrator orchestrator,
-			String indexName, SessionContext sessionContext) {
+			List<LuceneIndexWorkOrchestrator> orchestrators, List<LuceneIndexOptimizer> optimizers,
+			InFlightWorkLimiter workLimiter, String indexName, SessionContext sessionContext) {
 		multiTenancyStrategy.checkTenantId( sessionContext.getTenantIdentifier(), eventContext );
 
-		return new LuceneStreamIndexWorker( workFactory, multiTenancyStrategy, orchestrator,
+		return new LuceneStreamIndexWorker( workFactory, multiTenancyStrategy, orchestrators, optimizers, workLimiter,
 				indexName, sessionContext );
 	}
 }
@@ -9,14 +9,22 @@ package org.hibernate.search.v6poc.backend.lucene.index.impl;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
 import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.DocumentContributor;
+import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneDeferredDocumentElement;
+import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneRootDocumentBuilder;
 import org.hibernate.search.v6poc.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
 import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexWorkOrchestrator;
 import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneIndexWork;
 import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneWorkFactory;
 import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.util.impl.common.Throwables;
 
 
 /**
@@ -24,34 +32,149 @@ import org.hibernate.search.v6poc.engine.spi.SessionContext;
  */
 class LuceneChangesetIndexWorker extends LuceneIndexWorker implements ChangesetIndexWorker<LuceneRootDocumentBuilder> {
 
-	private final LuceneIndexWorkOrchestrator orchestrator;
-	private final List<LuceneIndexWork<?>> works = new ArrayList<>();
+	// One list of works per shard
+	private final List<List<LuceneIndexWork<?>>> works;
+
+	private final DocumentBuildingExecutor documentBuildingExecutor;
+
+	// Only used when building documents in parallel: all the works of the changeset, in order, until it is prepared
+	private final List<PendingWork> pendingWorks = new ArrayList<>();
 
 	LuceneChangesetIndexWorker(LuceneWorkFactory factory, MultiTenancyStrategy multiTenancyStrategy,
-			LuceneIndexWorkOrchestrator orchestrator,
+			List<LuceneIndexWorkOrchestrator> orchestrators, DocumentBuildingExecutor documentBuildingExecutor,
 			String indexName, SessionContext sessionContext) {
-		super( factory, multiTenancyStrategy, indexName, sessionContext );
-		this.orchestrator = orchestrator;
+		super( factory, multiTenancyStrategy, orchestrators, indexName, sessionContext );
+		this.documentBuildingExecutor = documentBuildingExecutor;
+		this.works = new ArrayList<>( orchestrators.size() );
+		for ( int i = 0; i < orchestrators.size(); i++ ) {
+			works.add( new ArrayList<>() );
+		}
+	}
+
+	@Override
+	protected void collect(int shardIndex, LuceneIndexWork<?> work) {
+		if ( documentBuildingExecutor.isParallel() ) {
+			// Keep the work in the pending list, so that it stays in order with works whose document is not built yet
+			pendingWorks.add( new PendingWork( shardIndex, false, () -> work ) );
+		}
+		else {
+			works.get( shardIndex ).add( work );
+		}
 	}
 
 	@Override
-	protected void collect(LuceneIndexWork<?> work) {
-		works.add( work );
+	protected void collect(int shardIndex, String id, DocumentContributor<LuceneRootDocumentBuilder> documentContributor,
+			Function<LuceneIndexEntry, LuceneIndexWork<?>> workFactory) {
+		if ( documentBuildingExecutor.isParallel() ) {
+			/*
+			 * Run the contributor in the calling thread, which may be the only thread allowed to access the entity
+			 * (to load lazy associations from a Hibernate ORM session for instance):
+			 * only the encoding of the values it writes is executed in parallel.
+			 */
+			LuceneDeferredDocumentElement deferredDocument = new LuceneDeferredDocumentElement();
+			try {
+				contributeDeferred( documentContributor, deferredDocument );
+			}
+			catch (RuntimeException e) {
+				// Fail when the changeset is prepared, so that the whole changeset is discarded
+				pendingWorks.add( new PendingWork( shardIndex, false, () -> {
+					throw e;
+				} ) );
+				return;
+			}
+			pendingWorks.add( new PendingWork( shardIndex, true,
+					() -> workFactory.apply( buildEntry( id, deferredDocument::replay ) ) ) );
+		}
+		else {
+			super.collect( shardIndex, id, documentContributor, workFactory );
+		}
 	}
 
 	@Override
 	public void prepare() {
-		// Nothing to do: we only have to send the works to the orchestrator
+		if ( pendingWorks.isEmpty() ) {
+			return;
+		}
+
+		List<CompletableFuture<LuceneIndexWork<?>>> futures = new ArrayList<>( pendingWorks.size() );
+		try {
+			for ( PendingWork pendingWork : pendingWorks ) {
+				if ( pendingWork.requiresDocumentBuilding ) {
+					futures.add( documentBuildingExecutor.submit( pendingWork.workSupplier ) );
+				}
+				else {
+					futures.add( CompletableFuture.completedFuture( pendingWork.workSupplier.get() ) );
+				}
+			}
+			// Collect the works in their original order, whatever the order in which documents were built
+			for ( int i = 0; i < pendingWorks.size(); i++ ) {
+				works.get( pendingWorks.get( i ).shardIndex ).add( futures.get( i ).join() );
+			}
+		}
+		catch (CompletionException e) {
+			clearWorks();
+			throw Throwables.expectRuntimeException( e.getCause() );
+		}
+		catch (RuntimeException e) {
+			clearWorks();
+			throw e;
+		}
+		finally {
+			pendingWorks.clear();
+		}
 	}
 
 	@Override
 	public CompletableFuture<?> execute() {
+		prepare();
+
+		if ( orchestrators.size() == 1 ) {
+			try {
+				return orchestrators.get( 0 ).submit( works.get( 0 ) );
+			}
+			finally {
+				works.get( 0 ).clear();
+			}
+		}
+
+		// Shards are independent: each shard applies its part of the changeset on its own
+		List<CompletableFuture<?>> futures = new ArrayList<>();
 		try {
-			CompletableFuture<?> future = orchestrator.submit( works );
-			return future;
+			for ( int i = 0; i < orchestrators.size(); i++ ) {
+				List<LuceneIndexWork<?>> shardWorks = works.get( i );
+				if ( !shardWorks.isEmpty() ) {
+					futures.add( orchestrators.get( i ).submit( shardWorks ) );
+				}
+			}
 		}
 		finally {
-			works.clear();
+			clearWorks();
+		}
+		return CompletableFuture.allOf( futures.toArray( new CompletableFuture<?>[futures.size()] ) );
+	}
+
+	@SuppressWarnings("unchecked") // Contributors only access documents through index field accessors
+	private static void contributeDeferred(DocumentContributor<LuceneRootDocumentBuilder> documentContributor,
+			LuceneDeferredDocumentElement deferredDocument) {
+		( (DocumentContributor<DocumentElement>) (DocumentContributor<?>) documentContributor ).contribute( deferredDocument );
+	}
+
+	private void clearWorks() {
+		for ( List<LuceneIndexWork<?>> shardWorks : works ) {
+			shardWorks.clear();
+		}
+	}
+
+	private static final class PendingWork {
+
+		private final int shardIndex;
+		private final boolean requiresDocumentBuilding;
+		private final Supplier<LuceneIndexWork<?>> workSupplier;
+
+		PendingWork(int shardIndex, boolean requiresDocumentBuilding, Supplier<LuceneIndexWork<?>> workSupplier) {
+			this.shardIndex = shardIndex;
+			this.requiresDocumentBuilding = requiresDocumentBuilding;
+			this.workSupplier = workSupplier;
 		}
 	}
 }
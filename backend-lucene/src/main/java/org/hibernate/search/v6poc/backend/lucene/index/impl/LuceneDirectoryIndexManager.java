@@ -8,6 +8,10 @@ package org.hibernate.search.v6poc.backend.lucene.index.impl;
 
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
 import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTargetBuilder;
@@ -17,25 +21,17 @@ import org.hibernate.search.v6poc.backend.lucene.document.model.impl.LuceneIndex
 import org.hibernate.search.v6poc.backend.lucene.index.spi.ReaderProvider;
 import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
 import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexWorkOrchestrator;
-import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.StubLuceneIndexWorkOrchestrator;
 import org.hibernate.search.v6poc.backend.lucene.search.query.impl.SearchBackendContext;
 import org.hibernate.search.v6poc.engine.spi.SessionContext;
-import org.hibernate.search.v6poc.util.EventContext;
-import org.hibernate.search.v6poc.logging.spi.EventContexts;
 import org.hibernate.search.v6poc.util.SearchException;
 import org.hibernate.search.v6poc.util.impl.common.Closer;
 import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
 
-import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.IndexReader;
-import org.apache.lucene.index.IndexWriter;
-
 
 /**
  * @author Guillaume Smet
  */
-// TODO in the end the IndexManager won't implement ReaderProvider as it's far more complex than that
-class LuceneDirectoryIndexManager implements LuceneIndexManager, ReaderProvider {
+class LuceneDirectoryIndexManager implements LuceneIndexManager {
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
@@ -45,22 +41,30 @@ class LuceneDirectoryIndexManager implements LuceneIndexManager, ReaderProvider
 	private final String indexName;
 	private final LuceneIndexModel model;
 
-	private final LuceneIndexWorkOrchestrator changesetOrchestrator;
-	private final LuceneIndexWorkOrchestrator streamOrchestrator;
-	private final IndexWriter indexWriter;
+	private final List<LuceneIndexShard> shards;
+	private final List<LuceneIndexWorkOrchestrator> changesetOrchestrators = new ArrayList<>();
+	private final List<LuceneIndexWorkOrchestrator> streamOrchestrators = new ArrayList<>();
+	private final List<LuceneIndexOptimizer> optimizers = new ArrayList<>();
+	private final InFlightWorkLimiter streamWorkLimiter;
 
 	LuceneDirectoryIndexManager(IndexingBackendContext indexingBackendContext,
 			SearchBackendContext searchBackendContext,
-			String indexName, LuceneIndexModel model, IndexWriter indexWriter) {
+			String indexName, LuceneIndexModel model, List<LuceneIndexShard> shards,
+			InFlightWorkLimiter streamWorkLimiter) {
 		this.indexingBackendContext = indexingBackendContext;
 		this.searchBackendContext = searchBackendContext;
 
 		this.indexName = indexName;
 		this.model = model;
 
-		this.changesetOrchestrator = new StubLuceneIndexWorkOrchestrator( indexWriter );
-		this.streamOrchestrator = new StubLuceneIndexWorkOrchestrator( indexWriter );
-		this.indexWriter = indexWriter;
+		this.shards = shards;
+		this.streamWorkLimiter = streamWorkLimiter;
+		for ( LuceneIndexShard shard : shards ) {
+			changesetOrchestrators.add( shard.getChangesetOrchestrator() );
+			streamOrchestrators.add( shard.getStreamOrchestrator() );
+			optimizers.add( shard.getOptimizer() );
+		}
+		indexingBackendContext.register( this );
 	}
 
 	@Override
@@ -76,14 +80,14 @@ class LuceneDirectoryIndexManager implements LuceneIndexManager, ReaderProvider
 	@Override
 	public ChangesetIndexWorker<LuceneRootDocumentBuilder> createWorker(SessionContext sessionContext) {
 		return indexingBackendContext.createChangesetIndexWorker(
-				changesetOrchestrator, indexName, sessionContext
+				changesetOrchestrators, indexName, sessionContext
 		);
 	}
 
 	@Override
 	public StreamIndexWorker<LuceneRootDocumentBuilder> createStreamWorker(SessionContext sessionContext) {
 		return indexingBackendContext.createStreamIndexWorker(
-				streamOrchestrator, indexName, sessionContext
+				streamOrchestrators, optimizers, streamWorkLimiter, indexName, sessionContext
 		);
 	}
 
@@ -109,17 +113,16 @@ class LuceneDirectoryIndexManager implements LuceneIndexManager, ReaderProvider
 		return new StringBuilder( getClass().getSimpleName() )
 				.append( "[" )
 				.append( "name=" ).append( indexName )
+				.append( ", shardCount=" ).append( shards.size() )
 				.append( "]" )
 				.toString();
 	}
 
 	@Override
 	public void close() {
+		indexingBackendContext.unregister( this );
 		try ( Closer<IOException> closer = new Closer<>() ) {
-			closer.push( LuceneIndexWorkOrchestrator::close, changesetOrchestrator );
-			closer.push( LuceneIndexWorkOrchestrator::close, streamOrchestrator );
-			// Close the index writer after the orchestrators, when we're sure all works have been performed
-			closer.push( IndexWriter::close, indexWriter );
+			closer.pushAll( LuceneIndexShard::close, shards );
 			closer.push( LuceneIndexModel::close, model );
 		}
 		catch (IOException | RuntimeException e) {
@@ -127,34 +130,26 @@ class LuceneDirectoryIndexManager implements LuceneIndexManager, ReaderProvider
 		}
 	}
 
-	@Override
-	public ReaderProvider getReaderProvider() {
-		return this;
-	}
-
-	@Override
-	public IndexReader openIndexReader() {
-		try {
-			return DirectoryReader.open( indexWriter );
-		}
-		catch (IOException e) {
-			throw log.unableToCreateIndexReader( getBackendAndIndexEventContext(), e );
+	void cancelOptimize() {
+		for ( LuceneIndexOptimizer optimizer : optimizers ) {
+			optimizer.cancel();
 		}
 	}
 
 	@Override
-	public void closeIndexReader(IndexReader reader) {
-		try {
-			reader.close();
+	public Set<ReaderProvider> getReaderProviders(Set<String> routingKeys) {
+		Set<ReaderProvider> readerProviders = new LinkedHashSet<>();
+		if ( routingKeys.isEmpty() ) {
+			for ( LuceneIndexShard shard : shards ) {
+				readerProviders.add( shard.getReaderProvider() );
+			}
 		}
-		catch (IOException e) {
-			log.unableToCloseIndexReader( getBackendAndIndexEventContext(), e );
+		else {
+			for ( String routingKey : routingKeys ) {
+				int shardIndex = LuceneIndexShard.toShardIndex( shards.size(), null, routingKey );
+				readerProviders.add( shards.get( shardIndex ).getReaderProvider() );
+			}
 		}
-	}
-
-	private EventContext getBackendAndIndexEventContext() {
-		return indexingBackendContext.getEventContext().append(
-				EventContexts.fromIndexName( indexName )
-		);
+		return readerProviders;
 	}
 }
@@ -8,23 +8,44 @@ package org.hibernate.search.v6poc.backend.lucene.index.impl;
 
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
 import org.hibernate.search.v6poc.backend.document.model.dsl.spi.IndexSchemaRootNodeBuilder;
 import org.hibernate.search.v6poc.backend.index.spi.IndexManagerBuilder;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneRootDocumentBuilder;
 import org.hibernate.search.v6poc.backend.lucene.document.model.dsl.impl.LuceneIndexSchemaRootNodeBuilder;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
 import org.hibernate.search.v6poc.backend.lucene.document.model.impl.LuceneIndexModel;
+import org.hibernate.search.v6poc.backend.lucene.document.model.impl.LuceneIndexSchemaFieldNode;
 import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneBatchingIndexWorkOrchestrator;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneBulkIndexWorkOrchestrator;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexJournal;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexWorkExecutionContextImpl;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexWorkOrchestrator;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexWriteListener;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneJournalingIndexWorkOrchestrator;
 import org.hibernate.search.v6poc.backend.lucene.search.query.impl.SearchBackendContext;
+import org.hibernate.search.v6poc.backend.lucene.search.sort.impl.LuceneSearchSortCollector;
 import org.hibernate.search.v6poc.backend.spi.BackendBuildContext;
 import org.hibernate.search.v6poc.cfg.ConfigurationPropertySource;
+import org.hibernate.search.v6poc.cfg.spi.ConfigurationProperty;
 import org.hibernate.search.v6poc.util.EventContext;
 import org.hibernate.search.v6poc.logging.spi.EventContexts;
+import org.hibernate.search.v6poc.search.dsl.sort.SortOrder;
 import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
 import org.hibernate.search.v6poc.util.impl.common.SuppressingCloser;
 
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.store.Directory;
 
 /**
@@ -34,6 +55,119 @@ public class LuceneDirectoryIndexManagerBuilder implements IndexManagerBuilder<L
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
+	private static final ConfigurationProperty<Integer> INDEXING_QUEUE_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_QUEUE_SIZE )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_QUEUE_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Integer> INDEXING_MAX_BATCH_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_MAX_BATCH_SIZE )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_MAX_BATCH_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Long> INDEXING_COMMIT_INTERVAL =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_COMMIT_INTERVAL )
+					.asLong()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_COMMIT_INTERVAL )
+					.build();
+
+	private static final ConfigurationProperty<Integer> INDEXING_COMMIT_MAX_PENDING_WORKS =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_COMMIT_MAX_PENDING_WORKS )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_COMMIT_MAX_PENDING_WORKS )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> INDEXING_STREAM_BULK_ENABLED =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_STREAM_BULK_ENABLED )
+					.asBoolean()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_STREAM_BULK_ENABLED )
+					.build();
+
+	private static final ConfigurationProperty<Integer> INDEXING_STREAM_BULK_THREAD_COUNT =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_STREAM_BULK_THREAD_COUNT )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_STREAM_BULK_THREAD_COUNT )
+					.build();
+
+	private static final ConfigurationProperty<Integer> INDEXING_STREAM_BULK_RAM_BUFFER_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_STREAM_BULK_RAM_BUFFER_SIZE )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_STREAM_BULK_RAM_BUFFER_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Integer> INDEXING_STREAM_BULK_FORCE_MERGE_MAX_SEGMENTS =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_STREAM_BULK_FORCE_MERGE_MAX_SEGMENTS )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_STREAM_BULK_FORCE_MERGE_MAX_SEGMENTS )
+					.build();
+
+	private static final ConfigurationProperty<Integer> INDEXING_STREAM_MAX_IN_FLIGHT_WORKS =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_STREAM_MAX_IN_FLIGHT_WORKS )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_STREAM_MAX_IN_FLIGHT_WORKS )
+					.build();
+
+	private static final ConfigurationProperty<Integer> INDEXING_STREAM_MAX_IN_FLIGHT_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_STREAM_MAX_IN_FLIGHT_SIZE )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_STREAM_MAX_IN_FLIGHT_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Integer> INDEXING_OPTIMIZE_MAX_SEGMENTS =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_OPTIMIZE_MAX_SEGMENTS )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_OPTIMIZE_MAX_SEGMENTS )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> INDEXING_OPTIMIZE_BACKGROUND_ENABLED =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_OPTIMIZE_BACKGROUND_ENABLED )
+					.asBoolean()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_OPTIMIZE_BACKGROUND_ENABLED )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> INDEXING_JOURNAL_ENABLED =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_JOURNAL_ENABLED )
+					.asBoolean()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_JOURNAL_ENABLED )
+					.build();
+
+	private static final ConfigurationProperty<Optional<Path>> INDEXING_JOURNAL_DIRECTORY =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_JOURNAL_DIRECTORY )
+					.as( Path.class, Paths::get )
+					.build();
+
+	private static final ConfigurationProperty<Integer> INDEXING_JOURNAL_MAX_FILE_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_JOURNAL_MAX_FILE_SIZE )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.INDEXING_JOURNAL_MAX_FILE_SIZE )
+					.build();
+
+	private static final ConfigurationProperty<Integer> SHARDING_NUMBER_OF_SHARDS =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.SHARDING_NUMBER_OF_SHARDS )
+					.asInteger()
+					.withDefault( SearchBackendLuceneSettings.Defaults.SHARDING_NUMBER_OF_SHARDS )
+					.build();
+
+	private static final ConfigurationProperty<Long> REFRESH_INTERVAL =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.REFRESH_INTERVAL )
+					.asLong()
+					.withDefault( SearchBackendLuceneSettings.Defaults.REFRESH_INTERVAL )
+					.build();
+
+	private static final ConfigurationProperty<Boolean> SEARCH_WARMING_ENABLED =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.SEARCH_WARMING_ENABLED )
+					.asBoolean()
+					.withDefault( SearchBackendLuceneSettings.Defaults.SEARCH_WARMING_ENABLED )
+					.build();
+
+	private static final ConfigurationProperty<List<String>> SEARCH_WARMING_SORTS =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.SEARCH_WARMING_SORTS )
+					.asString().multivalued( Pattern.compile( "[\\s,]+" ) )
+					.withDefault( Collections.emptyList() )
+					.build();
+
 	private final IndexingBackendContext indexingBackendContext;
 	private final SearchBackendContext searchBackendContext;
 
@@ -67,27 +201,139 @@ public class LuceneDirectoryIndexManagerBuilder implements IndexManagerBuilder<L
 
 	@Override
 	public LuceneDirectoryIndexManager build() {
+		int shardCount = SHARDING_NUMBER_OF_SHARDS.get( propertySource );
+		if ( shardCount < 1 ) {
+			throw log.invalidNumberOfShards( shardCount, getEventContext( indexName ) );
+		}
+
 		LuceneIndexModel model = null;
-		IndexWriter indexWriter = null;
+		List<LuceneIndexShard> shards = new ArrayList<>( shardCount );
 		try {
 			model = new LuceneIndexModel( indexName, schemaRootNodeBuilder );
-			indexWriter = createIndexWriter( model );
+			if ( shardCount == 1 ) {
+				shards.add( createShard( indexName, model ) );
+			}
+			else {
+				for ( int i = 0; i < shardCount; i++ ) {
+					shards.add( createShard( indexName + "." + i, model ) );
+				}
+			}
+			// The limit is shared by all the shards: it is about the memory used by documents, wherever they go
+			InFlightWorkLimiter streamWorkLimiter = new InFlightWorkLimiter(
+					getEventContext( indexName ),
+					INDEXING_STREAM_MAX_IN_FLIGHT_WORKS.get( propertySource ),
+					INDEXING_STREAM_MAX_IN_FLIGHT_SIZE.get( propertySource ) * 1024L * 1024L
+			);
 			return new LuceneDirectoryIndexManager(
-					indexingBackendContext, searchBackendContext, indexName, model, indexWriter
+					indexingBackendContext, searchBackendContext, indexName, model, shards, streamWorkLimiter
 			);
 		}
 		catch (RuntimeException e) {
 			new SuppressingCloser( e )
-					.push( model )
+					.pushAll( shards )
+					.push( model );
+			throw e;
+		}
+	}
+
+	private LuceneIndexShard createShard(String shardName, LuceneIndexModel model) {
+		EventContext eventContext = getEventContext( shardName );
+		IndexWriter indexWriter = null;
+		NearRealTimeReaderProvider readerProvider = null;
+		LuceneIndexRefresher refresher = null;
+		LuceneIndexWorkOrchestrator changesetOrchestrator = null;
+		LuceneIndexWorkOrchestrator streamOrchestrator = null;
+		LuceneIndexOptimizer optimizer = null;
+		try {
+			LuceneIndexWarmer warmer = SEARCH_WARMING_ENABLED.get( propertySource )
+					? createWarmer( model, eventContext ) : null;
+			indexWriter = createIndexWriter( shardName, model, eventContext, warmer );
+			LuceneIndexWorkExecutionContextImpl workExecutionContext = new LuceneIndexWorkExecutionContextImpl(
+					indexWriter, isEntryKeyIndexed( indexWriter, eventContext )
+			);
+			readerProvider = new NearRealTimeReaderProvider( eventContext, indexWriter, warmer );
+			refresher = new LuceneIndexRefresher(
+					"Lucene refresh - " + shardName, eventContext, readerProvider.getReferenceManager(),
+					REFRESH_INTERVAL.get( propertySource )
+			);
+			changesetOrchestrator = createOrchestrator(
+					"Lucene changeset indexing - " + shardName, eventContext, workExecutionContext, refresher
+			);
+			// Commits are not journaled: they are executed by the orchestrator itself, between two changesets
+			LuceneIndexWorkOrchestrator commitOrchestrator = changesetOrchestrator;
+			if ( INDEXING_JOURNAL_ENABLED.get( propertySource ) ) {
+				changesetOrchestrator = createJournalingOrchestrator( shardName, eventContext, changesetOrchestrator );
+			}
+			streamOrchestrator = createStreamOrchestrator(
+					"Lucene stream indexing - " + shardName, eventContext, workExecutionContext, refresher
+			);
+			optimizer = new LuceneIndexOptimizer(
+					"Lucene optimize - " + shardName, indexName, eventContext,
+					indexWriter, readerProvider.getReferenceManager(),
+					indexingBackendContext.getWorkFactory(), streamOrchestrator, commitOrchestrator,
+					INDEXING_OPTIMIZE_MAX_SEGMENTS.get( propertySource ),
+					INDEXING_OPTIMIZE_BACKGROUND_ENABLED.get( propertySource )
+			);
+			return new LuceneIndexShard(
+					shardName, indexWriter, readerProvider, refresher,
+					changesetOrchestrator, streamOrchestrator, optimizer
+			);
+		}
+		catch (RuntimeException e) {
+			new SuppressingCloser( e )
+					.push( optimizer )
+					.push( changesetOrchestrator )
+					.push( streamOrchestrator )
+					.push( refresher )
+					.push( readerProvider )
 					.push( indexWriter );
 			throw e;
 		}
 	}
 
-	private IndexWriter createIndexWriter(LuceneIndexModel model) {
-		IndexWriterConfig indexWriterConfig = new IndexWriterConfig( model.getScopedAnalyzer() );
+	private LuceneIndexWorkOrchestrator createOrchestrator(String name, EventContext eventContext,
+			LuceneIndexWorkExecutionContextImpl workExecutionContext, LuceneIndexWriteListener writeListener) {
+		return new LuceneBatchingIndexWorkOrchestrator(
+				name, eventContext, workExecutionContext, writeListener,
+				INDEXING_QUEUE_SIZE.get( propertySource ), INDEXING_MAX_BATCH_SIZE.get( propertySource ),
+				INDEXING_COMMIT_INTERVAL.get( propertySource ), INDEXING_COMMIT_MAX_PENDING_WORKS.get( propertySource )
+		);
+	}
+
+	/*
+	 * Works left in the journal by a previous run are replayed before any new work is accepted.
+	 * Changeset futures are only completed once works are committed, so journal records are released at the right time.
+	 */
+	private LuceneIndexWorkOrchestrator createJournalingOrchestrator(String shardName, EventContext eventContext,
+			LuceneIndexWorkOrchestrator orchestrator) {
+		// Journal files are stored along with indexes by default
+		Path directory = INDEXING_JOURNAL_DIRECTORY.get( propertySource )
+				.orElseGet( indexingBackendContext::getRootDirectory );
+		LuceneIndexJournal journal = new LuceneIndexJournal(
+				indexName, shardName, eventContext, directory.toAbsolutePath(),
+				INDEXING_JOURNAL_MAX_FILE_SIZE.get( propertySource ) * 1024L * 1024L
+		);
+		try {
+			journal.start( indexingBackendContext.getWorkFactory(), orchestrator );
+		}
+		catch (RuntimeException e) {
+			// The orchestrator is closed by the caller
+			new SuppressingCloser( e ).push( journal );
+			throw e;
+		}
+		return new LuceneJournalingIndexWorkOrchestrator( orchestrator, journal );
+	}
+
+	private IndexWriter createIndexWriter(String shardName, LuceneIndexModel model, EventContext eventContext,
+			LuceneIndexWarmer warmer) {
+		IndexWriterConfig indexWriterConfig = LuceneIndexWriterConfigFactory.create(
+				model.getScopedAnalyzer(), propertySource, eventContext
+		);
+		if ( warmer != null ) {
+			indexWriterConfig.setMergedSegmentWarmer( warmer );
+		}
 		try {
-			Directory directory = indexingBackendContext.createDirectory( indexName );
+			Directory directory = indexingBackendContext.createDirectory( shardName );
 			try {
 				return new IndexWriter( directory, indexWriterConfig );
 			}
@@ -97,13 +343,73 @@ public class LuceneDirectoryIndexManagerBuilder implements IndexManagerBuilder<L
 			}
 		}
 		catch (IOException | RuntimeException e) {
-			throw log.unableToCreateIndexWriter( getEventContext(), e );
+			throw log.unableToCreateIndexWriter( eventContext, e );
+		}
+	}
+
+	private LuceneIndexWarmer createWarmer(LuceneIndexModel model, EventContext eventContext) {
+		List<SortField> sortFields = new ArrayList<>();
+		LuceneSearchSortCollector sortCollector = new LuceneSearchSortCollector() {
+			@Override
+			public void collectSortField(SortField sortField) {
+				sortFields.add( sortField );
+			}
+
+			@Override
+			public void collectSortFields(SortField[] sortFieldArray) {
+				Collections.addAll( sortFields, sortFieldArray );
+			}
+		};
+		for ( String absoluteFieldPath : SEARCH_WARMING_SORTS.get( propertySource ) ) {
+			LuceneIndexSchemaFieldNode<?> fieldNode = model.getFieldNode( absoluteFieldPath );
+			if ( fieldNode == null ) {
+				throw log.unknownFieldForSearch( absoluteFieldPath, eventContext );
+			}
+			fieldNode.getSortContributor().contribute( sortCollector, absoluteFieldPath, SortOrder.ASC, null );
+		}
+		return new LuceneIndexWarmer( eventContext, sortFields );
+	}
+
+	/*
+	 * Indexes created by previous versions may contain entries without an entry key,
+	 * in which case we must keep identifying entries with queries until they are reindexed.
+	 */
+	private boolean isEntryKeyIndexed(IndexWriter indexWriter, EventContext eventContext) {
+		try ( DirectoryReader indexReader = DirectoryReader.open( indexWriter ) ) {
+			boolean entryKeyIndexed = indexingBackendContext.getMultiTenancyStrategy().isEntryKeyIndexed( indexReader );
+			if ( !entryKeyIndexed ) {
+				log.entryKeyNotIndexed( eventContext );
+			}
+			return entryKeyIndexed;
+		}
+		catch (IOException e) {
+			throw log.unableToInspectIndex( eventContext, e );
+		}
+	}
+
+	private LuceneIndexWorkOrchestrator createStreamOrchestrator(String name, EventContext eventContext,
+			LuceneIndexWorkExecutionContextImpl workExecutionContext, LuceneIndexWriteListener writeListener) {
+		if ( INDEXING_STREAM_BULK_ENABLED.get( propertySource ) ) {
+			return new LuceneBulkIndexWorkOrchestrator(
+					name, eventContext, workExecutionContext, writeListener,
+					INDEXING_STREAM_BULK_THREAD_COUNT.get( propertySource ),
+					INDEXING_QUEUE_SIZE.get( propertySource ),
+					INDEXING_STREAM_BULK_RAM_BUFFER_SIZE.get( propertySource ),
+					INDEXING_STREAM_BULK_FORCE_MERGE_MAX_SEGMENTS.get( propertySource )
+			);
+		}
+		else {
+			return createOrchestrator( name, eventContext, workExecutionContext, writeListener );
 		}
 	}
 
-	private EventContext getEventContext() {
+	/*
+	 * Shards are named after their directory, so that errors point to the right directory.
+	 * Without sharding, the only shard has the same name as the index.
+	 */
+	private EventContext getEventContext(String shardName) {
 		return indexingBackendContext.getEventContext().append(
-				EventContexts.fromIndexName( indexName )
+				EventContexts.fromIndexName( shardName )
 		);
 	}
 }
@@ -6,6 +6,8 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.index.impl;
 
+import java.util.Set;
+
 import org.hibernate.search.v6poc.backend.index.spi.IndexManagerImplementor;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneRootDocumentBuilder;
 import org.hibernate.search.v6poc.backend.lucene.document.model.impl.LuceneIndexModel;
@@ -20,5 +22,9 @@ public interface LuceneIndexManager extends IndexManagerImplementor<LuceneRootDo
 
 	LuceneIndexModel getModel();
 
-	ReaderProvider getReaderProvider();
+	/**
+	 * @param routingKeys The routing keys of a query, or an empty set if the query targets all documents.
+	 * @return The reader providers of the shards that may contain documents with the given routing keys.
+	 */
+	Set<ReaderProvider> getReaderProviders(Set<String> routingKeys);
 }
@@ -0,0 +1,173 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.index.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexWorkOrchestrator;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneWorkFactory;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.Executors;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.search.ReferenceManager;
+
+/**
+ * Optimizes a shard, i.e. merges its segments down to a given number of segments.
+ * <p>
+ * By default, the optimization is executed as a work of the stream orchestrator,
+ * which blocks other works until the merge is complete.
+ * <p>
+ * In background mode, the optimization is executed in a dedicated thread instead, while works keep flowing.
+ * Segments are merged in several steps, each step halving the number of segments,
+ * so that the optimization can be cancelled between two steps.
+ * The I/O rate of these merges can be limited through the merge scheduler.
+ * Each step is committed through the changeset orchestrator,
+ * so that the commit never includes a changeset that is only partially applied.
+ * Segments are counted in the latest commit: opening a reader on the writer would flush pending documents
+ * into new, small segments.
+ */
+class LuceneIndexOptimizer implements AutoCloseable {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final String indexName;
+	private final EventContext eventContext;
+	private final IndexWriter indexWriter;
+	private final ReferenceManager<?> readerManager;
+	private final LuceneWorkFactory workFactory;
+	private final LuceneIndexWorkOrchestrator orchestrator;
+	private final LuceneIndexWorkOrchestrator commitOrchestrator;
+	private final int maxSegments;
+	private final ExecutorService backgroundExecutor;
+
+	private volatile boolean cancelled = false;
+	private boolean closed = false;
+	private CompletableFuture<?> backgroundOptimization;
+
+	LuceneIndexOptimizer(String name, String indexName, EventContext eventContext,
+			IndexWriter indexWriter, ReferenceManager<?> readerManager,
+			LuceneWorkFactory workFactory, LuceneIndexWorkOrchestrator orchestrator,
+			LuceneIndexWorkOrchestrator commitOrchestrator, int maxSegments, boolean background) {
+		this.indexName = indexName;
+		this.eventContext = eventContext;
+		this.indexWriter = indexWriter;
+		this.readerManager = readerManager;
+		this.workFactory = workFactory;
+		this.orchestrator = orchestrator;
+		this.commitOrchestrator = commitOrchestrator;
+		this.maxSegments = maxSegments;
+		this.backgroundExecutor = background ? Executors.newFixedThreadPool( 1, name ) : null;
+	}
+
+	@Override
+	public void close() {
+		if ( backgroundExecutor == null ) {
+			return;
+		}
+		synchronized ( this ) {
+			closed = true;
+		}
+		// Stop after the current step: the remaining steps would delay the shutdown needlessly
+		cancel();
+		backgroundExecutor.shutdown();
+		try {
+			backgroundExecutor.awaitTermination( Long.MAX_VALUE, TimeUnit.SECONDS );
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw log.interruptedWhileWaitingForIndexActivity( eventContext, e );
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "eventContext=" ).append( eventContext ).append( ", " )
+				.append( "maxSegments=" ).append( maxSegments ).append( ", " )
+				.append( "background=" ).append( backgroundExecutor != null )
+				.append( "]" )
+				.toString();
+	}
+
+	void optimize() {
+		if ( backgroundExecutor == null ) {
+			orchestrator.submit( workFactory.optimize( indexName, maxSegments ) );
+		}
+		else {
+			startBackgroundOptimization();
+		}
+	}
+
+	/**
+	 * Cancels the background optimization, if any.
+	 * <p>
+	 * The optimization stops once the current merge step is complete;
+	 * segments merged so far are kept.
+	 */
+	void cancel() {
+		cancelled = true;
+	}
+
+	private synchronized void startBackgroundOptimization() {
+		// The executor never rejects tasks, even once shut down: check the flag instead
+		if ( closed ) {
+			throw log.orchestratorClosed( eventContext, null );
+		}
+		if ( backgroundOptimization != null && !backgroundOptimization.isDone() ) {
+			// An optimization is already in progress and will take the latest segments into account
+			return;
+		}
+		cancelled = false;
+		backgroundOptimization = CompletableFuture.runAsync( this::mergeInSteps, backgroundExecutor );
+	}
+
+	private void mergeInSteps() {
+		try {
+			int segmentCount = getSegmentCount();
+			while ( !cancelled && segmentCount > maxSegments ) {
+				int targetSegmentCount = Math.max( maxSegments, segmentCount / 2 );
+				indexWriter.forceMerge( targetSegmentCount, true );
+				// Make the merged segments durable, and release the files of the old segments as soon as possible
+				commit();
+				int newSegmentCount = getSegmentCount();
+				if ( newSegmentCount >= segmentCount ) {
+					// Segments are flushed as fast as we merge them: leave it to the merge policy
+					break;
+				}
+				segmentCount = newSegmentCount;
+			}
+			readerManager.maybeRefresh();
+		}
+		catch (IOException | RuntimeException e) {
+			log.unableToOptimizeIndexInBackground( eventContext, e );
+		}
+	}
+
+	private void commit() {
+		commitOrchestrator.submit( workFactory.commit( indexName ) ).join();
+	}
+
+	private int getSegmentCount() throws IOException {
+		try {
+			return SegmentInfos.readLatestCommit( indexWriter.getDirectory() ).size();
+		}
+		catch (IndexNotFoundException e) {
+			// Nothing was ever committed
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.index.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.search.ReferenceManager;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexWriteListener;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.Executors;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+/**
+ * Refreshes the near-real-time readers of an index, independently from commits.
+ * <p>
+ * With a refresh interval of 0, readers are refreshed synchronously after each batch of changesets,
+ * before the changeset futures are completed, so that changes are visible to queries
+ * as soon as a changeset is executed (read-your-writes).
+ * A failed refresh is only logged: it affects the visibility of the changes, not their durability.
+ * With a positive refresh interval, readers are refreshed periodically in a background thread,
+ * and changes become visible to queries at most one interval after they have been executed.
+ */
+class LuceneIndexRefresher implements LuceneIndexWriteListener, AutoCloseable {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final EventContext eventContext;
+	private final ReferenceManager<?> referenceManager;
+	private final ScheduledExecutorService refreshExecutor;
+
+	LuceneIndexRefresher(String name, EventContext eventContext, ReferenceManager<?> referenceManager,
+			long refreshInterval) {
+		this.eventContext = eventContext;
+		this.referenceManager = referenceManager;
+		if ( refreshInterval > 0 ) {
+			this.refreshExecutor = Executors.newScheduledThreadPool( name );
+			refreshExecutor.scheduleWithFixedDelay(
+					this::refreshInBackground, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS
+			);
+		}
+		else {
+			this.refreshExecutor = null;
+		}
+	}
+
+	@Override
+	public void close() {
+		if ( refreshExecutor != null ) {
+			refreshExecutor.shutdownNow();
+		}
+	}
+
+	@Override
+	public void afterWrite() {
+		if ( refreshExecutor == null ) {
+			refresh();
+		}
+	}
+
+	private void refresh() {
+		try {
+			referenceManager.maybeRefreshBlocking();
+		}
+		catch (IOException | RuntimeException e) {
+			// The changes were applied and will be committed: failing the changesets would be wrong
+			log.unableToRefreshIndexReaderAfterWrite( eventContext, e );
+		}
+	}
+
+	private void refreshInBackground() {
+		try {
+			// Don't wait if another thread is already refreshing
+			referenceManager.maybeRefresh();
+		}
+		catch (IOException | RuntimeException e) {
+			log.unableToRefreshIndexReaderInBackground( eventContext, e );
+		}
+	}
+
+}
@@ -10,8 +10,6 @@ import java.util.Set;
 import java.util.function.Function;
 
 import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTargetBase;
-import org.hibernate.search.v6poc.backend.lucene.document.model.impl.LuceneIndexModel;
-import org.hibernate.search.v6poc.backend.lucene.index.spi.ReaderProvider;
 import org.hibernate.search.v6poc.backend.lucene.search.impl.LuceneSearchTargetModel;
 import org.hibernate.search.v6poc.backend.lucene.search.query.impl.LuceneSearchTargetContext;
 import org.hibernate.search.v6poc.backend.lucene.search.query.impl.SearchBackendContext;
@@ -33,8 +31,8 @@ class LuceneIndexSearchTarget extends IndexSearchTargetBase {
 	private final SearchTargetContext<?> searchTargetContext;
 
 	LuceneIndexSearchTarget(SearchBackendContext searchBackendContext,
-			Set<LuceneIndexModel> indexModels, Set<ReaderProvider> readerProviders) {
-		this.searchTargetModel = new LuceneSearchTargetModel( indexModels, readerProviders );
+			Set<LuceneIndexManager> indexManagers) {
+		this.searchTargetModel = new LuceneSearchTargetModel( indexManagers );
 		this.searchTargetContext = new LuceneSearchTargetContext( searchBackendContext, searchTargetModel );
 	}
 
@@ -9,12 +9,9 @@ package org.hibernate.search.v6poc.backend.lucene.index.impl;
 import java.lang.invoke.MethodHandles;
 import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
 import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTargetBuilder;
-import org.hibernate.search.v6poc.backend.lucene.document.model.impl.LuceneIndexModel;
-import org.hibernate.search.v6poc.backend.lucene.index.spi.ReaderProvider;
 import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
 import org.hibernate.search.v6poc.backend.lucene.search.query.impl.SearchBackendContext;
 import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
@@ -49,15 +46,7 @@ class LuceneIndexSearchTargetBuilder implements IndexSearchTargetBuilder {
 
 	@Override
 	public IndexSearchTarget build() {
-		// Use LinkedHashSet to ensure stable order when generating requests
-		Set<LuceneIndexModel> indexModels = indexManagers.stream().map( LuceneIndexManager::getModel )
-				.collect( Collectors.toCollection( LinkedHashSet::new ) );
-
-		// TODO obviously, this will have to be changed once we have the full storage complexity from Search 5
-		Set<ReaderProvider> readerProviders = indexManagers.stream().map( LuceneIndexManager::getReaderProvider )
-				.collect( Collectors.toCollection( LinkedHashSet::new ) );
-
-		return new LuceneIndexSearchTarget( searchBackendContext, indexModels, readerProviders );
+		return new LuceneIndexSearchTarget( searchBackendContext, indexManagers );
 	}
 
 	@Override
@@ -0,0 +1,95 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.index.impl;
+
+import java.io.IOException;
+
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexWorkOrchestrator;
+import org.hibernate.search.v6poc.util.impl.common.Closer;
+
+import org.apache.lucene.index.IndexWriter;
+
+/**
+ * One physical part of an index: a Lucene directory with its own writer, writer threads and readers.
+ */
+class LuceneIndexShard implements AutoCloseable {
+
+	/**
+	 * @param shardCount The number of shards of the index.
+	 * @param id The identifier of a document.
+	 * @param routingKey The routing key of a document, or {@code null}.
+	 * @return The index of the shard the document belongs to.
+	 */
+	static int toShardIndex(int shardCount, String id, String routingKey) {
+		if ( shardCount == 1 ) {
+			return 0;
+		}
+		// String.hashCode() is specified, so the shard of a given document will not change after a restart
+		String key = routingKey != null ? routingKey : id;
+		return Math.floorMod( key.hashCode(), shardCount );
+	}
+
+	private final String name;
+	private final IndexWriter indexWriter;
+	private final NearRealTimeReaderProvider readerProvider;
+	private final LuceneIndexRefresher refresher;
+	private final LuceneIndexWorkOrchestrator changesetOrchestrator;
+	private final LuceneIndexWorkOrchestrator streamOrchestrator;
+	private final LuceneIndexOptimizer optimizer;
+
+	LuceneIndexShard(String name, IndexWriter indexWriter,
+			NearRealTimeReaderProvider readerProvider, LuceneIndexRefresher refresher,
+			LuceneIndexWorkOrchestrator changesetOrchestrator, LuceneIndexWorkOrchestrator streamOrchestrator,
+			LuceneIndexOptimizer optimizer) {
+		this.name = name;
+		this.indexWriter = indexWriter;
+		this.readerProvider = readerProvider;
+		this.refresher = refresher;
+		this.changesetOrchestrator = changesetOrchestrator;
+		this.streamOrchestrator = streamOrchestrator;
+		this.optimizer = optimizer;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try ( Closer<IOException> closer = new Closer<>() ) {
+			closer.push( LuceneIndexOptimizer::close, optimizer );
+			closer.push( LuceneIndexWorkOrchestrator::close, changesetOrchestrator );
+			closer.push( LuceneIndexWorkOrchestrator::close, streamOrchestrator );
+			closer.push( LuceneIndexRefresher::close, refresher );
+			// Readers acquired before this point will stay usable until they are released
+			closer.push( NearRealTimeReaderProvider::close, readerProvider );
+			// Close the index writer after the orchestrators, when we're sure all works have been performed
+			closer.push( IndexWriter::close, indexWriter );
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "name=" ).append( name )
+				.append( "]" )
+				.toString();
+	}
+
+	NearRealTimeReaderProvider getReaderProvider() {
+		return readerProvider;
+	}
+
+	LuceneIndexWorkOrchestrator getChangesetOrchestrator() {
+		return changesetOrchestrator;
+	}
+
+	LuceneIndexWorkOrchestrator getStreamOrchestrator() {
+		return streamOrchestrator;
+	}
+
+	LuceneIndexOptimizer getOptimizer() {
+		return optimizer;
+	}
+}
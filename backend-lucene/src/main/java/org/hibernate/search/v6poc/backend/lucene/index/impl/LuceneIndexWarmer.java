@@ -0,0 +1,181 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.index.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+
+/**
+ * Warms new segments before they become visible to searches,
+ * so that the first searches after a refresh do not pay for loading doc values, norms and terms.
+ * <p>
+ * Segments produced by merges are warmed by the index writer before the merge is committed,
+ * and segments produced by flushes are warmed when the near-real-time reader is reopened.
+ * Segments that were already part of the previous reader are not warmed again.
+ * <p>
+ * Warming failures are logged and do not prevent the segments from being searched.
+ */
+class LuceneIndexWarmer extends SearcherFactory implements IndexWriter.IndexReaderWarmer {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final EventContext eventContext;
+	private final List<SortField> sortFields;
+
+	/**
+	 * @param eventContext The event context of the shard.
+	 * @param sortFields The sorts to execute on each new segment, in addition to loading its data structures.
+	 */
+	LuceneIndexWarmer(EventContext eventContext, List<SortField> sortFields) {
+		this.eventContext = eventContext;
+		this.sortFields = sortFields;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "eventContext=" ).append( eventContext ).append( ", " )
+				.append( "sortFields=" ).append( sortFields )
+				.append( "]" )
+				.toString();
+	}
+
+	@Override
+	public void warm(LeafReader reader) {
+		try {
+			warmSegment( reader );
+		}
+		catch (IOException | RuntimeException e) {
+			log.unableToWarmIndexSegments( eventContext, e );
+		}
+	}
+
+	@Override
+	public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) throws IOException {
+		Set<Object> previousSegmentKeys = new HashSet<>();
+		if ( previousReader != null ) {
+			for ( LeafReaderContext leaf : previousReader.leaves() ) {
+				Object key = getSegmentKey( leaf.reader() );
+				if ( key != null ) {
+					previousSegmentKeys.add( key );
+				}
+			}
+		}
+
+		try {
+			for ( LeafReaderContext leaf : reader.leaves() ) {
+				Object key = getSegmentKey( leaf.reader() );
+				if ( key == null || !previousSegmentKeys.contains( key ) ) {
+					warmSegment( leaf.reader() );
+				}
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			log.unableToWarmIndexSegments( eventContext, e );
+		}
+
+		return super.newSearcher( reader, previousReader );
+	}
+
+	private void warmSegment(LeafReader reader) throws IOException {
+		for ( FieldInfo fieldInfo : reader.getFieldInfos() ) {
+			String fieldName = fieldInfo.name;
+			if ( fieldInfo.getIndexOptions() != IndexOptions.NONE ) {
+				Terms terms = reader.terms( fieldName );
+				if ( terms != null ) {
+					terms.iterator().next();
+				}
+			}
+			if ( fieldInfo.hasNorms() ) {
+				warmNumericValues( reader.getNormValues( fieldName ) );
+			}
+			switch ( fieldInfo.getDocValuesType() ) {
+				case NUMERIC:
+					warmNumericValues( reader.getNumericDocValues( fieldName ) );
+					break;
+				case BINARY:
+					BinaryDocValues binaryDocValues = reader.getBinaryDocValues( fieldName );
+					while ( binaryDocValues.nextDoc() != DocIdSetIterator.NO_MORE_DOCS ) {
+						binaryDocValues.binaryValue();
+					}
+					break;
+				case SORTED:
+					SortedDocValues sortedDocValues = reader.getSortedDocValues( fieldName );
+					while ( sortedDocValues.nextDoc() != DocIdSetIterator.NO_MORE_DOCS ) {
+						sortedDocValues.ordValue();
+					}
+					break;
+				case SORTED_NUMERIC:
+					SortedNumericDocValues sortedNumericDocValues = reader.getSortedNumericDocValues( fieldName );
+					while ( sortedNumericDocValues.nextDoc() != DocIdSetIterator.NO_MORE_DOCS ) {
+						sortedNumericDocValues.nextValue();
+					}
+					break;
+				case SORTED_SET:
+					SortedSetDocValues sortedSetDocValues = reader.getSortedSetDocValues( fieldName );
+					while ( sortedSetDocValues.nextDoc() != DocIdSetIterator.NO_MORE_DOCS ) {
+						sortedSetDocValues.nextOrd();
+					}
+					break;
+				default:
+					break;
+			}
+		}
+
+		if ( !sortFields.isEmpty() ) {
+			IndexSearcher searcher = new IndexSearcher( reader );
+			// Do not fill the query cache with warming queries
+			searcher.setQueryCache( null );
+			for ( SortField sortField : sortFields ) {
+				if ( reader.getFieldInfos().fieldInfo( sortField.getField() ) != null ) {
+					searcher.search( new MatchAllDocsQuery(), 1, new Sort( sortField ) );
+				}
+			}
+		}
+	}
+
+	private static void warmNumericValues(NumericDocValues values) throws IOException {
+		if ( values == null ) {
+			return;
+		}
+		while ( values.nextDoc() != DocIdSetIterator.NO_MORE_DOCS ) {
+			values.longValue();
+		}
+	}
+
+	private static Object getSegmentKey(LeafReader reader) {
+		IndexReader.CacheHelper cacheHelper = reader.getCoreCacheHelper();
+		return cacheHelper == null ? null : cacheHelper.getKey();
+	}
+}
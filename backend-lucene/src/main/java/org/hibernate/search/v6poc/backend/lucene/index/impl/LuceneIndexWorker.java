@@ -6,12 +6,16 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.index.impl;
 
+import java.util.List;
+import java.util.function.Function;
+
 import org.hibernate.search.v6poc.backend.index.spi.DocumentContributor;
 import org.hibernate.search.v6poc.backend.index.spi.DocumentReferenceProvider;
 import org.hibernate.search.v6poc.backend.index.spi.IndexWorker;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneRootDocumentBuilder;
 import org.hibernate.search.v6poc.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexWorkOrchestrator;
 import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneIndexWork;
 import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneWorkFactory;
 import org.hibernate.search.v6poc.engine.spi.SessionContext;
@@ -24,13 +28,16 @@ abstract class LuceneIndexWorker implements IndexWorker<LuceneRootDocumentBuilde
 
 	protected final LuceneWorkFactory factory;
 	protected final MultiTenancyStrategy multiTenancyStrategy;
+	protected final List<LuceneIndexWorkOrchestrator> orchestrators;
 	protected final String indexName;
 	protected final String tenantId;
 
-	protected LuceneIndexWorker(LuceneWorkFactory factory, MultiTenancyStrategy multiTenancyStrategy, String indexName,
+	protected LuceneIndexWorker(LuceneWorkFactory factory, MultiTenancyStrategy multiTenancyStrategy,
+			List<LuceneIndexWorkOrchestrator> orchestrators, String indexName,
 			SessionContext sessionContext) {
 		this.factory = factory;
 		this.multiTenancyStrategy = multiTenancyStrategy;
+		this.orchestrators = orchestrators;
 		this.indexName = indexName;
 		this.tenantId = sessionContext.getTenantIdentifier();
 	}
@@ -41,13 +48,8 @@ abstract class LuceneIndexWorker implements IndexWorker<LuceneRootDocumentBuilde
 		String id = referenceProvider.getIdentifier();
 		String routingKey = referenceProvider.getRoutingKey();
 
-		LuceneRootDocumentBuilder builder = new LuceneRootDocumentBuilder();
-		documentContributor.contribute( builder );
-		LuceneIndexEntry indexEntry = builder.build( indexName, multiTenancyStrategy, tenantId, id );
-
-		collect( factory.add( indexName, tenantId, id, routingKey, indexEntry ) );
-		// FIXME remove this explicit commit
-		collect( factory.commit( indexName ) );
+		collect( toShardIndex( id, routingKey ), id, documentContributor,
+				indexEntry -> factory.add( indexName, tenantId, id, routingKey, indexEntry ) );
 	}
 
 	@Override
@@ -56,13 +58,8 @@ abstract class LuceneIndexWorker implements IndexWorker<LuceneRootDocumentBuilde
 		String id = referenceProvider.getIdentifier();
 		String routingKey = referenceProvider.getRoutingKey();
 
-		LuceneRootDocumentBuilder builder = new LuceneRootDocumentBuilder();
-		documentContributor.contribute( builder );
-		LuceneIndexEntry indexEntry = builder.build( indexName, multiTenancyStrategy, tenantId, id );
-
-		collect( factory.update( indexName, tenantId, id, routingKey, indexEntry ) );
-		// FIXME remove this explicit commit
-		collect( factory.commit( indexName ) );
+		collect( toShardIndex( id, routingKey ), id, documentContributor,
+				indexEntry -> factory.update( indexName, tenantId, id, routingKey, indexEntry ) );
 	}
 
 	@Override
@@ -70,11 +67,38 @@ abstract class LuceneIndexWorker implements IndexWorker<LuceneRootDocumentBuilde
 		String id = referenceProvider.getIdentifier();
 		String routingKey = referenceProvider.getRoutingKey();
 
-		collect( factory.delete( indexName, tenantId, id, routingKey ) );
-		// FIXME remove this explicit commit
-		collect( factory.commit( indexName ) );
+		collect( toShardIndex( id, routingKey ), factory.delete( indexName, tenantId, id, routingKey ) );
+	}
+
+	protected abstract void collect(int shardIndex, LuceneIndexWork<?> work);
+
+	/**
+	 * Collects a work that requires a document to be built first.
+	 * <p>
+	 * By default, the document is built immediately, in the calling thread.
+	 *
+	 * @param shardIndex The index of the shard the work should be executed on.
+	 * @param id The document id.
+	 * @param documentContributor The contributor of the document.
+	 * @param workFactory Creates the work from the built document.
+	 */
+	protected void collect(int shardIndex, String id, DocumentContributor<LuceneRootDocumentBuilder> documentContributor,
+			Function<LuceneIndexEntry, LuceneIndexWork<?>> workFactory) {
+		collect( shardIndex, workFactory.apply( buildEntry( id, documentContributor ) ) );
 	}
 
-	protected abstract void collect(LuceneIndexWork<?> work);
+	protected final LuceneIndexEntry buildEntry(String id, DocumentContributor<LuceneRootDocumentBuilder> documentContributor) {
+		return buildEntry( new LuceneRootDocumentBuilder(), id, documentContributor );
+	}
+
+	protected final LuceneIndexEntry buildEntry(LuceneRootDocumentBuilder builder, String id,
+			DocumentContributor<LuceneRootDocumentBuilder> documentContributor) {
+		documentContributor.contribute( builder );
+		return builder.build( indexName, multiTenancyStrategy, tenantId, id );
+	}
+
+	private int toShardIndex(String id, String routingKey) {
+		return LuceneIndexShard.toShardIndex( orchestrators.size(), id, routingKey );
+	}
 
 }
@@ -0,0 +1,140 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.index.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Optional;
+
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.cfg.ConfigurationPropertySource;
+import org.hibernate.search.v6poc.cfg.spi.ConfigurationProperty;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.index.ConcurrentMergeScheduler;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.TieredMergePolicy;
+
+/**
+ * Creates the {@link IndexWriterConfig} of an index from configuration properties.
+ * <p>
+ * Settings that are not configured keep the Lucene defaults.
+ */
+final class LuceneIndexWriterConfigFactory {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private static final ConfigurationProperty<Optional<Double>> RAM_BUFFER_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_RAM_BUFFER_SIZE )
+					.as( Double.class, Double::valueOf )
+					.build();
+
+	private static final ConfigurationProperty<Optional<Double>> MERGE_SEGMENTS_PER_TIER =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_MERGE_SEGMENTS_PER_TIER )
+					.as( Double.class, Double::valueOf )
+					.build();
+
+	private static final ConfigurationProperty<Optional<Integer>> MERGE_MAX_MERGE_AT_ONCE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_MERGE_MAX_MERGE_AT_ONCE )
+					.asInteger()
+					.build();
+
+	private static final ConfigurationProperty<Optional<Double>> MERGE_MAX_MERGED_SEGMENT_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_MERGE_MAX_MERGED_SEGMENT_SIZE )
+					.as( Double.class, Double::valueOf )
+					.build();
+
+	private static final ConfigurationProperty<Optional<Double>> MERGE_FLOOR_SEGMENT_SIZE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_MERGE_FLOOR_SEGMENT_SIZE )
+					.as( Double.class, Double::valueOf )
+					.build();
+
+	private static final ConfigurationProperty<Optional<Integer>> MERGE_SCHEDULER_MAX_THREAD_COUNT =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_THREAD_COUNT )
+					.asInteger()
+					.build();
+
+	private static final ConfigurationProperty<Optional<Integer>> MERGE_SCHEDULER_MAX_MERGE_COUNT =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_MERGE_COUNT )
+					.asInteger()
+					.build();
+
+	private static final ConfigurationProperty<Optional<Double>> MERGE_SCHEDULER_FORCE_MERGE_MAX_RATE =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_FORCE_MERGE_MAX_RATE )
+					.as( Double.class, Double::valueOf )
+					.build();
+
+	private static final ConfigurationProperty<Optional<Codec>> CODEC =
+			ConfigurationProperty.forKey( SearchBackendLuceneSettings.INDEXING_CODEC )
+					.as( Codec.class, Codec::forName )
+					.build();
+
+	// Same as Lucene's default for non-rotational disks
+	private static final int ADDITIONAL_MERGES_PER_THREAD = 5;
+
+	private LuceneIndexWriterConfigFactory() {
+	}
+
+	static IndexWriterConfig create(Analyzer analyzer, ConfigurationPropertySource propertySource,
+			EventContext eventContext) {
+		IndexWriterConfig config = new IndexWriterConfig( analyzer );
+
+		RAM_BUFFER_SIZE.get( propertySource ).ifPresent( config::setRAMBufferSizeMB );
+
+		TieredMergePolicy mergePolicy = new TieredMergePolicy();
+		MERGE_SEGMENTS_PER_TIER.get( propertySource ).ifPresent( mergePolicy::setSegmentsPerTier );
+		MERGE_MAX_MERGE_AT_ONCE.get( propertySource ).ifPresent( mergePolicy::setMaxMergeAtOnce );
+		MERGE_MAX_MERGED_SEGMENT_SIZE.get( propertySource ).ifPresent( mergePolicy::setMaxMergedSegmentMB );
+		MERGE_FLOOR_SEGMENT_SIZE.get( propertySource ).ifPresent( mergePolicy::setFloorSegmentMB );
+		config.setMergePolicy( mergePolicy );
+
+		ConcurrentMergeScheduler mergeScheduler = new ConcurrentMergeScheduler();
+		Optional<Integer> maxThreadCountOptional = MERGE_SCHEDULER_MAX_THREAD_COUNT.get( propertySource );
+		Optional<Integer> maxMergeCountOptional = MERGE_SCHEDULER_MAX_MERGE_COUNT.get( propertySource );
+		if ( maxThreadCountOptional.isPresent() || maxMergeCountOptional.isPresent() ) {
+			// A missing value is derived from the other one, so that the merge count is never below the thread count
+			int maxThreadCount = maxThreadCountOptional.orElseGet( () -> Math.max(
+					1, Math.min( getDefaultMaxThreadCount(), maxMergeCountOptional.get() )
+			) );
+			int maxMergeCount = maxMergeCountOptional.orElse( maxThreadCount + ADDITIONAL_MERGES_PER_THREAD );
+			if ( maxThreadCount <= 0 ) {
+				throw log.invalidMergeSchedulerMaxThreadCount(
+						maxThreadCount, SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_THREAD_COUNT, eventContext
+				);
+			}
+			if ( maxMergeCount < maxThreadCount ) {
+				throw log.invalidMergeSchedulerMaxMergeCount(
+						maxMergeCount, SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_MERGE_COUNT,
+						maxThreadCount, SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_THREAD_COUNT,
+						eventContext
+				);
+			}
+			mergeScheduler.setMaxMergesAndThreads( maxMergeCount, maxThreadCount );
+		}
+		// Otherwise, let Lucene detect whether the index is on a rotational disk and pick the defaults accordingly
+		// Optimizing is not throttled by default
+		MERGE_SCHEDULER_FORCE_MERGE_MAX_RATE.get( propertySource ).ifPresent( mergeScheduler::setForceMergeMBPerSec );
+		config.setMergeScheduler( mergeScheduler );
+
+		CODEC.get( propertySource ).ifPresent( config::setCodec );
+
+		log.indexWriterConfiguration(
+				config.getRAMBufferSizeMB(), mergePolicy, mergeScheduler, config.getCodec().getName(),
+				eventContext
+		);
+
+		return config;
+	}
+
+	// Lucene's default for non-rotational disks, see ConcurrentMergeScheduler
+	private static int getDefaultMaxThreadCount() {
+		return Math.max( 1, Math.min( 4, Runtime.getRuntime().availableProcessors() / 2 ) );
+	}
+}
@@ -6,7 +6,15 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.index.impl;
 
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.hibernate.search.v6poc.backend.index.spi.DocumentContributor;
 import org.hibernate.search.v6poc.backend.index.spi.StreamIndexWorker;
+import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneRootDocumentBuilder;
 import org.hibernate.search.v6poc.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
 import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneIndexWorkOrchestrator;
@@ -16,31 +24,98 @@ import org.hibernate.search.v6poc.engine.spi.SessionContext;
 
 
 /**
+ * A worker submitting works to the orchestrators as soon as they are collected.
+ * <p>
+ * Stream workers are typically used to index large amounts of documents,
+ * so documents are built with {@link LuceneRootDocumentBuilder#reusable() reusable builders}
+ * to keep the allocation rate down: a builder is confined to the thread building a document,
+ * then goes back to the pool once the resulting work has been executed.
+ * <p>
+ * Submitting works blocks when too many works, or too large documents, are in flight for the index,
+ * so that producers cannot get too far ahead of the writers.
+ *
  * @author Guillaume Smet
  */
 class LuceneStreamIndexWorker extends LuceneIndexWorker implements StreamIndexWorker<LuceneRootDocumentBuilder> {
 
-	private final LuceneIndexWorkOrchestrator orchestrator;
+	/*
+	 * Builders are not pooled beyond that count, to bound the memory retained by idle builders.
+	 * Works in flight beyond that count simply get a new builder.
+	 */
+	private static final int MAX_POOLED_DOCUMENT_BUILDERS = 128;
+
+	private final List<LuceneIndexOptimizer> optimizers;
+	private final InFlightWorkLimiter workLimiter;
+
+	private final BlockingQueue<LuceneRootDocumentBuilder> documentBuilderPool =
+			new ArrayBlockingQueue<>( MAX_POOLED_DOCUMENT_BUILDERS );
 
 	LuceneStreamIndexWorker(LuceneWorkFactory factory, MultiTenancyStrategy multiTenancyStrategy,
-			LuceneIndexWorkOrchestrator orchestrator,
-			String indexName, SessionContext sessionContext) {
-		super( factory, multiTenancyStrategy, indexName, sessionContext );
-		this.orchestrator = orchestrator;
+			List<LuceneIndexWorkOrchestrator> orchestrators, List<LuceneIndexOptimizer> optimizers,
+			InFlightWorkLimiter workLimiter, String indexName, SessionContext sessionContext) {
+		super( factory, multiTenancyStrategy, orchestrators, indexName, sessionContext );
+		this.optimizers = optimizers;
+		this.workLimiter = workLimiter;
+	}
+
+	@Override
+	protected void collect(int shardIndex, LuceneIndexWork<?> work) {
+		submit( shardIndex, work, 0L );
 	}
 
 	@Override
-	protected void collect(LuceneIndexWork<?> work) {
-		orchestrator.submit( work );
+	protected void collect(int shardIndex, String id, DocumentContributor<LuceneRootDocumentBuilder> documentContributor,
+			Function<LuceneIndexEntry, LuceneIndexWork<?>> workFactory) {
+		LuceneRootDocumentBuilder builder = acquireDocumentBuilder();
+		CompletableFuture<?> future;
+		try {
+			LuceneIndexEntry indexEntry = buildEntry( builder, id, documentContributor );
+			future = submit( shardIndex, workFactory.apply( indexEntry ), workLimiter.estimateSize( indexEntry ) );
+		}
+		catch (RuntimeException e) {
+			releaseDocumentBuilder( builder );
+			throw e;
+		}
+		// The work references the fields of the builder until it is executed
+		future.whenComplete( (result, throwable) -> releaseDocumentBuilder( builder ) );
 	}
 
 	@Override
 	public void flush() {
-		collect( factory.flush( indexName ) );
+		for ( LuceneIndexWorkOrchestrator orchestrator : orchestrators ) {
+			orchestrator.submit( factory.flush( indexName ) );
+		}
 	}
 
 	@Override
 	public void optimize() {
-		collect( factory.optimize( indexName ) );
+		for ( LuceneIndexOptimizer optimizer : optimizers ) {
+			optimizer.optimize();
+		}
+	}
+
+	private CompletableFuture<?> submit(int shardIndex, LuceneIndexWork<?> work, long estimatedSize) {
+		workLimiter.acquire( estimatedSize );
+		CompletableFuture<?> future;
+		try {
+			future = orchestrators.get( shardIndex ).submit( work );
+		}
+		catch (RuntimeException e) {
+			workLimiter.release( estimatedSize );
+			throw e;
+		}
+		future.whenComplete( (result, throwable) -> workLimiter.release( estimatedSize ) );
+		return future;
+	}
+
+	private LuceneRootDocumentBuilder acquireDocumentBuilder() {
+		LuceneRootDocumentBuilder builder = documentBuilderPool.poll();
+		return builder != null ? builder : LuceneRootDocumentBuilder.reusable();
+	}
+
+	private void releaseDocumentBuilder(LuceneRootDocumentBuilder builder) {
+		builder.reset();
+		// If the pool is full, just let the builder be garbage collected
+		documentBuilderPool.offer( builder );
 	}
 }
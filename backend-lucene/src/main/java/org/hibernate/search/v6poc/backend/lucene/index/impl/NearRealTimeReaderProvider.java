@@ -0,0 +1,96 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.index.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.hibernate.search.v6poc.backend.lucene.index.spi.ReaderProvider;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+/**
+ * A {@link ReaderProvider} sharing the same near-real-time reader across queries.
+ * <p>
+ * The current reader is kept open between queries, so that segment readers and their caches are reused.
+ * Each query gets its own reference to the current reader,
+ * which stays usable until the query releases it, even if the reader is swapped in the meantime.
+ * Refreshes swap the current reader atomically,
+ * and old readers are closed as soon as the last query using them releases them.
+ */
+class NearRealTimeReaderProvider implements ReaderProvider, AutoCloseable {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final EventContext eventContext;
+	private final SearcherManager searcherManager;
+
+	/**
+	 * @param eventContext The event context of the shard.
+	 * @param indexWriter The index writer to open readers from.
+	 * @param searcherFactory The factory called each time a new reader is opened, or {@code null} for the default.
+	 */
+	NearRealTimeReaderProvider(EventContext eventContext, IndexWriter indexWriter, SearcherFactory searcherFactory) {
+		this.eventContext = eventContext;
+		try {
+			this.searcherManager = new SearcherManager( indexWriter, searcherFactory );
+		}
+		catch (IOException e) {
+			throw log.unableToCreateIndexReader( eventContext, e );
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		// Readers still in use will be closed when they are released
+		searcherManager.close();
+	}
+
+	@Override
+	public IndexReader openIndexReader() {
+		try {
+			return searcherManager.acquire().getIndexReader();
+		}
+		catch (IOException | RuntimeException e) {
+			throw log.unableToCreateIndexReader( eventContext, e );
+		}
+	}
+
+	@Override
+	public void closeIndexReader(IndexReader reader) {
+		try {
+			// Same as releasing the searcher acquired in openIndexReader()
+			reader.decRef();
+		}
+		catch (IOException | RuntimeException e) {
+			log.unableToCloseIndexReader( eventContext, e );
+		}
+	}
+
+	/**
+	 * @return The reference manager holding the current reader, to be refreshed after writes.
+	 */
+	ReferenceManager<IndexSearcher> getReferenceManager() {
+		return searcherManager;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "eventContext=" ).append( eventContext )
+				.append( "]" )
+				.toString();
+	}
+}
@@ -28,6 +28,8 @@ import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageLogger;
 import org.jboss.logging.annotations.Param;
 
+import org.apache.lucene.index.MergePolicy;
+import org.apache.lucene.index.MergeScheduler;
 import org.apache.lucene.search.Query;
 
 @MessageLogger(projectCode = "HSEARCH-LUCENE")
@@ -215,4 +217,113 @@ public interface Log extends BasicLogger {
 	@Message(id = 549, value = "Invalid field path; expected path '%1$s', got '%2$s'.")
 	SearchException invalidFieldPath(String expectedPath, String actualPath);
 
+	@Message(id = 550, value = "Interrupted while waiting for index activity.")
+	SearchException interruptedWhileWaitingForIndexActivity(@Param EventContext context, @Cause InterruptedException e);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 551, value = "Unable to refresh the index readers after changes were applied."
+			+ " The changes will be committed, but will not be visible to queries until the next successful refresh. %1$s")
+	void unableToRefreshIndexReaderAfterWrite(@FormatWith(EventContextFormatter.class) EventContext context,
+			@Cause Exception e);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 552, value = "Unable to refresh the index readers in the background. %1$s")
+	void unableToRefreshIndexReaderInBackground(@FormatWith(EventContextFormatter.class) EventContext context,
+			@Cause Exception e);
+
+	@Message(id = 553, value = "Unable to submit works: the index is closed.")
+	SearchException orchestratorClosed(@Param EventContext context, @Cause Exception e);
+
+	@LogMessage(level = Level.INFO)
+	@Message(id = 554, value = "Index writer configuration: RAM buffer size: %1$s MB, merge policy: %2$s,"
+			+ " merge scheduler: %3$s, codec: '%4$s'. %5$s")
+	void indexWriterConfiguration(double ramBufferSizeMb, MergePolicy mergePolicy, MergeScheduler mergeScheduler,
+			String codecName, @FormatWith(EventContextFormatter.class) EventContext context);
+
+	@Message(id = 555, value = "Unknown filesystem access strategy '%1$s'.")
+	SearchException unknownFileSystemAccessStrategyConfiguration(String fileSystemAccessStrategy);
+
+	@Message(id = 556, value = "Invalid number of shards: '%1$s'. The number of shards must be strictly positive.")
+	SearchException invalidNumberOfShards(int numberOfShards, @Param EventContext context);
+
+	@Message(id = 557, value = "Interrupted while waiting for query activity.")
+	SearchException interruptedWhileWaitingForQueryActivity(@Param EventContext context, @Cause InterruptedException e);
+
+	@Message(id = 558, value = "Unable to execute queries: the backend is closed.")
+	SearchException queryOrchestratorClosed(@Param EventContext context, @Cause Exception e);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 559, value = "Some documents in the index were indexed without an entry key:"
+			+ " updates and deletes will use slower, query-based operations."
+			+ " Reindex all documents and optimize the index, then restart, to switch to term-based operations. %1$s")
+	void entryKeyNotIndexed(@FormatWith(EventContextFormatter.class) EventContext context);
+
+	@Message(id = 560, value = "Unable to inspect the index.")
+	SearchException unableToInspectIndex(@Param EventContext context, @Cause Exception e);
+
+	@LogMessage(level = Level.ERROR)
+	@Message(id = 561, value = "Unable to optimize the index in the background. %1$s")
+	void unableToOptimizeIndexInBackground(@FormatWith(EventContextFormatter.class) EventContext context,
+			@Cause Exception e);
+
+	@Message(id = 562, value = "Unknown index: '%1$s'.")
+	SearchException unknownIndex(String indexName, @Param EventContext context);
+
+	@Message(id = 563, value = "Unable to write to the indexing journal '%1$s'.")
+	SearchException unableToWriteJournal(Path path, @Param EventContext context, @Cause Exception e);
+
+	@Message(id = 564, value = "Unable to replay the indexing journal '%1$s'.")
+	SearchException unableToReplayJournal(Path path, @Param EventContext context, @Cause Throwable e);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 565, value = "Ignoring the end of the indexing journal '%1$s' from position %2$s:"
+			+ " the record is incomplete or corrupted, probably because of a crash while writing it. %3$s")
+	void ignoringCorruptedJournalRecord(Path path, long position, @FormatWith(EventContextFormatter.class) EventContext context);
+
+	@LogMessage(level = Level.INFO)
+	@Message(id = 566, value = "Replayed %1$s changesets from the indexing journal. %2$s")
+	void replayedJournal(int changesetCount, @FormatWith(EventContextFormatter.class) EventContext context);
+
+	@Message(id = 567, value = "Unable to write field '%1$s' to the indexing journal: only string, binary and numeric values are supported.")
+	SearchException unsupportedJournalFieldValue(String fieldName, @Param EventContext context);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 568, value = "Unable to release committed records from the indexing journal '%1$s':"
+			+ " they will be replayed on the next startup. %2$s")
+	void unableToReleaseJournalRecords(Path path, @FormatWith(EventContextFormatter.class) EventContext context,
+			@Cause Exception e);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 569, value = "Unable to warm new index segments: the first searches on these segments may be slower. %1$s")
+	void unableToWarmIndexSegments(@FormatWith(EventContextFormatter.class) EventContext context, @Cause Exception e);
+
+	@Message(id = 570, value = "Invalid scroll page size: '%1$s'. The page size must be strictly positive.")
+	SearchException invalidScrollPageSize(int pageSize, @Param EventContext context);
+
+	@Message(id = 571, value = "Unable to fetch the next page: the scroll is closed.")
+	SearchException scrollClosed(@Param EventContext context);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 572, value = "A query without a maximum number of results matched %1$s documents,"
+			+ " but only the first %2$s hits were returned."
+			+ " Set a maximum number of results, use a scroll, or raise the default maximum number of results of the backend."
+			+ " This warning is logged at most once per minute. %3$s")
+	void unboundedQueryTruncated(long hitCount, long maxResultsCount,
+			@FormatWith(EventContextFormatter.class) EventContext context);
+
+	@Message(id = 573, value = "Invalid total hit count threshold: '%1$s'. The threshold must be strictly positive.")
+	SearchException invalidTotalHitCountThreshold(long totalHitCountThreshold, @Param EventContext context);
+
+	@Message(id = 574, value = "Unable to build documents: the backend is closed.")
+	SearchException documentBuildingExecutorClosed(@Param EventContext context);
+
+	@Message(id = 575, value = "Invalid maximum number of merge threads: '%1$s'."
+			+ " The value of property '%2$s' must be strictly positive.")
+	SearchException invalidMergeSchedulerMaxThreadCount(int maxThreadCount, String propertyKey, @Param EventContext context);
+
+	@Message(id = 576, value = "Invalid maximum number of merges: '%1$s'. The value of property '%2$s'"
+			+ " must be greater than or equal to the maximum number of merge threads, '%3$s' (property '%4$s').")
+	SearchException invalidMergeSchedulerMaxMergeCount(int maxMergeCount, String maxMergeCountPropertyKey,
+			int maxThreadCount, String maxThreadCountPropertyKey, @Param EventContext context);
+
 }
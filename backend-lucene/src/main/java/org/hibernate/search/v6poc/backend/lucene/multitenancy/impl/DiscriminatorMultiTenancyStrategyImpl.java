@@ -6,20 +6,23 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.multitenancy.impl;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
 import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
 import org.hibernate.search.v6poc.backend.lucene.search.impl.LuceneQueries;
 import org.hibernate.search.v6poc.backend.lucene.util.impl.LuceneFields;
-import org.hibernate.search.v6poc.backend.lucene.work.impl.QueryBasedDeleteEntryLuceneWork;
-import org.hibernate.search.v6poc.backend.lucene.work.impl.QueryBasedUpdateEntryLuceneWork;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.EntryKeyBasedDeleteEntryLuceneWork;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.EntryKeyBasedUpdateEntryLuceneWork;
 import org.hibernate.search.v6poc.util.EventContext;
 import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.Query;
 
 public class DiscriminatorMultiTenancyStrategyImpl implements MultiTenancyStrategy {
@@ -36,19 +39,32 @@ public class DiscriminatorMultiTenancyStrategyImpl implements MultiTenancyStrate
 		document.add( new StringField( LuceneFields.tenantIdFieldName(), tenantId, Store.YES ) );
 	}
 
+	@Override
+	public void contributeToRootDocument(Document rootDocument, String tenantId, String id) {
+		rootDocument.add( new StringField( LuceneFields.entryKeyFieldName(), LuceneFields.entryKey( tenantId, id ), Store.NO ) );
+	}
+
+	@Override
+	public boolean isEntryKeyIndexed(IndexReader indexReader) throws IOException {
+		// Both counts include deleted documents that haven't been merged away yet
+		int rootDocumentCount = indexReader.docFreq( new Term( LuceneFields.typeFieldName(), LuceneFields.TYPE_MAIN_DOCUMENT ) );
+		int entryKeyDocumentCount = indexReader.getDocCount( LuceneFields.entryKeyFieldName() );
+		return entryKeyDocumentCount >= rootDocumentCount;
+	}
+
 	@Override
 	public Query decorateLuceneQuery(Query originalLuceneQuery, String tenantId) {
 		return LuceneQueries.wrapWithDiscriminatorTenantIdQuery( originalLuceneQuery, tenantId );
 	}
 
 	@Override
-	public QueryBasedUpdateEntryLuceneWork createUpdateEntryLuceneWork(String indexName, String tenantId, String id, LuceneIndexEntry indexEntry) {
-		return new QueryBasedUpdateEntryLuceneWork( indexName, tenantId, id, indexEntry );
+	public EntryKeyBasedUpdateEntryLuceneWork createUpdateEntryLuceneWork(String indexName, String tenantId, String id, LuceneIndexEntry indexEntry) {
+		return new EntryKeyBasedUpdateEntryLuceneWork( indexName, tenantId, id, indexEntry );
 	}
 
 	@Override
-	public QueryBasedDeleteEntryLuceneWork createDeleteEntryLuceneWork(String indexName, String tenantId, String id) {
-		return new QueryBasedDeleteEntryLuceneWork( indexName, tenantId, id );
+	public EntryKeyBasedDeleteEntryLuceneWork createDeleteEntryLuceneWork(String indexName, String tenantId, String id) {
+		return new EntryKeyBasedDeleteEntryLuceneWork( indexName, tenantId, id );
 	}
 
 	@Override
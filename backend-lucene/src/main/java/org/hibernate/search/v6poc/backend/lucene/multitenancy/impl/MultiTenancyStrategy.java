@@ -6,7 +6,10 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.multitenancy.impl;
 
+import java.io.IOException;
+
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.Query;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
 import org.hibernate.search.v6poc.backend.lucene.work.impl.AbstractDeleteEntryLuceneWork;
@@ -34,6 +37,25 @@ public interface MultiTenancyStrategy {
 	 */
 	void contributeToIndexedDocument(Document document, String tenantId);
 
+	/**
+	 * Contributes additional information to the root document of an entry, i.e. not to its nested documents.
+	 *
+	 * @param rootDocument The root document.
+	 * @param tenantId The tenant id.
+	 * @param id The document id.
+	 */
+	void contributeToRootDocument(Document rootDocument, String tenantId, String id);
+
+	/**
+	 * Checks whether all the entries of an existing index can be identified using a single term.
+	 *
+	 * @param indexReader A reader on the index.
+	 * @return {@code true} if all entries can be identified using a single term,
+	 * {@code false} if some entries were indexed by a previous version and need a query to be identified.
+	 * @throws IOException If the index cannot be read.
+	 */
+	boolean isEntryKeyIndexed(IndexReader indexReader) throws IOException;
+
 	/**
 	 * Decorate the query with the tenant constraint.
 	 *
@@ -9,6 +9,7 @@ package org.hibernate.search.v6poc.backend.lucene.multitenancy.impl;
 import java.lang.invoke.MethodHandles;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.Query;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
 import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
@@ -31,6 +32,17 @@ public class NoMultiTenancyStrategyImpl implements MultiTenancyStrategy {
 		// No need to add anything to documents, the ID field (already added elsewhere) is enough
 	}
 
+	@Override
+	public void contributeToRootDocument(Document rootDocument, String tenantId, String id) {
+		// No need to add anything to documents, the ID field (already added elsewhere) is enough
+	}
+
+	@Override
+	public boolean isEntryKeyIndexed(IndexReader indexReader) {
+		// The ID field has always been indexed
+		return true;
+	}
+
 	@Override
 	public Query decorateLuceneQuery(Query originalLuceneQuery, String tenantId) {
 		return originalLuceneQuery;
@@ -0,0 +1,408 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.orchestration.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.lucene.index.IndexWriter;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneIndexEntryWork;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneIndexWork;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.common.Executors;
+import org.hibernate.search.v6poc.util.impl.common.Futures;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+/**
+ * An orchestrator executing works on a dedicated writer thread, in batches.
+ * <p>
+ * Changesets are put in a bounded queue: when the queue is full, submitting blocks until
+ * the writer thread catches up, which gives us back-pressure.
+ * The writer thread drains as many changesets as possible from the queue (up to the maximum batch size),
+ * and executes them in order.
+ * <p>
+ * Commits are coalesced: instead of committing after each work or changeset,
+ * the writer thread commits at most once per batch, and if a commit interval is set,
+ * at most once per interval, unless too many works are waiting to be committed.
+ * Changeset futures are only completed once the changes have been committed,
+ * so that waiting for a future guarantees the changes are durable.
+ * <p>
+ * Before executing a batch, works on the same entry are collapsed:
+ * a work is skipped when a later work in the same batch removes the entry anyway
+ * (an update or a delete for the same tenant and identifier).
+ * The future of the skipped work is completed along with the future of the work superseding it.
+ * Works that do not target a single entry (flush, optimize, ...) act as barriers:
+ * works are never collapsed across them.
+ */
+public class LuceneBatchingIndexWorkOrchestrator implements LuceneIndexWorkOrchestrator {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final EventContext eventContext;
+	private final LuceneIndexWorkExecutionContextImpl context;
+	private final IndexWriter indexWriter;
+	private final LuceneIndexWriteListener writeListener;
+	private final int maxBatchSize;
+	private final long commitIntervalNanos;
+	private final int commitMaxPendingWorks;
+
+	private final BlockingQueue<Changeset> changesetQueue;
+	private final ScheduledExecutorService writerExecutor;
+	private final AtomicBoolean processingScheduled = new AtomicBoolean( false );
+
+	/*
+	 * Changesets queued after close() drained the queue would never be executed,
+	 * so we must make sure no changeset is queued after that.
+	 */
+	private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+	private boolean closed = false;
+
+	// Only accessed from the writer thread, or from close() once the writer thread has stopped
+	private final List<Changeset> batch;
+	private final List<Changeset> changesetsAwaitingCommit = new ArrayList<>();
+	private int pendingWorkCount = 0;
+	private long lastCommitNanoTime = System.nanoTime();
+	private ScheduledFuture<?> scheduledCommit;
+
+	public LuceneBatchingIndexWorkOrchestrator(String name, EventContext eventContext,
+			LuceneIndexWorkExecutionContextImpl context, LuceneIndexWriteListener writeListener,
+			int queueSize, int maxBatchSize, long commitInterval, int commitMaxPendingWorks) {
+		this.eventContext = eventContext;
+		this.context = context;
+		this.indexWriter = context.getIndexWriter();
+		this.writeListener = writeListener;
+		this.maxBatchSize = maxBatchSize;
+		this.commitIntervalNanos = TimeUnit.MILLISECONDS.toNanos( commitInterval );
+		this.commitMaxPendingWorks = commitMaxPendingWorks;
+		this.changesetQueue = new ArrayBlockingQueue<>( queueSize );
+		this.writerExecutor = Executors.newScheduledThreadPool( name );
+		this.batch = new ArrayList<>( maxBatchSize );
+	}
+
+	@Override
+	public void close() {
+		closeLock.writeLock().lock();
+		try {
+			closed = true;
+			writerExecutor.shutdown();
+		}
+		finally {
+			closeLock.writeLock().unlock();
+		}
+		try {
+			writerExecutor.awaitTermination( Long.MAX_VALUE, TimeUnit.SECONDS );
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw log.interruptedWhileWaitingForIndexActivity( eventContext, e );
+		}
+		// Changesets submitted after the last processing was scheduled are executed in the current thread
+		while ( !changesetQueue.isEmpty() ) {
+			processBatch();
+		}
+		commit();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked") // The future returns the result of the last (and only) work
+	public <T> CompletableFuture<T> submit(LuceneIndexWork<T> work) {
+		return (CompletableFuture<T>) enqueue( Collections.<LuceneIndexWork<?>>singletonList( work ) );
+	}
+
+	@Override
+	public CompletableFuture<?> submit(List<LuceneIndexWork<?>> works) {
+		return enqueue( new ArrayList<>( works ) );
+	}
+
+	private CompletableFuture<Object> enqueue(List<LuceneIndexWork<?>> works) {
+		Changeset changeset = new Changeset( works );
+		closeLock.readLock().lock();
+		try {
+			if ( closed ) {
+				throw log.orchestratorClosed( eventContext, null );
+			}
+			// The writer thread keeps draining the queue until close() acquires the write lock
+			changesetQueue.put( changeset );
+			ensureProcessingScheduled();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw log.interruptedWhileWaitingForIndexActivity( eventContext, e );
+		}
+		finally {
+			closeLock.readLock().unlock();
+		}
+		return changeset.future;
+	}
+
+	private void ensureProcessingScheduled() {
+		if ( processingScheduled.compareAndSet( false, true ) ) {
+			try {
+				writerExecutor.submit( this::processScheduledBatch );
+			}
+			catch (RejectedExecutionException e) {
+				// We're shutting down: remaining changesets will be processed in close()
+				processingScheduled.set( false );
+			}
+		}
+	}
+
+	private void processScheduledBatch() {
+		try {
+			processBatch();
+		}
+		finally {
+			processingScheduled.set( false );
+			// Changesets may have been submitted while we were processing the batch
+			if ( !changesetQueue.isEmpty() ) {
+				ensureProcessingScheduled();
+			}
+		}
+	}
+
+	private void processBatch() {
+		try {
+			changesetQueue.drainTo( batch, maxBatchSize );
+			skipSupersededWorks( batch );
+			for ( Changeset changeset : batch ) {
+				changeset.execute( context );
+				changesetsAwaitingCommit.add( changeset );
+				pendingWorkCount += changeset.works.size();
+			}
+			if ( !batch.isEmpty() ) {
+				writeListener.afterWrite();
+			}
+		}
+		finally {
+			batch.clear();
+		}
+		commitIfNecessary();
+	}
+
+	private static void skipSupersededWorks(List<Changeset> batch) {
+		// Iterate backwards, so that we know which works will be superseded before we reach them
+		Map<EntryKey, WorkReference> supersedingWorks = new HashMap<>();
+		for ( int changesetIndex = batch.size() - 1; changesetIndex >= 0; changesetIndex-- ) {
+			Changeset changeset = batch.get( changesetIndex );
+			List<LuceneIndexWork<?>> works = changeset.works;
+			for ( int workIndex = works.size() - 1; workIndex >= 0; workIndex-- ) {
+				LuceneIndexWork<?> work = works.get( workIndex );
+				if ( !( work instanceof LuceneIndexEntryWork ) ) {
+					supersedingWorks.clear();
+					continue;
+				}
+				LuceneIndexEntryWork<?> entryWork = (LuceneIndexEntryWork<?>) work;
+				EntryKey key = new EntryKey( entryWork.getTenantId(), entryWork.getId() );
+				WorkReference supersedingWork = supersedingWorks.get( key );
+				if ( supersedingWork != null ) {
+					changeset.skip( workIndex, supersedingWork );
+				}
+				else if ( entryWork.supersedesPreviousWorks() ) {
+					supersedingWorks.put( key, new WorkReference( changeset, workIndex ) );
+				}
+			}
+		}
+	}
+
+	private void commitIfNecessary() {
+		if ( changesetsAwaitingCommit.isEmpty() ) {
+			return;
+		}
+
+		long nanosSinceLastCommit = System.nanoTime() - lastCommitNanoTime;
+		if ( nanosSinceLastCommit >= commitIntervalNanos || pendingWorkCount >= commitMaxPendingWorks ) {
+			commit();
+		}
+		else if ( scheduledCommit == null ) {
+			try {
+				scheduledCommit = writerExecutor.schedule(
+						this::processScheduledCommit, commitIntervalNanos - nanosSinceLastCommit, TimeUnit.NANOSECONDS
+				);
+			}
+			catch (RejectedExecutionException e) {
+				// We're shutting down: don't delay the commit
+				commit();
+			}
+		}
+	}
+
+	private void processScheduledCommit() {
+		scheduledCommit = null;
+		commit();
+	}
+
+	private void commit() {
+		if ( scheduledCommit != null ) {
+			scheduledCommit.cancel( false );
+			scheduledCommit = null;
+		}
+		if ( changesetsAwaitingCommit.isEmpty() ) {
+			return;
+		}
+
+		try {
+			indexWriter.commit();
+			writeListener.afterCommit();
+		}
+		catch (IOException | RuntimeException e) {
+			SearchException commitFailure = log.unableToCommitIndex( eventContext, e );
+			for ( Changeset changeset : changesetsAwaitingCommit ) {
+				changeset.fail( commitFailure );
+			}
+		}
+		finally {
+			lastCommitNanoTime = System.nanoTime();
+		}
+
+		try {
+			for ( Changeset changeset : changesetsAwaitingCommit ) {
+				changeset.complete();
+			}
+		}
+		finally {
+			changesetsAwaitingCommit.clear();
+			pendingWorkCount = 0;
+		}
+	}
+
+	private static final class Changeset {
+
+		private final List<LuceneIndexWork<?>> works;
+		private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+		private final CompletableFuture<?>[] workFutures;
+
+		// Lazily initialized: most changesets do not contain superseded works
+		private WorkReference[] supersedingWorks;
+		private CompletableFuture<?> executionFuture;
+		private Throwable failure;
+
+		Changeset(List<LuceneIndexWork<?>> works) {
+			this.works = works;
+			this.workFutures = new CompletableFuture<?>[works.size()];
+		}
+
+		void skip(int workIndex, WorkReference supersedingWork) {
+			if ( supersedingWorks == null ) {
+				supersedingWorks = new WorkReference[works.size()];
+			}
+			supersedingWorks[workIndex] = supersedingWork;
+		}
+
+		void execute(LuceneIndexWorkExecutionContextImpl context) {
+			CompletableFuture<?> chain = CompletableFuture.completedFuture( null );
+			for ( int i = 0; i < works.size(); i++ ) {
+				if ( supersedingWorks != null && supersedingWorks[i] != null ) {
+					continue;
+				}
+				LuceneIndexWork<?> work = works.get( i );
+				chain = chain.thenCompose( Futures.safeComposer( ignored -> work.execute( context ) ) );
+				workFutures[i] = chain;
+			}
+			executionFuture = chain;
+		}
+
+		void fail(Throwable throwable) {
+			if ( failure == null ) {
+				failure = throwable;
+			}
+		}
+
+		void complete() {
+			CompletableFuture<?> resultFuture = executionFuture;
+			if ( supersedingWorks != null ) {
+				int lastWorkIndex = works.size() - 1;
+				for ( int i = 0; i <= lastWorkIndex; i++ ) {
+					WorkReference supersedingWork = supersedingWorks[i];
+					if ( supersedingWork == null ) {
+						continue;
+					}
+					CompletableFuture<?> supersedingFuture = supersedingWork.getFuture();
+					if ( i == lastWorkIndex ) {
+						// The result of the changeset is the result of its last work, i.e. of the work superseding it
+						resultFuture = resultFuture.thenCompose( ignored -> supersedingFuture );
+					}
+					else {
+						resultFuture = resultFuture.thenCombine( supersedingFuture, (result, ignored) -> result );
+					}
+				}
+			}
+			resultFuture.whenComplete( (result, throwable) -> {
+				if ( throwable != null ) {
+					future.completeExceptionally( throwable );
+				}
+				else if ( failure != null ) {
+					future.completeExceptionally( failure );
+				}
+				else {
+					future.complete( result );
+				}
+			} );
+		}
+	}
+
+	private static final class WorkReference {
+
+		private final Changeset changeset;
+		private final int workIndex;
+
+		WorkReference(Changeset changeset, int workIndex) {
+			this.changeset = changeset;
+			this.workIndex = workIndex;
+		}
+
+		CompletableFuture<?> getFuture() {
+			return changeset.workFutures[workIndex];
+		}
+	}
+
+	private static final class EntryKey {
+
+		private final String tenantId;
+		private final String id;
+
+		EntryKey(String tenantId, String id) {
+			this.tenantId = tenantId;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( this == obj ) {
+				return true;
+			}
+			if ( obj == null || getClass() != obj.getClass() ) {
+				return false;
+			}
+			EntryKey other = (EntryKey) obj;
+			return Objects.equals( tenantId, other.tenantId ) && Objects.equals( id, other.id );
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash( tenantId, id );
+		}
+	}
+}
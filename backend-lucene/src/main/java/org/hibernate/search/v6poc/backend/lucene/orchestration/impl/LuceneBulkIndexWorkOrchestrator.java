@@ -0,0 +1,265 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.orchestration.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LiveIndexWriterConfig;
+import org.apache.lucene.index.MergePolicy;
+import org.apache.lucene.index.TieredMergePolicy;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneIndexEntryWork;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneIndexWork;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.Executors;
+import org.hibernate.search.v6poc.util.impl.common.Futures;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+/**
+ * An orchestrator optimized for loading large amounts of entries into an index.
+ * <p>
+ * Entry works are executed concurrently by multiple threads,
+ * so that several threads feed the index writer at once,
+ * and the number of works waiting for a thread is bounded, which gives us back-pressure.
+ * Each thread has its own queue, and entry works are routed to a queue based on their tenant ID and entry ID,
+ * so that works affecting the same entry are always executed in the order they were submitted.
+ * <p>
+ * The first entry work starts a load: the index writer is switched to a larger RAM buffer
+ * and a merge policy that merges less often, and nothing is committed.
+ * Works affecting the whole index (flush, optimize, ...) end the load:
+ * they are executed once all the works submitted before them have been executed,
+ * then the original index writer settings are restored,
+ * the index is optionally merged down to a given number of segments,
+ * and the changes are committed.
+ * The futures of entry works complete before their changes are committed:
+ * only the future of the work ending the load guarantees that the loaded entries are durable.
+ */
+public class LuceneBulkIndexWorkOrchestrator implements LuceneIndexWorkOrchestrator {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	// Merge less often during a load: we expect the load to be followed by a final merge anyway
+	private static final double LOAD_SEGMENTS_PER_TIER = 50.0;
+	private static final int LOAD_MAX_MERGE_AT_ONCE = 50;
+
+	private final EventContext eventContext;
+	private final LuceneIndexWorkExecutionContextImpl context;
+	private final IndexWriter indexWriter;
+	private final LuceneIndexWriteListener writeListener;
+	private final double loadRamBufferSizeMb;
+	private final int forceMergeMaxSegments;
+
+	private final int maxInFlightWorks;
+	private final Semaphore inFlightWorkPermits;
+	private final ExecutorService[] writerExecutors;
+
+	private volatile boolean closed = false;
+
+	// Protected by synchronization on this
+	private boolean loading = false;
+	private double originalRamBufferSizeMb;
+	private MergePolicy originalMergePolicy;
+
+	public LuceneBulkIndexWorkOrchestrator(String name, EventContext eventContext,
+			LuceneIndexWorkExecutionContextImpl context, LuceneIndexWriteListener writeListener,
+			int threadCount, int maxInFlightWorks, int loadRamBufferSizeMb, int forceMergeMaxSegments) {
+		this.eventContext = eventContext;
+		this.context = context;
+		this.indexWriter = context.getIndexWriter();
+		this.writeListener = writeListener;
+		this.loadRamBufferSizeMb = loadRamBufferSizeMb;
+		this.forceMergeMaxSegments = forceMergeMaxSegments;
+		this.maxInFlightWorks = maxInFlightWorks;
+		// Fair, so that index-wide works do not starve while entry works keep coming
+		this.inFlightWorkPermits = new Semaphore( maxInFlightWorks, true );
+		this.writerExecutors = new ExecutorService[threadCount];
+		for ( int i = 0; i < threadCount; i++ ) {
+			writerExecutors[i] = Executors.newFixedThreadPool( 1, name + " - " + i, maxInFlightWorks );
+		}
+	}
+
+	@Override
+	public void close() {
+		acquireAllPermits();
+		try {
+			closed = true;
+			for ( ExecutorService writerExecutor : writerExecutors ) {
+				writerExecutor.shutdown();
+			}
+			stopLoading();
+		}
+		finally {
+			inFlightWorkPermits.release( maxInFlightWorks );
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked") // The future returns the result of the last (and only) work
+	public <T> CompletableFuture<T> submit(LuceneIndexWork<T> work) {
+		return (CompletableFuture<T>) submitWorks( Collections.<LuceneIndexWork<?>>singletonList( work ) );
+	}
+
+	@Override
+	public CompletableFuture<?> submit(List<LuceneIndexWork<?>> works) {
+		return submitWorks( new ArrayList<>( works ) );
+	}
+
+	private CompletableFuture<Object> submitWorks(List<LuceneIndexWork<?>> works) {
+		for ( LuceneIndexWork<?> work : works ) {
+			if ( !( work instanceof LuceneIndexEntryWork ) ) {
+				return executeExclusively( works );
+			}
+		}
+		return executeConcurrently( works );
+	}
+
+	private CompletableFuture<Object> executeConcurrently(List<LuceneIndexWork<?>> works) {
+		// Split the changeset per writer thread, preserving the order of works within each thread
+		Map<Integer, List<LuceneIndexWork<?>>> worksByExecutor = new LinkedHashMap<>();
+		int lastWorkExecutorIndex = -1;
+		for ( LuceneIndexWork<?> work : works ) {
+			lastWorkExecutorIndex = getExecutorIndex( (LuceneIndexEntryWork) work );
+			worksByExecutor.computeIfAbsent( lastWorkExecutorIndex, ignored -> new ArrayList<>() ).add( work );
+		}
+
+		int permits = Math.min( worksByExecutor.size(), maxInFlightWorks );
+		try {
+			inFlightWorkPermits.acquire( permits );
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw log.interruptedWhileWaitingForIndexActivity( eventContext, e );
+		}
+
+		if ( closed ) {
+			inFlightWorkPermits.release( permits );
+			throw log.orchestratorClosed( eventContext, null );
+		}
+
+		startLoading();
+		Map<Integer, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+		for ( Map.Entry<Integer, List<LuceneIndexWork<?>>> entry : worksByExecutor.entrySet() ) {
+			CompletableFuture<Object> future = new CompletableFuture<>();
+			List<LuceneIndexWork<?>> executorWorks = entry.getValue();
+			writerExecutors[entry.getKey()].execute(
+					() -> execute( executorWorks ).whenComplete( Futures.copyHandler( future ) )
+			);
+			futures.put( entry.getKey(), future );
+		}
+		CompletableFuture<Object> lastWorkFuture = futures.get( lastWorkExecutorIndex );
+		return CompletableFuture.allOf( futures.values().toArray( new CompletableFuture<?>[futures.size()] ) )
+				.whenComplete( (ignored, throwable) -> inFlightWorkPermits.release( permits ) )
+				.thenCompose( ignored -> lastWorkFuture );
+	}
+
+	private int getExecutorIndex(LuceneIndexEntryWork work) {
+		return Math.floorMod( Objects.hash( work.getTenantId(), work.getId() ), writerExecutors.length );
+	}
+
+	private CompletableFuture<Object> executeExclusively(List<LuceneIndexWork<?>> works) {
+		// Wait for all the works submitted before this one to be executed, and prevent new works from executing
+		acquireAllPermits();
+		try {
+			CompletableFuture<Object> future = execute( works );
+			try {
+				stopLoading();
+				if ( forceMergeMaxSegments > 0 ) {
+					indexWriter.forceMerge( forceMergeMaxSegments );
+				}
+				writeListener.afterWrite();
+			}
+			catch (IOException | RuntimeException e) {
+				return future.thenCompose( ignored -> failedFuture( log.unableToFlushIndex( eventContext, e ) ) );
+			}
+			try {
+				indexWriter.commit();
+				writeListener.afterCommit();
+			}
+			catch (IOException | RuntimeException e) {
+				return future.thenCompose( ignored -> failedFuture( log.unableToCommitIndex( eventContext, e ) ) );
+			}
+			return future;
+		}
+		finally {
+			inFlightWorkPermits.release( maxInFlightWorks );
+		}
+	}
+
+	private static CompletableFuture<Object> failedFuture(Throwable throwable) {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		future.completeExceptionally( throwable );
+		return future;
+	}
+
+	@SuppressWarnings("unchecked") // The future returns the result of the last work
+	private CompletableFuture<Object> execute(List<LuceneIndexWork<?>> works) {
+		CompletableFuture<?> chain = CompletableFuture.completedFuture( null );
+		for ( LuceneIndexWork<?> work : works ) {
+			chain = chain.thenCompose( Futures.safeComposer( ignored -> work.execute( context ) ) );
+		}
+		return (CompletableFuture<Object>) chain;
+	}
+
+	private void acquireAllPermits() {
+		try {
+			inFlightWorkPermits.acquire( maxInFlightWorks );
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw log.interruptedWhileWaitingForIndexActivity( eventContext, e );
+		}
+	}
+
+	private synchronized void startLoading() {
+		if ( loading ) {
+			return;
+		}
+		LiveIndexWriterConfig config = indexWriter.getConfig();
+		originalRamBufferSizeMb = config.getRAMBufferSizeMB();
+		originalMergePolicy = config.getMergePolicy();
+
+		TieredMergePolicy loadMergePolicy = new TieredMergePolicy();
+		loadMergePolicy.setSegmentsPerTier( LOAD_SEGMENTS_PER_TIER );
+		loadMergePolicy.setMaxMergeAtOnce( LOAD_MAX_MERGE_AT_ONCE );
+		config.setRAMBufferSizeMB( loadRamBufferSizeMb );
+		config.setMergePolicy( loadMergePolicy );
+
+		loading = true;
+	}
+
+	private synchronized void stopLoading() {
+		if ( !loading ) {
+			return;
+		}
+		LiveIndexWriterConfig config = indexWriter.getConfig();
+		config.setRAMBufferSizeMB( originalRamBufferSizeMb );
+		config.setMergePolicy( originalMergePolicy );
+
+		loading = false;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "eventContext=" ).append( eventContext )
+				.append( ", loading=" ).append( loading )
+				.append( "]" )
+				.toString();
+	}
+}
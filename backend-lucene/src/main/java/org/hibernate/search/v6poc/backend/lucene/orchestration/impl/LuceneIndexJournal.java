@@ -0,0 +1,539 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.orchestration.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.CRC32;
+
+import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneIndexEntryWork;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneIndexWork;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneWorkFactory;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.IndexableFieldType;
+import org.apache.lucene.util.BytesRef;
+
+/**
+ * An append-only journal of the entry works submitted to an orchestrator,
+ * so that works acknowledged before a crash but not committed to the index yet are not lost.
+ * <p>
+ * Records are appended to generation files named {@code <shard name>.journal.<generation>}.
+ * A record is written and synced to disk before its works are submitted,
+ * and released once the works are committed.
+ * When all the records of the current generation are released, the file is truncated;
+ * when it grows beyond a given size, a new generation is started,
+ * and the previous one is deleted once all its records are released.
+ * <p>
+ * On startup, the remaining records are replayed, adds being replayed as updates so that replaying is idempotent.
+ * Records are checksummed: a record left incomplete by a crash is ignored, along with the rest of its file.
+ */
+public class LuceneIndexJournal implements AutoCloseable {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private static final String FILE_NAME_INFIX = ".journal.";
+
+	// Record header: payload length, then payload checksum
+	private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+	private static final byte ADD = 0;
+	private static final byte UPDATE = 1;
+	private static final byte DELETE = 2;
+
+	private static final byte STRING_VALUE = 0;
+	private static final byte BINARY_VALUE = 1;
+	private static final byte INT_VALUE = 2;
+	private static final byte LONG_VALUE = 3;
+	private static final byte FLOAT_VALUE = 4;
+	private static final byte DOUBLE_VALUE = 5;
+
+	private static final int STORED = 1;
+	private static final int TOKENIZED = 1 << 1;
+	private static final int STORE_TERM_VECTORS = 1 << 2;
+	private static final int STORE_TERM_VECTOR_OFFSETS = 1 << 3;
+	private static final int STORE_TERM_VECTOR_POSITIONS = 1 << 4;
+	private static final int STORE_TERM_VECTOR_PAYLOADS = 1 << 5;
+	private static final int OMIT_NORMS = 1 << 6;
+
+	private final String indexName;
+	private final String shardName;
+	private final EventContext eventContext;
+	private final Path directory;
+	private final long maxFileSize;
+
+	private Generation currentGeneration;
+
+	/**
+	 * @param indexName The name of the index, used when replaying works.
+	 * @param shardName The name of the shard, used to name journal files.
+	 * @param eventContext The event context of the shard.
+	 * @param directory The directory containing journal files.
+	 * @param maxFileSize The size of a journal file, in bytes, beyond which a new generation is started.
+	 */
+	public LuceneIndexJournal(String indexName, String shardName, EventContext eventContext,
+			Path directory, long maxFileSize) {
+		this.indexName = indexName;
+		this.shardName = shardName;
+		this.eventContext = eventContext;
+		this.directory = directory;
+		this.maxFileSize = maxFileSize;
+	}
+
+	@Override
+	public synchronized void close() {
+		if ( currentGeneration == null ) {
+			return;
+		}
+		Generation generation = currentGeneration;
+		currentGeneration = null;
+		try {
+			generation.channel.close();
+			if ( generation.pendingRecords == 0 ) {
+				Files.deleteIfExists( generation.path );
+			}
+			// Otherwise, the remaining records will be replayed on the next startup
+		}
+		catch (IOException e) {
+			throw log.unableToWriteJournal( generation.path, eventContext, e );
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "eventContext=" ).append( eventContext ).append( ", " )
+				.append( "directory=" ).append( directory )
+				.append( "]" )
+				.toString();
+	}
+
+	/**
+	 * Replays the records left by a previous run, waits until they are committed, then opens the journal for writing.
+	 *
+	 * @param workFactory The factory used to re-create works.
+	 * @param orchestrator The orchestrator to submit works to. Must not journal works itself.
+	 */
+	public void start(LuceneWorkFactory workFactory, LuceneIndexWorkOrchestrator orchestrator) {
+		TreeMap<Long, Path> files = listFiles();
+		List<CompletableFuture<?>> futures = new ArrayList<>();
+		for ( Path file : files.values() ) {
+			try {
+				replay( file, workFactory, orchestrator, futures );
+			}
+			catch (IOException | RuntimeException e) {
+				throw log.unableToReplayJournal( file, eventContext, e );
+			}
+		}
+		try {
+			CompletableFuture.allOf( futures.toArray( new CompletableFuture<?>[futures.size()] ) ).join();
+			for ( Path file : files.values() ) {
+				Files.delete( file );
+			}
+		}
+		catch (CompletionException e) {
+			throw log.unableToReplayJournal( directory, eventContext, e.getCause() );
+		}
+		catch (IOException e) {
+			throw log.unableToReplayJournal( directory, eventContext, e );
+		}
+		if ( !futures.isEmpty() ) {
+			log.replayedJournal( futures.size(), eventContext );
+		}
+
+		long nextGeneration = files.isEmpty() ? 0L : files.lastKey() + 1L;
+		synchronized ( this ) {
+			currentGeneration = openGeneration( nextGeneration );
+		}
+	}
+
+	/**
+	 * Appends the entry works among the given works to the journal, and syncs the journal to disk.
+	 *
+	 * @param works The works about to be submitted.
+	 * @return The generation the record was written to, to {@link #release(Generation) release} once the works
+	 * are committed, or {@code null} if there was nothing to journal.
+	 */
+	Generation append(List<? extends LuceneIndexWork<?>> works) {
+		byte[] payload;
+		try {
+			payload = encode( works );
+		}
+		catch (IOException e) {
+			throw log.unableToWriteJournal( directory, eventContext, e );
+		}
+		if ( payload == null ) {
+			return null;
+		}
+
+		CRC32 checksum = new CRC32();
+		checksum.update( payload );
+		ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+		header.putInt( payload.length ).putLong( checksum.getValue() ).flip();
+		ByteBuffer[] buffers = new ByteBuffer[] { header, ByteBuffer.wrap( payload ) };
+
+		synchronized ( this ) {
+			Generation generation = currentGeneration;
+			try {
+				while ( buffers[1].hasRemaining() ) {
+					generation.channel.write( buffers );
+				}
+				generation.channel.force( false );
+				++generation.pendingRecords;
+				if ( generation.channel.size() >= maxFileSize ) {
+					// The file will be deleted once all its records are released
+					generation.channel.close();
+					currentGeneration = openGeneration( generation.number + 1L );
+				}
+			}
+			catch (IOException e) {
+				throw log.unableToWriteJournal( generation.path, eventContext, e );
+			}
+			return generation;
+		}
+	}
+
+	/**
+	 * Releases a record once its works have been committed (or have failed).
+	 *
+	 * @param generation The generation returned by {@link #append(List)}.
+	 */
+	synchronized void release(Generation generation) {
+		--generation.pendingRecords;
+		if ( generation.pendingRecords > 0 ) {
+			return;
+		}
+		try {
+			if ( generation == currentGeneration ) {
+				generation.channel.truncate( 0L );
+			}
+			else {
+				// A previous generation, or the journal was closed while works were still pending
+				Files.deleteIfExists( generation.path );
+			}
+		}
+		catch (IOException e) {
+			log.unableToReleaseJournalRecords( generation.path, eventContext, e );
+		}
+	}
+
+	private Generation openGeneration(long number) {
+		Path path = directory.resolve( shardName + FILE_NAME_INFIX + number );
+		try {
+			Files.createDirectories( directory );
+			FileChannel channel = FileChannel.open( path,
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING );
+			return new Generation( number, path, channel );
+		}
+		catch (IOException e) {
+			throw log.unableToWriteJournal( path, eventContext, e );
+		}
+	}
+
+	private TreeMap<Long, Path> listFiles() {
+		TreeMap<Long, Path> files = new TreeMap<>();
+		if ( !Files.isDirectory( directory ) ) {
+			return files;
+		}
+		String prefix = shardName + FILE_NAME_INFIX;
+		try ( DirectoryStream<Path> stream = Files.newDirectoryStream( directory ) ) {
+			for ( Path file : stream ) {
+				String fileName = file.getFileName().toString();
+				if ( !fileName.startsWith( prefix ) ) {
+					continue;
+				}
+				try {
+					files.put( Long.parseLong( fileName.substring( prefix.length() ) ), file );
+				}
+				catch (NumberFormatException e) {
+					// Not a journal file
+				}
+			}
+		}
+		catch (IOException e) {
+			throw log.unableToReplayJournal( directory, eventContext, e );
+		}
+		return files;
+	}
+
+	private void replay(Path file, LuceneWorkFactory workFactory, LuceneIndexWorkOrchestrator orchestrator,
+			List<CompletableFuture<?>> futures) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap( Files.readAllBytes( file ) );
+		while ( buffer.remaining() >= HEADER_SIZE ) {
+			int recordPosition = buffer.position();
+			int length = buffer.getInt();
+			long expectedChecksum = buffer.getLong();
+			if ( length < 0 || length > buffer.remaining() ) {
+				log.ignoringCorruptedJournalRecord( file, recordPosition, eventContext );
+				return;
+			}
+			CRC32 checksum = new CRC32();
+			checksum.update( buffer.array(), buffer.position(), length );
+			if ( checksum.getValue() != expectedChecksum ) {
+				log.ignoringCorruptedJournalRecord( file, recordPosition, eventContext );
+				return;
+			}
+			ByteBuffer payload = buffer.slice();
+			payload.limit( length );
+			buffer.position( buffer.position() + length );
+			futures.add( orchestrator.submit( decode( payload, workFactory ) ) );
+		}
+		if ( buffer.hasRemaining() ) {
+			log.ignoringCorruptedJournalRecord( file, buffer.position(), eventContext );
+		}
+	}
+
+	private byte[] encode(List<? extends LuceneIndexWork<?>> works) throws IOException {
+		List<LuceneIndexEntryWork<?>> entryWorks = new ArrayList<>( works.size() );
+		for ( LuceneIndexWork<?> work : works ) {
+			// Other works (flush, optimize, ...) are not worth replaying
+			if ( work instanceof LuceneIndexEntryWork ) {
+				entryWorks.add( (LuceneIndexEntryWork<?>) work );
+			}
+		}
+		if ( entryWorks.isEmpty() ) {
+			return null;
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream( bytes );
+		output.writeInt( entryWorks.size() );
+		for ( LuceneIndexEntryWork<?> work : entryWorks ) {
+			LuceneIndexEntry indexEntry = work.getIndexEntry();
+			if ( indexEntry == null ) {
+				output.writeByte( DELETE );
+			}
+			else {
+				output.writeByte( work.supersedesPreviousWorks() ? UPDATE : ADD );
+			}
+			writeNullableString( output, work.getTenantId() );
+			writeString( output, work.getId() );
+			if ( indexEntry != null ) {
+				writeEntry( output, indexEntry );
+			}
+		}
+		output.flush();
+		return bytes.toByteArray();
+	}
+
+	private List<LuceneIndexWork<?>> decode(ByteBuffer input, LuceneWorkFactory workFactory) {
+		int workCount = input.getInt();
+		List<LuceneIndexWork<?>> works = new ArrayList<>( workCount );
+		for ( int i = 0; i < workCount; i++ ) {
+			byte workType = input.get();
+			String tenantId = readNullableString( input );
+			String id = readString( input );
+			if ( workType == DELETE ) {
+				works.add( workFactory.delete( indexName, tenantId, id, null ) );
+			}
+			else {
+				// The add may have been committed already: replay it as an update to avoid duplicates
+				works.add( workFactory.update( indexName, tenantId, id, null, readEntry( input, id ) ) );
+			}
+		}
+		return works;
+	}
+
+	private void writeEntry(DataOutputStream output, LuceneIndexEntry indexEntry) throws IOException {
+		List<Document> documents = new ArrayList<>();
+		for ( Document document : indexEntry ) {
+			documents.add( document );
+		}
+		output.writeInt( documents.size() );
+		for ( Document document : documents ) {
+			List<IndexableField> fields = document.getFields();
+			output.writeInt( fields.size() );
+			for ( IndexableField field : fields ) {
+				writeString( output, field.name() );
+				writeFieldType( output, field.fieldType() );
+				writeValue( output, field );
+			}
+		}
+	}
+
+	private LuceneIndexEntry readEntry(ByteBuffer input, String id) {
+		int documentCount = input.getInt();
+		List<Document> documents = new ArrayList<>( documentCount );
+		for ( int i = 0; i < documentCount; i++ ) {
+			Document document = new Document();
+			int fieldCount = input.getInt();
+			for ( int j = 0; j < fieldCount; j++ ) {
+				String name = readString( input );
+				FieldType fieldType = readFieldType( input );
+				document.add( new JournaledField( name, fieldType, readValue( input ) ) );
+			}
+			documents.add( document );
+		}
+		return new LuceneIndexEntry( indexName, id, documents );
+	}
+
+	private static void writeFieldType(DataOutputStream output, IndexableFieldType fieldType) throws IOException {
+		int flags = 0;
+		flags |= fieldType.stored() ? STORED : 0;
+		flags |= fieldType.tokenized() ? TOKENIZED : 0;
+		flags |= fieldType.storeTermVectors() ? STORE_TERM_VECTORS : 0;
+		flags |= fieldType.storeTermVectorOffsets() ? STORE_TERM_VECTOR_OFFSETS : 0;
+		flags |= fieldType.storeTermVectorPositions() ? STORE_TERM_VECTOR_POSITIONS : 0;
+		flags |= fieldType.storeTermVectorPayloads() ? STORE_TERM_VECTOR_PAYLOADS : 0;
+		flags |= fieldType.omitNorms() ? OMIT_NORMS : 0;
+		output.writeByte( flags );
+		output.writeByte( fieldType.indexOptions().ordinal() );
+		output.writeByte( fieldType.docValuesType().ordinal() );
+		output.writeInt( fieldType.pointDimensionCount() );
+		output.writeInt( fieldType.pointNumBytes() );
+	}
+
+	private static FieldType readFieldType(ByteBuffer input) {
+		int flags = input.get();
+		FieldType fieldType = new FieldType();
+		fieldType.setStored( ( flags & STORED ) != 0 );
+		fieldType.setTokenized( ( flags & TOKENIZED ) != 0 );
+		fieldType.setStoreTermVectors( ( flags & STORE_TERM_VECTORS ) != 0 );
+		fieldType.setStoreTermVectorOffsets( ( flags & STORE_TERM_VECTOR_OFFSETS ) != 0 );
+		fieldType.setStoreTermVectorPositions( ( flags & STORE_TERM_VECTOR_POSITIONS ) != 0 );
+		fieldType.setStoreTermVectorPayloads( ( flags & STORE_TERM_VECTOR_PAYLOADS ) != 0 );
+		fieldType.setOmitNorms( ( flags & OMIT_NORMS ) != 0 );
+		fieldType.setIndexOptions( IndexOptions.values()[input.get()] );
+		fieldType.setDocValuesType( DocValuesType.values()[input.get()] );
+		int pointDimensionCount = input.getInt();
+		int pointNumBytes = input.getInt();
+		if ( pointDimensionCount > 0 ) {
+			fieldType.setDimensions( pointDimensionCount, pointNumBytes );
+		}
+		fieldType.freeze();
+		return fieldType;
+	}
+
+	private void writeValue(DataOutputStream output, IndexableField field) throws IOException {
+		Number numericValue = field.numericValue();
+		if ( numericValue instanceof Integer ) {
+			output.writeByte( INT_VALUE );
+			output.writeInt( numericValue.intValue() );
+		}
+		else if ( numericValue instanceof Long ) {
+			output.writeByte( LONG_VALUE );
+			output.writeLong( numericValue.longValue() );
+		}
+		else if ( numericValue instanceof Float ) {
+			output.writeByte( FLOAT_VALUE );
+			output.writeFloat( numericValue.floatValue() );
+		}
+		else if ( numericValue instanceof Double ) {
+			output.writeByte( DOUBLE_VALUE );
+			output.writeDouble( numericValue.doubleValue() );
+		}
+		else if ( numericValue == null && field.binaryValue() != null ) {
+			BytesRef binaryValue = field.binaryValue();
+			output.writeByte( BINARY_VALUE );
+			output.writeInt( binaryValue.length );
+			output.write( binaryValue.bytes, binaryValue.offset, binaryValue.length );
+		}
+		else if ( numericValue == null && field.stringValue() != null ) {
+			output.writeByte( STRING_VALUE );
+			writeString( output, field.stringValue() );
+		}
+		else {
+			// Readers, token streams, other number types: we cannot replay those reliably
+			throw log.unsupportedJournalFieldValue( field.name(), eventContext );
+		}
+	}
+
+	private static Object readValue(ByteBuffer input) {
+		byte valueType = input.get();
+		switch ( valueType ) {
+			case INT_VALUE:
+				return input.getInt();
+			case LONG_VALUE:
+				return input.getLong();
+			case FLOAT_VALUE:
+				return input.getFloat();
+			case DOUBLE_VALUE:
+				return input.getDouble();
+			case BINARY_VALUE:
+				byte[] bytes = new byte[input.getInt()];
+				input.get( bytes );
+				return new BytesRef( bytes );
+			case STRING_VALUE:
+				return readString( input );
+			default:
+				throw new IllegalStateException( "Unknown value type in the indexing journal: " + valueType );
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream output, String value) throws IOException {
+		output.writeBoolean( value != null );
+		if ( value != null ) {
+			writeString( output, value );
+		}
+	}
+
+	private static String readNullableString(ByteBuffer input) {
+		return input.get() != 0 ? readString( input ) : null;
+	}
+
+	// DataOutput.writeUTF() is limited to 64kB
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+		output.writeInt( bytes.length );
+		output.write( bytes );
+	}
+
+	private static String readString(ByteBuffer input) {
+		byte[] bytes = new byte[input.getInt()];
+		input.get( bytes );
+		return new String( bytes, StandardCharsets.UTF_8 );
+	}
+
+	static final class Generation {
+
+		private final long number;
+		private final Path path;
+		private final FileChannel channel;
+		private int pendingRecords = 0;
+
+		private Generation(long number, Path path, FileChannel channel) {
+			this.number = number;
+			this.path = path;
+			this.channel = channel;
+		}
+	}
+
+	/**
+	 * A field re-created from the journal, with the exact type and value of the original field.
+	 */
+	private static final class JournaledField extends Field {
+
+		JournaledField(String name, FieldType type, Object value) {
+			super( name, type );
+			this.fieldsData = value;
+		}
+	}
+}
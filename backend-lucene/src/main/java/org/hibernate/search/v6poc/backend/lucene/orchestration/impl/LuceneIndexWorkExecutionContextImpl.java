@@ -12,16 +12,24 @@ import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneIndexWorkExecut
 /**
  * @author Guillaume Smet
  */
-public class StubLuceneIndexWorkExecutionContext implements LuceneIndexWorkExecutionContext {
+public class LuceneIndexWorkExecutionContextImpl implements LuceneIndexWorkExecutionContext {
 
 	private final IndexWriter indexWriter;
 
-	public StubLuceneIndexWorkExecutionContext(IndexWriter indexWriter) {
+	private final boolean entryKeyIndexed;
+
+	public LuceneIndexWorkExecutionContextImpl(IndexWriter indexWriter, boolean entryKeyIndexed) {
 		this.indexWriter = indexWriter;
+		this.entryKeyIndexed = entryKeyIndexed;
 	}
 
 	@Override
 	public IndexWriter getIndexWriter() {
 		return indexWriter;
 	}
+
+	@Override
+	public boolean isEntryKeyIndexed() {
+		return entryKeyIndexed;
+	}
 }
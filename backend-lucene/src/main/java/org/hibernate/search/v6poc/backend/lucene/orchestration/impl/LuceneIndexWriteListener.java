@@ -0,0 +1,36 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.orchestration.impl;
+
+/**
+ * A listener notified by orchestrators of changes applied to the index writer.
+ * <p>
+ * Methods are called from the writer thread, while no other work is being executed.
+ */
+public interface LuceneIndexWriteListener {
+
+	LuceneIndexWriteListener NO_OP = new LuceneIndexWriteListener() {
+	};
+
+	/**
+	 * Called after a batch of changesets has been applied to the index writer,
+	 * before the changeset futures are completed.
+	 * <p>
+	 * The changes have been applied already and will be committed:
+	 * failures must be handled by the listener, and must not fail the changesets.
+	 */
+	default void afterWrite() {
+	}
+
+	/**
+	 * Called after changes have been committed to the index,
+	 * before the futures of the committed changesets are completed.
+	 */
+	default void afterCommit() {
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.orchestration.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneIndexWork;
+import org.hibernate.search.v6poc.util.impl.common.Closer;
+
+/**
+ * An orchestrator writing works to a {@link LuceneIndexJournal journal} before submitting them to another orchestrator.
+ * <p>
+ * Journal records are released when the futures returned by the delegate complete,
+ * so the delegate must only complete futures once the works are committed.
+ * <p>
+ * Works are appended to the journal and submitted to the delegate atomically,
+ * so that the journal always holds works in the order they were executed.
+ */
+public class LuceneJournalingIndexWorkOrchestrator implements LuceneIndexWorkOrchestrator {
+
+	private final LuceneIndexWorkOrchestrator delegate;
+	private final LuceneIndexJournal journal;
+
+	private final Object submitLock = new Object();
+
+	public LuceneJournalingIndexWorkOrchestrator(LuceneIndexWorkOrchestrator delegate, LuceneIndexJournal journal) {
+		this.delegate = delegate;
+		this.journal = journal;
+	}
+
+	@Override
+	public void close() {
+		try ( Closer<RuntimeException> closer = new Closer<>() ) {
+			// Close the delegate first, so that pending works are committed and their records released
+			closer.push( LuceneIndexWorkOrchestrator::close, delegate );
+			closer.push( LuceneIndexJournal::close, journal );
+		}
+	}
+
+	@Override
+	public <T> CompletableFuture<T> submit(LuceneIndexWork<T> work) {
+		synchronized ( submitLock ) {
+			LuceneIndexJournal.Generation generation = journal.append( Collections.singletonList( work ) );
+			return releaseOnCompletion( generation, delegate.submit( work ) );
+		}
+	}
+
+	@Override
+	public CompletableFuture<?> submit(List<LuceneIndexWork<?>> works) {
+		synchronized ( submitLock ) {
+			LuceneIndexJournal.Generation generation = journal.append( works );
+			return releaseOnCompletion( generation, delegate.submit( works ) );
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "delegate=" ).append( delegate ).append( ", " )
+				.append( "journal=" ).append( journal )
+				.append( "]" )
+				.toString();
+	}
+
+	/*
+	 * If submitting fails, the record is not released: the works were journaled,
+	 * so they will be replayed on the next startup.
+	 */
+	private <T> CompletableFuture<T> releaseOnCompletion(LuceneIndexJournal.Generation generation,
+			CompletableFuture<T> future) {
+		if ( generation != null ) {
+			future.whenComplete( (result, throwable) -> journal.release( generation ) );
+		}
+		return future;
+	}
+}
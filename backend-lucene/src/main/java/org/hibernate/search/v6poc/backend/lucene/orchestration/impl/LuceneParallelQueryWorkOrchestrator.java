@@ -0,0 +1,117 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.orchestration.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneQueryWork;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.Executors;
+import org.hibernate.search.v6poc.util.impl.common.Futures;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+/**
+ * An orchestrator executing query works in a pool of threads owned by the backend,
+ * so that index I/O never happens in the thread submitting the works.
+ * <p>
+ * Works submitted together are executed in order, in the same thread;
+ * works submitted separately are executed in parallel.
+ * When all threads are busy and the queue is full, submitting blocks, which gives us back-pressure.
+ */
+public class LuceneParallelQueryWorkOrchestrator implements LuceneQueryWorkOrchestrator {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final EventContext eventContext;
+	private final LuceneQueryWorkExecutionContextImpl context;
+	private final ExecutorService executor;
+
+	/*
+	 * The executor blocks instead of rejecting works, even once shut down,
+	 * so we must make sure no work is submitted after that: it would never complete.
+	 */
+	private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+	private boolean closed = false;
+
+	public LuceneParallelQueryWorkOrchestrator(String name, EventContext eventContext, int threadCount, int queueSize) {
+		this.eventContext = eventContext;
+		this.context = new LuceneQueryWorkExecutionContextImpl();
+		this.executor = Executors.newFixedThreadPool( threadCount, name, queueSize );
+	}
+
+	@Override
+	public void close() {
+		closeLock.writeLock().lock();
+		try {
+			closed = true;
+			executor.shutdown();
+		}
+		finally {
+			closeLock.writeLock().unlock();
+		}
+		try {
+			executor.awaitTermination( Long.MAX_VALUE, TimeUnit.SECONDS );
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw log.interruptedWhileWaitingForQueryActivity( eventContext, e );
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked") // The future returns the result of the last (and only) work
+	public <T> CompletableFuture<T> submit(LuceneQueryWork<T> work) {
+		return (CompletableFuture<T>) submitWorks( Collections.<LuceneQueryWork<?>>singletonList( work ) );
+	}
+
+	@Override
+	public CompletableFuture<?> submit(List<LuceneQueryWork<?>> works) {
+		return submitWorks( new ArrayList<>( works ) );
+	}
+
+	private CompletableFuture<Object> submitWorks(List<LuceneQueryWork<?>> works) {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		closeLock.readLock().lock();
+		try {
+			if ( closed ) {
+				throw log.queryOrchestratorClosed( eventContext, null );
+			}
+			executor.execute( () -> execute( works ).whenComplete( Futures.copyHandler( future ) ) );
+		}
+		finally {
+			closeLock.readLock().unlock();
+		}
+		return future;
+	}
+
+	@SuppressWarnings("unchecked") // The future returns the result of the last work
+	private CompletableFuture<Object> execute(List<LuceneQueryWork<?>> works) {
+		CompletableFuture<?> chain = CompletableFuture.completedFuture( null );
+		for ( LuceneQueryWork<?> work : works ) {
+			chain = chain.thenCompose( Futures.safeComposer( ignored -> work.execute( context ) ) );
+		}
+		return (CompletableFuture<Object>) chain;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "eventContext=" ).append( eventContext )
+				.append( "]" )
+				.toString();
+	}
+}
@@ -11,6 +11,6 @@ import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneQueryWorkExecut
 /**
  * @author Guillaume Smet
  */
-public class StubLuceneQueryWorkExecutionContext implements LuceneQueryWorkExecutionContext {
+class LuceneQueryWorkExecutionContextImpl implements LuceneQueryWorkExecutionContext {
 
 }
@@ -7,6 +7,7 @@
 package org.hibernate.search.v6poc.backend.lucene.search.impl;
 
 import java.lang.invoke.MethodHandles;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -14,6 +15,7 @@ import org.hibernate.search.v6poc.backend.document.model.dsl.ObjectFieldStorage;
 import org.hibernate.search.v6poc.backend.lucene.document.model.impl.LuceneIndexModel;
 import org.hibernate.search.v6poc.backend.lucene.document.model.impl.LuceneIndexSchemaFieldNode;
 import org.hibernate.search.v6poc.backend.lucene.document.model.impl.LuceneIndexSchemaObjectNode;
+import org.hibernate.search.v6poc.backend.lucene.index.impl.LuceneIndexManager;
 import org.hibernate.search.v6poc.backend.lucene.index.spi.ReaderProvider;
 import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
 import org.hibernate.search.v6poc.util.EventContext;
@@ -24,16 +26,19 @@ public class LuceneSearchTargetModel {
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
+	private final Set<LuceneIndexManager> indexManagers;
 	private final Set<LuceneIndexModel> indexModels;
 	private final Set<String> indexNames;
-	private final Set<ReaderProvider> readerProviders;
 
-	public LuceneSearchTargetModel(Set<LuceneIndexModel> indexModels, Set<ReaderProvider> readerProviders) {
-		this.indexModels = indexModels;
+	public LuceneSearchTargetModel(Set<LuceneIndexManager> indexManagers) {
+		this.indexManagers = indexManagers;
+		// Use LinkedHashSet to ensure stable order when generating requests
+		this.indexModels = indexManagers.stream()
+				.map( LuceneIndexManager::getModel )
+				.collect( Collectors.toCollection( LinkedHashSet::new ) );
 		this.indexNames = indexModels.stream()
 				.map( LuceneIndexModel::getIndexName )
 				.collect( Collectors.toSet() );
-		this.readerProviders = readerProviders;
 	}
 
 	public Set<String> getIndexNames() {
@@ -48,7 +53,16 @@ public class LuceneSearchTargetModel {
 		return indexModels;
 	}
 
-	public Set<ReaderProvider> getReaderProviders() {
+	/**
+	 * @param routingKeys The routing keys of a query, or an empty set if the query targets all documents.
+	 * @return The reader providers of the indexes, restricted to the shards matching the given routing keys.
+	 */
+	public Set<ReaderProvider> getReaderProviders(Set<String> routingKeys) {
+		// Use LinkedHashSet to ensure stable order when generating requests
+		Set<ReaderProvider> readerProviders = new LinkedHashSet<>();
+		for ( LuceneIndexManager indexManager : indexManagers ) {
+			readerProviders.addAll( indexManager.getReaderProviders( routingKeys ) );
+		}
 		return readerProviders;
 	}
 
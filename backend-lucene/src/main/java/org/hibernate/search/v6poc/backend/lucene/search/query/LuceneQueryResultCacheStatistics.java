@@ -0,0 +1,31 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.search.query;
+
+/**
+ * Statistics about the query result cache of a Lucene backend.
+ * <p>
+ * All counts are zero when the cache is disabled.
+ */
+public interface LuceneQueryResultCacheStatistics {
+
+	/**
+	 * @return The number of query executions that reused cached results.
+	 */
+	long getHitCount();
+
+	/**
+	 * @return The number of query executions that could have used cached results, but found none.
+	 */
+	long getMissCount();
+
+	/**
+	 * @return The number of results currently in the cache.
+	 */
+	int getEntryCount();
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.search.query;
+
+import org.hibernate.search.v6poc.search.SearchQuery;
+
+/**
+ * A search query executed by the Lucene backend.
+ */
+public interface LuceneSearchQuery<T> extends SearchQuery<T> {
+
+	/**
+	 * Allows counting hits to stop early when only the total hit count is requested,
+	 * i.e. for {@link #executeCount()} and when the maximum number of results is zero.
+	 * <p>
+	 * Hits are never loaded for such queries, but counting them still requires iterating on every match:
+	 * with a threshold, the iteration stops as soon as the threshold is reached.
+	 *
+	 * @param totalHitCountThreshold The number of hits after which counting may stop,
+	 * or {@code null} to always count all hits.
+	 */
+	void setTotalHitCountThreshold(Long totalHitCountThreshold);
+
+	/**
+	 * Counts the hits of this query, without scoring, ranking or loading any of them.
+	 * <p>
+	 * The first result and maximum number of results are ignored.
+	 *
+	 * @return The total hit count, or a number greater than or equal to
+	 * the {@link #setTotalHitCountThreshold(Long) total hit count threshold} if more hits matched.
+	 */
+	long executeCount();
+
+	/**
+	 * Opens a scroll over the hits of this query.
+	 * <p>
+	 * The scroll starts at the {@link #setFirstResult(Long) first result}
+	 * and stops after the {@link #setMaxResults(Long) maximum number of results}, if any.
+	 * Each page is fetched with a search after the last hit of the previous page,
+	 * so that fetching a page costs the same whatever its depth.
+	 * <p>
+	 * The scroll searches a snapshot of the indexes taken when the first page is fetched:
+	 * changes to the indexes are not visible to the scroll, and the snapshot is held until the scroll is closed.
+	 *
+	 * @param pageSize The maximum number of hits in each page.
+	 * @return A scroll, to be closed once it is no longer used.
+	 */
+	LuceneSearchScroll<T> scroll(int pageSize);
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.search.query;
+
+import org.hibernate.search.v6poc.search.SearchResult;
+
+/**
+ * A cursor over the hits of a {@link LuceneSearchQuery}, returning one page of hits at a time.
+ * <p>
+ * Not thread-safe.
+ */
+public interface LuceneSearchScroll<T> extends AutoCloseable {
+
+	/**
+	 * @return The next page of hits, with the total hit count of the query.
+	 * The page is empty once all hits have been returned.
+	 */
+	SearchResult<T> next();
+
+	/**
+	 * Releases the snapshot of the indexes held by this scroll.
+	 */
+	@Override
+	void close();
+
+}
@@ -7,9 +7,11 @@
 package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.lucene.document.Document;
+import org.hibernate.search.v6poc.backend.lucene.types.codec.impl.LuceneFieldCodec;
 
 /**
  * A hit extractor used when multiple values must be extracted for each hit.
@@ -39,9 +41,16 @@ class CompositeHitExtractor<C> implements HitExtractor<C> {
 	}
 
 	@Override
-	public void extract(C collector, Document document) {
+	public void contributeDocValues(Map<String, LuceneFieldCodec<?>> codecsByField) {
 		for ( HitExtractor<? super C> extractor : extractors ) {
-			extractor.extract( collector, document );
+			extractor.contributeDocValues( codecsByField );
+		}
+	}
+
+	@Override
+	public void extract(C collector, Document document, HitDocValues docValues) {
+		for ( HitExtractor<? super C> extractor : extractors ) {
+			extractor.extract( collector, document, docValues );
 		}
 	}
 }
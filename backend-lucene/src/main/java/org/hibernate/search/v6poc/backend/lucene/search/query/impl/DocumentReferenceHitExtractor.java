@@ -21,7 +21,7 @@ class DocumentReferenceHitExtractor extends AbstractDocumentReferenceHitExtracto
 	}
 
 	@Override
-	public void extract(DocumentReferenceHitCollector collector, Document document) {
+	public void extract(DocumentReferenceHitCollector collector, Document document, HitDocValues docValues) {
 		collector.collectReference( extractDocumentReference( document ) );
 	}
 }
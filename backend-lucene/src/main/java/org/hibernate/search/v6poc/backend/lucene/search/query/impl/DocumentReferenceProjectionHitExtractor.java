@@ -21,7 +21,7 @@ class DocumentReferenceProjectionHitExtractor extends AbstractDocumentReferenceH
 	}
 
 	@Override
-	public void extract(ProjectionHitCollector collector, Document document) {
+	public void extract(ProjectionHitCollector collector, Document document, HitDocValues docValues) {
 		collector.collectProjection( extractDocumentReference( document ) );
 	}
 }
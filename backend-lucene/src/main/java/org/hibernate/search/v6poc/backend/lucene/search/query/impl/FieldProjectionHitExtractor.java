@@ -6,6 +6,7 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
 
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.lucene.document.Document;
@@ -18,9 +19,17 @@ class FieldProjectionHitExtractor implements HitExtractor<ProjectionHitCollector
 
 	private final LuceneFieldCodec<?> codec;
 
-	FieldProjectionHitExtractor(String absoluteFieldPath, LuceneFieldCodec<?> codec) {
+	private final boolean docValues;
+
+	/**
+	 * @param absoluteFieldPath The absolute path of the projected field.
+	 * @param codec The codec of the projected field.
+	 * @param docValuesAllowed Whether the value may be extracted from doc values, if the codec supports it.
+	 */
+	FieldProjectionHitExtractor(String absoluteFieldPath, LuceneFieldCodec<?> codec, boolean docValuesAllowed) {
 		this.absoluteFieldPath = absoluteFieldPath;
 		this.codec = codec;
+		this.docValues = docValuesAllowed && codec.isDocValuesDecodingSupported();
 	}
 
 	@Override
@@ -30,6 +39,9 @@ class FieldProjectionHitExtractor implements HitExtractor<ProjectionHitCollector
 
 	@Override
 	public void contributeFields(Set<String> absoluteFieldPaths) {
+		if ( docValues ) {
+			return;
+		}
 		if ( codec.getOverriddenStoredFields().isEmpty() ) {
 			absoluteFieldPaths.add( absoluteFieldPath );
 		}
@@ -39,7 +51,19 @@ class FieldProjectionHitExtractor implements HitExtractor<ProjectionHitCollector
 	}
 
 	@Override
-	public void extract(ProjectionHitCollector collector, Document document) {
-		collector.collectProjection( codec.decode( document, absoluteFieldPath ) );
+	public void contributeDocValues(Map<String, LuceneFieldCodec<?>> codecsByField) {
+		if ( docValues ) {
+			codecsByField.put( absoluteFieldPath, codec );
+		}
+	}
+
+	@Override
+	public void extract(ProjectionHitCollector collector, Document document, HitDocValues hitDocValues) {
+		if ( docValues ) {
+			collector.collectProjection( hitDocValues.get( absoluteFieldPath ) );
+		}
+		else {
+			collector.collectProjection( codec.decode( document, absoluteFieldPath ) );
+		}
 	}
 }
@@ -0,0 +1,141 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
+
+import java.io.IOException;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.TermQuery;
+
+/**
+ * Counts the hits of a query without scoring, ranking or loading them.
+ * <p>
+ * Queries matching the documents containing a single term, for instance a match-all predicate
+ * combined with the main document filter, are counted from the document frequency of the term
+ * as long as the index has no deletions.
+ * Other queries are counted by iterating on the matching documents, stopping at the threshold if there is one.
+ */
+final class HitCounter {
+
+	private HitCounter() {
+	}
+
+	/**
+	 * @param indexSearcher The searcher to count hits with.
+	 * @param query The query.
+	 * @param threshold The number of hits after which counting may stop, or {@code null} to count all hits.
+	 * @return The number of hits, or a number greater than or equal to {@code threshold} if more documents matched.
+	 * @throws IOException If the index cannot be read.
+	 */
+	static long count(IndexSearcher indexSearcher, Query query, Long threshold) throws IOException {
+		Query rewrittenQuery = indexSearcher.rewrite( query );
+
+		Term term = getSingleMatchedTerm( rewrittenQuery );
+		if ( term != null && !indexSearcher.getIndexReader().hasDeletions() ) {
+			long count = 0L;
+			for ( LeafReaderContext leaf : indexSearcher.getIndexReader().leaves() ) {
+				count += leaf.reader().docFreq( term );
+			}
+			return count;
+		}
+
+		if ( threshold == null ) {
+			// Leaf slices are counted in parallel if the searcher has an executor
+			return indexSearcher.count( rewrittenQuery );
+		}
+		ThresholdHitCountCollector collector = new ThresholdHitCountCollector( threshold );
+		indexSearcher.search( rewrittenQuery, collector );
+		return collector.count;
+	}
+
+	/**
+	 * @return The term the given query matches, if it matches exactly the documents containing a single term,
+	 * {@code null} otherwise.
+	 */
+	private static Term getSingleMatchedTerm(Query query) {
+		if ( query instanceof TermQuery ) {
+			return ( (TermQuery) query ).getTerm();
+		}
+		else if ( query instanceof ConstantScoreQuery ) {
+			return getSingleMatchedTerm( ( (ConstantScoreQuery) query ).getQuery() );
+		}
+		else if ( query instanceof BoostQuery ) {
+			return getSingleMatchedTerm( ( (BoostQuery) query ).getQuery() );
+		}
+		else if ( query instanceof BooleanQuery ) {
+			BooleanQuery booleanQuery = (BooleanQuery) query;
+			if ( booleanQuery.getMinimumNumberShouldMatch() > 0 ) {
+				return null;
+			}
+			Term term = null;
+			for ( BooleanClause clause : booleanQuery.clauses() ) {
+				Occur occur = clause.getOccur();
+				if ( occur != Occur.MUST && occur != Occur.FILTER ) {
+					return null;
+				}
+				if ( clause.getQuery() instanceof MatchAllDocsQuery ) {
+					continue;
+				}
+				if ( term != null ) {
+					return null;
+				}
+				term = getSingleMatchedTerm( clause.getQuery() );
+				if ( term == null ) {
+					return null;
+				}
+			}
+			return term;
+		}
+		else {
+			return null;
+		}
+	}
+
+	private static final class ThresholdHitCountCollector extends SimpleCollector {
+
+		private final long threshold;
+
+		private long count = 0L;
+
+		ThresholdHitCountCollector(long threshold) {
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void doSetNextReader(LeafReaderContext context) {
+			if ( count >= threshold ) {
+				// Skips the remaining segments
+				throw new CollectionTerminatedException();
+			}
+		}
+
+		@Override
+		public void collect(int doc) {
+			++count;
+			if ( count >= threshold ) {
+				// Skips the remaining documents of the segment
+				throw new CollectionTerminatedException();
+			}
+		}
+
+		@Override
+		public boolean needsScores() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.document.DocumentStoredFieldVisitor;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.hibernate.search.v6poc.backend.lucene.types.codec.impl.LuceneDocValuesDecoder;
+import org.hibernate.search.v6poc.backend.lucene.types.codec.impl.LuceneFieldCodec;
+
+/**
+ * The values extracted from doc values for the hits of a result page.
+ * <p>
+ * Doc values are read segment by segment, in doc ID order, as they are meant to be read;
+ * values are then exposed in the order of hits, one hit at a time.
+ * <p>
+ * Segments indexed before the field had doc values fall back to reading the stored fields of the field.
+ * The fallback is decided segment by segment, so that documents without a value do not trigger
+ * stored field reads in segments that have doc values.
+ * As a result, documents indexed before the field had doc values then merged into such a segment
+ * have no value: the index must be rebuilt to project on these documents.
+ */
+final class HitDocValues {
+
+	private final Map<String, Object[]> valuesByField;
+
+	private int hitIndex;
+
+	private HitDocValues(Map<String, Object[]> valuesByField) {
+		this.valuesByField = valuesByField;
+	}
+
+	/**
+	 * @param indexSearcher The searcher that returned the hits.
+	 * @param hits The hits.
+	 * @param codecsByField The codecs of the fields to extract, by absolute field path.
+	 * @return The values of the given fields for each hit.
+	 * @throws IOException If doc values cannot be read.
+	 */
+	static HitDocValues load(IndexSearcher indexSearcher, ScoreDoc[] hits,
+			Map<String, LuceneFieldCodec<?>> codecsByField) throws IOException {
+		if ( codecsByField.isEmpty() ) {
+			return new HitDocValues( Collections.emptyMap() );
+		}
+
+		String[] absoluteFieldPaths = codecsByField.keySet().toArray( new String[codecsByField.size()] );
+		Object[][] values = new Object[absoluteFieldPaths.length][hits.length];
+
+		// Sort hits by doc ID, keeping track of their position
+		long[] docIdsAndPositions = new long[hits.length];
+		for ( int i = 0; i < hits.length; i++ ) {
+			docIdsAndPositions[i] = ( (long) hits[i].doc << 32 ) | i;
+		}
+		Arrays.sort( docIdsAndPositions );
+
+		List<LeafReaderContext> leaves = indexSearcher.getIndexReader().leaves();
+		LeafReaderContext leaf = null;
+		LuceneDocValuesDecoder<?>[] decoders = new LuceneDocValuesDecoder<?>[absoluteFieldPaths.length];
+		for ( long docIdAndPosition : docIdsAndPositions ) {
+			int docId = (int) ( docIdAndPosition >>> 32 );
+			int position = (int) docIdAndPosition;
+			if ( leaf == null || docId >= leaf.docBase + leaf.reader().maxDoc() ) {
+				leaf = leaves.get( ReaderUtil.subIndex( docId, leaves ) );
+				for ( int i = 0; i < absoluteFieldPaths.length; i++ ) {
+					decoders[i] = createDecoder( leaf.reader(), absoluteFieldPaths[i], codecsByField.get( absoluteFieldPaths[i] ) );
+				}
+			}
+			for ( int i = 0; i < absoluteFieldPaths.length; i++ ) {
+				values[i][position] = decoders[i].decode( docId - leaf.docBase );
+			}
+		}
+
+		Map<String, Object[]> valuesByField = new HashMap<>();
+		for ( int i = 0; i < absoluteFieldPaths.length; i++ ) {
+			valuesByField.put( absoluteFieldPaths[i], values[i] );
+		}
+		return new HitDocValues( valuesByField );
+	}
+
+	void setHitIndex(int hitIndex) {
+		this.hitIndex = hitIndex;
+	}
+
+	Object get(String absoluteFieldPath) {
+		return valuesByField.get( absoluteFieldPath )[hitIndex];
+	}
+
+	private static LuceneDocValuesDecoder<?> createDecoder(LeafReader reader, String absoluteFieldPath,
+			LuceneFieldCodec<?> codec) throws IOException {
+		FieldInfo fieldInfo = reader.getFieldInfos().fieldInfo( absoluteFieldPath );
+		if ( fieldInfo == null ) {
+			// No document in the segment has a value for this field
+			return docId -> null;
+		}
+		if ( fieldInfo.getDocValuesType() == DocValuesType.NONE ) {
+			// The segment was indexed before the field had doc values
+			return createStoredFieldDecoder( reader, absoluteFieldPath, codec );
+		}
+		return codec.createDocValuesDecoder( reader, absoluteFieldPath );
+	}
+
+	private static LuceneDocValuesDecoder<?> createStoredFieldDecoder(LeafReader reader, String absoluteFieldPath,
+			LuceneFieldCodec<?> codec) {
+		Set<String> storedFields = codec.getOverriddenStoredFields().isEmpty()
+				? Collections.singleton( absoluteFieldPath ) : codec.getOverriddenStoredFields();
+		return docId -> {
+			DocumentStoredFieldVisitor visitor = new DocumentStoredFieldVisitor( storedFields );
+			reader.document( docId, visitor );
+			return codec.decode( visitor.getDocument(), absoluteFieldPath );
+		};
+	}
+}
@@ -6,14 +6,18 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
 
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.lucene.document.Document;
+import org.hibernate.search.v6poc.backend.lucene.types.codec.impl.LuceneFieldCodec;
 
 public interface HitExtractor<C> {
 
 	/**
 	 * Contribute to the Lucene collectors, making sure that the information required by this extractor are collected.
+	 * <p>
+	 * In particular, extractors relying on scores must require them explicitly: they are not computed for hits sorted by field.
 	 *
 	 * @param luceneCollectorBuilder the Lucene collector builder.
 	 */
@@ -27,11 +31,23 @@ public interface HitExtractor<C> {
 	 */
 	void contributeFields(Set<String> absoluteFieldPaths);
 
+	/**
+	 * Contributes to the list of fields extracted from doc values instead of stored fields.
+	 * <p>
+	 * When no extractor contributes stored fields, stored fields are not loaded at all.
+	 *
+	 * @param codecsByField The codecs of the fields extracted from doc values, by absolute field path.
+	 */
+	default void contributeDocValues(Map<String, LuceneFieldCodec<?>> codecsByField) {
+		// No doc values by default
+	}
+
 	/**
 	 * Perform hit extraction.
 	 *
 	 * @param collector The hit collector, which will receive the result of the extraction.
 	 * @param document The Lucene document extracted from the index.
+	 * @param docValues The values extracted from doc values for this hit.
 	 */
-	void extract(C collector, Document document);
+	void extract(C collector, Document document, HitDocValues docValues);
 }
@@ -0,0 +1,145 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.IndexSearcher.LeafSlice;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.common.Executors;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+import org.hibernate.search.v6poc.util.impl.common.SuppressingCloser;
+
+/**
+ * Creates the {@link IndexSearcher}s used to execute queries.
+ * <p>
+ * When parallel search is enabled, searchers run the leaves of the index readers concurrently,
+ * on an executor shared by all the queries of a backend.
+ * To prevent a single query from monopolizing the executor,
+ * the leaves are grouped into a limited number of slices for each query,
+ * each slice being executed by a single thread.
+ */
+public class IndexSearcherFactory implements AutoCloseable {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final EventContext eventContext;
+	private final ExecutorService executor;
+	private final int maxSlicesPerQuery;
+
+	// The executor blocks instead of rejecting slices once shut down: searchers must not be created after that
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a factory for searchers executing queries in the calling thread.
+	 */
+	public IndexSearcherFactory() {
+		this.eventContext = null;
+		this.executor = null;
+		this.maxSlicesPerQuery = 1;
+	}
+
+	/**
+	 * Creates a factory for searchers executing queries in parallel.
+	 *
+	 * @param name The name of the executor threads.
+	 * @param eventContext The context of the backend.
+	 * @param threadCount The number of threads executing slices.
+	 * @param queueSize The maximum number of slices waiting for a thread; when reached, queries will block.
+	 * @param maxSlicesPerQuery The maximum number of slices a single query may be split into.
+	 */
+	public IndexSearcherFactory(String name, EventContext eventContext, int threadCount, int queueSize,
+			int maxSlicesPerQuery) {
+		this.eventContext = eventContext;
+		this.executor = Executors.newFixedThreadPool( threadCount, name, queueSize );
+		this.maxSlicesPerQuery = maxSlicesPerQuery;
+	}
+
+	@Override
+	public void close() {
+		if ( executor != null ) {
+			closed = true;
+			// Let queries in progress complete: dropping their pending slices would block them forever
+			executor.shutdown();
+		}
+	}
+
+	IndexSearcher createSearcher(IndexReader indexReader) {
+		if ( executor == null ) {
+			return new IndexSearcher( indexReader );
+		}
+		else if ( closed ) {
+			SearchException e = log.queryOrchestratorClosed( eventContext, null );
+			new SuppressingCloser( e ).push( indexReader );
+			throw e;
+		}
+		else {
+			return new SlicedIndexSearcher( indexReader );
+		}
+	}
+
+	private LeafSlice[] groupIntoSlices(List<LeafReaderContext> leaves) {
+		int sliceCount = Math.min( maxSlicesPerQuery, leaves.size() );
+		if ( sliceCount <= 1 ) {
+			return new LeafSlice[] { new LeafSlice( leaves.toArray( new LeafReaderContext[leaves.size()] ) ) };
+		}
+
+		long totalDocCount = 0L;
+		for ( LeafReaderContext leaf : leaves ) {
+			totalDocCount += leaf.reader().maxDoc();
+		}
+		long targetDocCountPerSlice = ( totalDocCount + sliceCount - 1 ) / sliceCount;
+
+		/*
+		 * Only group contiguous leaves, so that slices are ordered by doc ID
+		 * and merging the results of each slice breaks ties the same way a sequential search would.
+		 */
+		List<LeafSlice> slices = new ArrayList<>( sliceCount );
+		List<LeafReaderContext> currentSliceLeaves = new ArrayList<>();
+		long currentSliceDocCount = 0L;
+		for ( int i = 0; i < leaves.size(); i++ ) {
+			LeafReaderContext leaf = leaves.get( i );
+			currentSliceLeaves.add( leaf );
+			currentSliceDocCount += leaf.reader().maxDoc();
+			int remainingLeafCount = leaves.size() - i - 1;
+			int remainingSliceCount = sliceCount - slices.size() - 1;
+			if ( remainingLeafCount > 0 && remainingSliceCount > 0
+					&& ( currentSliceDocCount >= targetDocCountPerSlice || remainingLeafCount <= remainingSliceCount ) ) {
+				slices.add( new LeafSlice( currentSliceLeaves.toArray( new LeafReaderContext[currentSliceLeaves.size()] ) ) );
+				currentSliceLeaves.clear();
+				currentSliceDocCount = 0L;
+			}
+		}
+		slices.add( new LeafSlice( currentSliceLeaves.toArray( new LeafReaderContext[currentSliceLeaves.size()] ) ) );
+
+		return slices.toArray( new LeafSlice[slices.size()] );
+	}
+
+	/*
+	 * Not static on purpose: IndexSearcher calls slices() from its constructor,
+	 * and the reference to the outer instance is set before the super constructor is called.
+	 */
+	private class SlicedIndexSearcher extends IndexSearcher {
+
+		SlicedIndexSearcher(IndexReader indexReader) {
+			super( indexReader, executor );
+		}
+
+		@Override
+		protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
+			return groupIntoSlices( leaves );
+		}
+	}
+}
@@ -6,38 +6,92 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
 
+import java.io.IOException;
+import java.util.Collection;
+
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TopDocsCollector;
-import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+
+/**
+ * Creates the top docs collectors for each slice of the index readers,
+ * and reduces their results to the top docs of the requested page.
+ * <p>
+ * When the index readers are not sliced, {@link #newCollector()} is only called once.
+ * <p>
+ * When a hit to search after is given, only hits ranked after this hit are collected,
+ * so that the size of the collectors only depends on the requested page, not on its depth.
+ * <p>
+ * When hits are sorted by field, scores are only computed if they are required,
+ * either by a hit extractor or by a sort on the score.
+ */
+class LuceneCollectors implements CollectorManager<Collector, TopDocs> {
 
-class LuceneCollectors {
+	private final Sort sort;
 
-	private final TopDocsCollector<?> topDocsCollector;
+	private final ScoreDoc after;
 
-	private final TotalHitCountCollector totalHitCountCollector;
+	private final int offset;
 
-	private final Collector compositeCollector;
+	private final int limit;
 
-	LuceneCollectors(TopDocsCollector<?> topDocsCollector, TotalHitCountCollector totalHitCountCollector, Collector compositeCollector) {
-		this.topDocsCollector = topDocsCollector;
-		this.totalHitCountCollector = null;
-		this.compositeCollector = topDocsCollector;
+	private final boolean trackScores;
+
+	LuceneCollectors(Sort sort, ScoreDoc after, int offset, int limit, boolean trackScores) {
+		this.sort = sort;
+		this.after = after;
+		this.offset = offset;
+		this.limit = limit;
+		this.trackScores = trackScores;
 	}
 
-	int getTotalHits() {
-		if ( topDocsCollector != null ) {
-			return topDocsCollector.getTotalHits();
+	@Override
+	public Collector newCollector() {
+		if ( sort == null ) {
+			return TopScoreDocCollector.create( offset + limit, after );
 		}
 		else {
-			return totalHitCountCollector.getTotalHits();
+			return TopFieldCollector.create(
+					sort,
+					offset + limit,
+					(FieldDoc) after,
+					// The sort values are needed to merge slices and to search after a hit
+					true,
+					trackScores,
+					trackScores,
+					true
+			);
 		}
 	}
 
-	Collector getCompositeCollector() {
-		return compositeCollector;
-	}
-
-	TopDocsCollector<?> getTopDocsCollector() {
-		return topDocsCollector;
+	@Override
+	public TopDocs reduce(Collection<Collector> collectors) throws IOException {
+		if ( collectors.size() == 1 ) {
+			TopDocsCollector<?> collector = (TopDocsCollector<?>) collectors.iterator().next();
+			return collector.topDocs( offset, limit );
+		}
+		else if ( sort == null ) {
+			TopDocs[] sliceTopDocs = new TopDocs[collectors.size()];
+			int i = 0;
+			for ( Collector collector : collectors ) {
+				sliceTopDocs[i++] = ( (TopDocsCollector<?>) collector ).topDocs();
+			}
+			return TopDocs.merge( offset, limit, sliceTopDocs, true );
+		}
+		else {
+			TopFieldDocs[] sliceTopDocs = new TopFieldDocs[collectors.size()];
+			int i = 0;
+			for ( Collector collector : collectors ) {
+				sliceTopDocs[i++] = ( (TopFieldCollector) collector ).topDocs();
+			}
+			return TopDocs.merge( sort, offset, limit, sliceTopDocs, true );
+		}
 	}
 }
@@ -6,78 +6,59 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import org.apache.lucene.search.Collector;
-import org.apache.lucene.search.MultiCollector;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
-import org.apache.lucene.search.TopDocsCollector;
-import org.apache.lucene.search.TopFieldCollector;
-import org.apache.lucene.search.TopScoreDocCollector;
-import org.apache.lucene.search.TotalHitCountCollector;
 
 class LuceneCollectorsBuilder {
 
-	private Sort sort;
+	private final Sort sort;
+
+	private final ScoreDoc after;
 
-	private int maxDocs;
+	private final int offset;
 
-	private TopDocsCollector<?> topDocsCollector;
+	private final int limit;
 
-	private TotalHitCountCollector totalHitCountCollector;
+	private boolean topDocsRequired = false;
 
-	private List<Collector> luceneCollectors = new ArrayList<>();
+	private boolean scoresRequired = false;
 
-	LuceneCollectorsBuilder(Sort sort, int maxDocs) {
+	LuceneCollectorsBuilder(Sort sort, ScoreDoc after, int offset, int limit) {
 		this.sort = sort;
-		this.maxDocs = maxDocs;
+		this.after = after;
+		this.offset = offset;
+		this.limit = limit;
 	}
 
 	void requireTopDocsCollector() {
-		if ( maxDocs == 0 ) {
-			if ( totalHitCountCollector == null ) {
-				totalHitCountCollector = new TotalHitCountCollector();
-				luceneCollectors.add( totalHitCountCollector );
-			}
-		}
-		else if ( topDocsCollector == null ) {
-			topDocsCollector = createTopDocsCollector( sort, maxDocs );
-			luceneCollectors.add( topDocsCollector );
-		}
+		topDocsRequired = true;
 	}
 
-	void addCollector(Collector collector) {
-		luceneCollectors.add( collector );
+	/**
+	 * Requires the score of each hit to be available in the top docs, even when hits are sorted by field.
+	 * <p>
+	 * Sorts by score do not need to call this method: the score is then part of the sort values.
+	 */
+	void requireScores() {
+		scoresRequired = true;
 	}
 
-	LuceneCollectors build() {
-		Collector compositeCollector;
-		if ( luceneCollectors.size() == 1 ) {
-			compositeCollector = topDocsCollector != null ? topDocsCollector : totalHitCountCollector;
-		}
-		else {
-			compositeCollector = MultiCollector.wrap( luceneCollectors );
-		}
+	boolean isTopDocsRequired() {
+		return topDocsRequired;
+	}
 
-		return new LuceneCollectors( topDocsCollector, totalHitCountCollector, compositeCollector );
+	boolean isScoresRequired() {
+		return scoresRequired;
 	}
 
-	private static TopDocsCollector<?> createTopDocsCollector(Sort sort, int maxDocs) {
-		TopDocsCollector<?> topDocsCollector;
-		if ( sort == null ) {
-			topDocsCollector = TopScoreDocCollector.create( maxDocs );
-		}
-		else {
-			topDocsCollector = TopFieldCollector.create(
-					sort,
-					maxDocs,
-					true,
-					true,
-					true,
-					true
-			);
-		}
-		return topDocsCollector;
+	/**
+	 * @return {@code true} if no hit needs to be collected, in which case only the total hit count is needed.
+	 */
+	boolean isCountOnly() {
+		return !topDocsRequired || limit == 0;
+	}
+
+	LuceneCollectors build() {
+		return new LuceneCollectors( sort, after, offset, limit, scoresRequired );
 	}
 }
@@ -0,0 +1,157 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Set;
+
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.hibernate.search.v6poc.backend.lucene.index.spi.ReaderProvider;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneQueryWorkOrchestrator;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneSearchQuery;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneSearchScroll;
+import org.hibernate.search.v6poc.backend.lucene.search.reader.impl.MultiReaderFactory;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneQueryWork;
+import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneWorkFactory;
+import org.hibernate.search.v6poc.logging.spi.EventContexts;
+import org.hibernate.search.v6poc.search.SearchResult;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+
+/**
+ * @author Guillaume Smet
+ */
+public class LuceneSearchQueryImpl<T> implements LuceneSearchQuery<T> {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final LuceneQueryWorkOrchestrator queryOrchestrator;
+	private final LuceneWorkFactory workFactory;
+	private final Set<String> indexNames;
+	private final Set<ReaderProvider> readerProviders;
+	private final IndexSearcherFactory indexSearcherFactory;
+	// Applied to queries executed without a maximum number of results, but not to scrolls
+	private final UnboundedQueryLimit unboundedQueryLimit;
+	private final QueryResultCache queryResultCache;
+	private final String tenantId;
+	private final Query luceneQuery;
+	private final Sort luceneSort;
+	private final HitExtractor<?> hitExtractor;
+	private final SearchResultExtractor<T> searchResultExtractor;
+
+	private Long firstResultIndex = 0L;
+	private Long maxResultsCount;
+	private Long totalHitCountThreshold;
+
+	public LuceneSearchQueryImpl(LuceneQueryWorkOrchestrator queryOrchestrator,
+			LuceneWorkFactory workFactory, Set<String> indexNames, Set<ReaderProvider> readerProviders,
+			IndexSearcherFactory indexSearcherFactory, UnboundedQueryLimit unboundedQueryLimit,
+			QueryResultCache queryResultCache, String tenantId,
+			Query luceneQuery, Sort luceneSort, HitExtractor<?> hitExtractor, SearchResultExtractor<T> searchResultExtractor) {
+		this.queryOrchestrator = queryOrchestrator;
+		this.workFactory = workFactory;
+		this.indexNames = indexNames;
+		this.readerProviders = readerProviders;
+		this.indexSearcherFactory = indexSearcherFactory;
+		this.unboundedQueryLimit = unboundedQueryLimit;
+		this.queryResultCache = queryResultCache;
+		this.tenantId = tenantId;
+		this.luceneQuery = luceneQuery;
+		this.luceneSort = luceneSort;
+		this.hitExtractor = hitExtractor;
+		this.searchResultExtractor = searchResultExtractor;
+	}
+
+	@Override
+	public void setFirstResult(Long firstResultIndex) {
+		this.firstResultIndex = firstResultIndex;
+	}
+
+	@Override
+	public void setMaxResults(Long maxResultsCount) {
+		this.maxResultsCount = maxResultsCount;
+	}
+
+	@Override
+	public void setTotalHitCountThreshold(Long totalHitCountThreshold) {
+		if ( totalHitCountThreshold != null && totalHitCountThreshold <= 0L ) {
+			throw log.invalidTotalHitCountThreshold( totalHitCountThreshold, EventContexts.fromIndexNames( indexNames ) );
+		}
+		this.totalHitCountThreshold = totalHitCountThreshold;
+	}
+
+	@Override
+	public String getQueryString() {
+		return luceneQuery.toString();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + getQueryString() + "]";
+	}
+
+	@Override
+	public SearchResult<T> execute() {
+		return execute( new LuceneSearcher<T>(
+				indexNames,
+				readerProviders,
+				indexSearcherFactory,
+				luceneQuery, luceneSort,
+				firstResultIndex, maxResultsCount, unboundedQueryLimit,
+				totalHitCountThreshold,
+				queryResultCache, tenantId,
+				hitExtractor, searchResultExtractor ) );
+	}
+
+	@Override
+	public long executeCount() {
+		return execute( new LuceneSearcher<T>(
+				indexNames,
+				readerProviders,
+				indexSearcherFactory,
+				// The sort is irrelevant when counting
+				luceneQuery, null,
+				0L, 0L, unboundedQueryLimit,
+				totalHitCountThreshold,
+				queryResultCache, tenantId,
+				hitExtractor, searchResultExtractor ) ).getHitCount();
+	}
+
+	@Override
+	public LuceneSearchScroll<T> scroll(int pageSize) {
+		if ( pageSize <= 0 ) {
+			throw log.invalidScrollPageSize( pageSize, EventContexts.fromIndexNames( indexNames ) );
+		}
+		return new LuceneSearchScrollImpl<>( this, pageSize, firstResultIndex, maxResultsCount );
+	}
+
+	Set<String> getIndexNames() {
+		return indexNames;
+	}
+
+	IndexSearcher openSnapshot() {
+		return indexSearcherFactory.createSearcher( MultiReaderFactory.openReader( indexNames, readerProviders ) );
+	}
+
+	LuceneSearcher<T> createPageSearcher(IndexSearcher snapshot, ScoreDoc after, long offset, long limit) {
+		return new LuceneSearcher<T>(
+				indexNames,
+				snapshot,
+				luceneQuery, luceneSort,
+				after, offset, limit,
+				hitExtractor, searchResultExtractor );
+	}
+
+	SearchResult<T> execute(LuceneSearcher<T> searcher) {
+		LuceneQueryWork<SearchResult<T>> work = workFactory.search( searcher );
+		return queryOrchestrator.submit( work ).join();
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneSearchScroll;
+import org.hibernate.search.v6poc.backend.lucene.search.reader.impl.MultiReaderFactory;
+import org.hibernate.search.v6poc.logging.spi.EventContexts;
+import org.hibernate.search.v6poc.search.SearchResult;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+/**
+ * A scroll holding a snapshot of the index readers, and fetching each page by searching after the last hit.
+ * <p>
+ * Only the first page skips hits to reach the first result of the query:
+ * the following pages only collect the hits of the page, whatever their depth.
+ */
+class LuceneSearchScrollImpl<T> implements LuceneSearchScroll<T> {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private final LuceneSearchQueryImpl<T> query;
+	private final int pageSize;
+
+	// Opened when the first page is fetched, closed with the scroll
+	private IndexSearcher snapshot;
+	private boolean closed = false;
+
+	private ScoreDoc lastHit;
+	private long offset;
+	private Long remainingCount;
+	private long totalHitCount;
+	private boolean exhausted = false;
+
+	LuceneSearchScrollImpl(LuceneSearchQueryImpl<T> query, int pageSize, Long firstResultIndex, Long maxResultsCount) {
+		this.query = query;
+		this.pageSize = pageSize;
+		this.offset = firstResultIndex == null ? 0L : firstResultIndex;
+		this.remainingCount = maxResultsCount;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "query=" ).append( query ).append( ", " )
+				.append( "pageSize=" ).append( pageSize )
+				.append( "]" )
+				.toString();
+	}
+
+	@Override
+	public SearchResult<T> next() {
+		if ( closed ) {
+			throw log.scrollClosed( EventContexts.fromIndexNames( query.getIndexNames() ) );
+		}
+		if ( exhausted ) {
+			return emptyPage();
+		}
+
+		if ( snapshot == null ) {
+			snapshot = query.openSnapshot();
+		}
+
+		long limit = remainingCount == null ? pageSize : Math.min( pageSize, remainingCount );
+		LuceneSearcher<T> searcher = query.createPageSearcher( snapshot, lastHit, offset, limit );
+		SearchResult<T> page = query.execute( searcher );
+
+		totalHitCount = page.getHitCount();
+		int hitCount = page.getHits().size();
+		if ( searcher.getLastHit() != null ) {
+			lastHit = searcher.getLastHit();
+			offset = 0L;
+		}
+		if ( remainingCount != null ) {
+			remainingCount -= hitCount;
+		}
+		if ( hitCount < limit || remainingCount != null && remainingCount <= 0L ) {
+			exhausted = true;
+		}
+		return page;
+	}
+
+	@Override
+	public void close() {
+		if ( closed ) {
+			return;
+		}
+		closed = true;
+		if ( snapshot != null ) {
+			MultiReaderFactory.closeReader( snapshot.getIndexReader() );
+			snapshot = null;
+		}
+	}
+
+	private SearchResult<T> emptyPage() {
+		long finalTotalHitCount = totalHitCount;
+		return new SearchResult<T>() {
+			@Override
+			public long getHitCount() {
+				return finalTotalHitCount;
+			}
+
+			@Override
+			public List<T> getHits() {
+				return Collections.emptyList();
+			}
+		};
+	}
+}
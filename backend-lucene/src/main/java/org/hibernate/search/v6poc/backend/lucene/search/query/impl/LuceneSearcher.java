@@ -7,10 +7,12 @@
 package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Set;
 
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TopDocs;
 import org.hibernate.search.v6poc.backend.lucene.index.spi.ReaderProvider;
@@ -24,32 +26,109 @@ import org.hibernate.search.v6poc.search.SearchResult;
  */
 public class LuceneSearcher<T> implements AutoCloseable {
 
+	private static final ScoreDoc[] NO_SCORE_DOCS = new ScoreDoc[0];
+
+	/*
+	 * The number of hits first collected by queries without a maximum number of results.
+	 * Most of these queries match few documents: collectors are sized for them,
+	 * and the next hits are collected in pages of increasing size if the query matched more documents.
+	 */
+	private static final int UNBOUNDED_QUERY_INITIAL_MAX_DOCS = 100;
+
 	private final Set<String> indexNames;
-	private final IndexSearcher indexSearcher;
+	private final Set<ReaderProvider> readerProviders;
+	private final IndexSearcherFactory indexSearcherFactory;
+	// Opened when the query is executed, so that readers are opened in the thread executing the query
+	private IndexSearcher indexSearcher;
+	// Whether the readers were opened by this searcher, and must be closed with it
+	private final boolean ownsIndexSearcher;
 
 	private final Query luceneQuery;
 	private final Sort luceneSort;
 
+	private final ScoreDoc after;
 	private final long firstResultIndex;
 	private final Long maxResultsCount;
+	// Null for searchers that are always given a maximum number of results
+	private final UnboundedQueryLimit unboundedQueryLimit;
+	private final Long totalHitCountThreshold;
+
+	// Null for searchers that must not use the result cache
+	private final QueryResultCache resultCache;
+	private final String tenantId;
 
 	private final HitExtractor<?> hitExtractor;
 	private final SearchResultExtractor<T> searchResultExtractor;
 
+	private ScoreDoc lastHit;
+
 	public LuceneSearcher(Set<String> indexNames,
 			Set<ReaderProvider> readerProviders,
+			IndexSearcherFactory indexSearcherFactory,
 			Query luceneQuery,
 			Sort luceneSort,
 			Long firstResultIndex,
 			Long maxResultsCount,
+			UnboundedQueryLimit unboundedQueryLimit,
+			Long totalHitCountThreshold,
+			QueryResultCache resultCache,
+			String tenantId,
 			HitExtractor<?> hitExtractor,
 			SearchResultExtractor<T> searchResultExtractor) {
 		this.indexNames = indexNames;
-		this.indexSearcher = new IndexSearcher( MultiReaderFactory.openReader( indexNames, readerProviders ) );
+		this.readerProviders = readerProviders;
+		this.indexSearcherFactory = indexSearcherFactory;
+		this.ownsIndexSearcher = true;
 		this.luceneQuery = luceneQuery;
 		this.luceneSort = luceneSort;
+		this.after = null;
 		this.firstResultIndex = firstResultIndex == null ? 0L : firstResultIndex.longValue();
 		this.maxResultsCount = maxResultsCount;
+		this.unboundedQueryLimit = unboundedQueryLimit;
+		this.totalHitCountThreshold = totalHitCountThreshold;
+		this.resultCache = resultCache.isEnabled() ? resultCache : null;
+		this.tenantId = tenantId;
+		this.hitExtractor = hitExtractor;
+		this.searchResultExtractor = searchResultExtractor;
+	}
+
+	/**
+	 * Creates a searcher for a page of a scroll, executed against an index searcher that stays open after the search.
+	 *
+	 * @param indexNames The names of the target indexes.
+	 * @param indexSearcher The index searcher holding the snapshot of the indexes.
+	 * @param luceneQuery The query.
+	 * @param luceneSort The sort, or {@code null}.
+	 * @param after The last hit of the previous page, or {@code null} for the first page.
+	 * @param firstResultIndex The number of hits to skip, after {@code after}.
+	 * @param maxResultsCount The maximum number of hits to return.
+	 * @param hitExtractor The hit extractor.
+	 * @param searchResultExtractor The search result extractor.
+	 */
+	public LuceneSearcher(Set<String> indexNames,
+			IndexSearcher indexSearcher,
+			Query luceneQuery,
+			Sort luceneSort,
+			ScoreDoc after,
+			long firstResultIndex,
+			long maxResultsCount,
+			HitExtractor<?> hitExtractor,
+			SearchResultExtractor<T> searchResultExtractor) {
+		this.indexNames = indexNames;
+		this.readerProviders = null;
+		this.indexSearcherFactory = null;
+		this.indexSearcher = indexSearcher;
+		this.ownsIndexSearcher = false;
+		this.luceneQuery = luceneQuery;
+		this.luceneSort = luceneSort;
+		this.after = after;
+		this.firstResultIndex = firstResultIndex;
+		this.maxResultsCount = maxResultsCount;
+		this.unboundedQueryLimit = null;
+		this.totalHitCountThreshold = null;
+		// The pages of a scroll are searched after a different hit each time: they are not cached
+		this.resultCache = null;
+		this.tenantId = null;
 		this.hitExtractor = hitExtractor;
 		this.searchResultExtractor = searchResultExtractor;
 	}
@@ -57,19 +136,37 @@ public class LuceneSearcher<T> implements AutoCloseable {
 	public SearchResult<T> execute() throws IOException {
 		// TODO GSM implement timeout handling by wrapping the collector with the timeout limiting one
 
-		LuceneCollectorsBuilder luceneCollectorsBuilder = new LuceneCollectorsBuilder( luceneSort, getMaxDocs() );
-		hitExtractor.contributeCollectors( luceneCollectorsBuilder );
-		LuceneCollectors luceneCollectors = luceneCollectorsBuilder.build();
+		if ( ownsIndexSearcher ) {
+			indexSearcher = indexSearcherFactory.createSearcher( MultiReaderFactory.openReader( indexNames, readerProviders ) );
+		}
+
+		TopDocs topDocs;
+		if ( resultCache != null ) {
+			topDocs = resultCache.get( indexSearcher.getIndexReader(), createResultCacheKey(), this::search );
+		}
+		else {
+			topDocs = search();
+		}
 
-		indexSearcher.search( luceneQuery, luceneCollectors.getCompositeCollector() );
+		if ( topDocs.scoreDocs.length > 0 ) {
+			lastHit = topDocs.scoreDocs[topDocs.scoreDocs.length - 1];
+		}
 
-		return searchResultExtractor.extract( indexSearcher, getTopDocs( luceneCollectors ) );
+		return searchResultExtractor.extract( indexSearcher, topDocs );
 	}
 
 	public Query getLuceneQuery() {
 		return luceneQuery;
 	}
 
+	/**
+	 * @return The last hit returned by {@link #execute()}, or {@code null} if there was none.
+	 * Pass it as {@code after} to the searcher of the next page.
+	 */
+	public ScoreDoc getLastHit() {
+		return lastHit;
+	}
+
 	public Set<String> getIndexNames() {
 		return indexNames;
 	}
@@ -80,30 +177,88 @@ public class LuceneSearcher<T> implements AutoCloseable {
 
 	@Override
 	public void close() {
-		MultiReaderFactory.closeReader( indexSearcher.getIndexReader() );
+		if ( ownsIndexSearcher && indexSearcher != null ) {
+			MultiReaderFactory.closeReader( indexSearcher.getIndexReader() );
+		}
 	}
 
-	private int getMaxDocs() {
-		// FIXME this is very naive for now, we will probably need to implement some scrolling in the collector
-		// as it is done in Search 5.
-		// Note that Lucene initializes data structures of this size so setting it to a large value consumes memory.
-		if ( maxResultsCount == null ) {
-			return indexSearcher.getIndexReader().maxDoc();
+	private QueryResultCache.QueryKey createResultCacheKey() {
+		// What is collected depends on the hit extractor
+		LuceneCollectorsBuilder luceneCollectorsBuilder = new LuceneCollectorsBuilder( luceneSort, after, 0, 0 );
+		hitExtractor.contributeCollectors( luceneCollectorsBuilder );
+		return new QueryResultCache.QueryKey(
+				tenantId, luceneQuery, luceneSort,
+				firstResultIndex, maxResultsCount, totalHitCountThreshold,
+				luceneCollectorsBuilder.isTopDocsRequired(), luceneCollectorsBuilder.isScoresRequired()
+		);
+	}
+
+	private TopDocs search() throws IOException {
+		if ( maxResultsCount != null ) {
+			return search( after, firstResultIndex, maxResultsCount );
+		}
+
+		long limit = unboundedQueryLimit.getMaxResultsCount();
+		TopDocs topDocs = search( after, firstResultIndex, Math.min( UNBOUNDED_QUERY_INITIAL_MAX_DOCS, limit ) );
+		// Count-only queries do not collect any hit, whatever the number of matching documents
+		if ( topDocs.scoreDocs.length == 0 ) {
+			return topDocs;
 		}
-		else if ( maxResultsCount == 0L ) {
-			return 0;
+		long remainingHitCount = topDocs.totalHits - firstResultIndex;
+		if ( remainingHitCount > limit ) {
+			unboundedQueryLimit.onTruncated( topDocs.totalHits, getEventContext() );
 		}
-		else {
-			return Math.min( (int) ( firstResultIndex + maxResultsCount ), indexSearcher.getIndexReader().maxDoc() );
+		int expectedHitCount = (int) Math.min( remainingHitCount, limit );
+		if ( topDocs.scoreDocs.length >= expectedHitCount ) {
+			return topDocs;
+		}
+
+		// Collect the next hits in pages of doubling size, each page searched after the last hit of the previous one
+		ScoreDoc[] scoreDocs = Arrays.copyOf( topDocs.scoreDocs, expectedHitCount );
+		int hitCount = topDocs.scoreDocs.length;
+		int pageSize = hitCount;
+		while ( hitCount < expectedHitCount ) {
+			pageSize = Math.min( pageSize * 2, expectedHitCount - hitCount );
+			ScoreDoc[] page = search( scoreDocs[hitCount - 1], 0L, pageSize ).scoreDocs;
+			if ( page.length == 0 ) {
+				// Cannot happen as long as the snapshot is the same, but let's not loop forever
+				break;
+			}
+			System.arraycopy( page, 0, scoreDocs, hitCount, page.length );
+			hitCount += page.length;
 		}
+		return new TopDocs(
+				topDocs.totalHits,
+				hitCount < expectedHitCount ? Arrays.copyOf( scoreDocs, hitCount ) : scoreDocs,
+				topDocs.getMaxScore()
+		);
 	}
 
-	private TopDocs getTopDocs(LuceneCollectors luceneCollectors) {
-		if ( maxResultsCount == null ) {
-			return luceneCollectors.getTopDocsCollector().topDocs( (int) firstResultIndex );
+	private TopDocs search(ScoreDoc after, long offset, long limit) throws IOException {
+		int maxDocs = getMaxDocs( offset, limit );
+		LuceneCollectorsBuilder luceneCollectorsBuilder = new LuceneCollectorsBuilder(
+				luceneSort, after, (int) offset, maxDocs - (int) offset
+		);
+		hitExtractor.contributeCollectors( luceneCollectorsBuilder );
+		if ( luceneCollectorsBuilder.isCountOnly() ) {
+			long totalHits = HitCounter.count( indexSearcher, luceneQuery, totalHitCountThreshold );
+			return new TopDocs( totalHits, NO_SCORE_DOCS, Float.NaN );
+		}
+		LuceneCollectors luceneCollectors = luceneCollectorsBuilder.build();
+
+		// Leaf slices are searched in parallel if the searcher has an executor
+		return indexSearcher.search( luceneQuery, luceneCollectors );
+	}
+
+	private int getMaxDocs(long offset, long limit) {
+		// Note that Lucene initializes data structures of this size so setting it to a large value consumes memory.
+		int maxDoc = indexSearcher.getIndexReader().maxDoc();
+		if ( offset >= maxDoc ) {
+			// The requested page is empty: we only need the total hit count
+			return (int) offset;
 		}
 		else {
-			return luceneCollectors.getTopDocsCollector().topDocs( (int) firstResultIndex, maxResultsCount.intValue() );
+			return (int) Math.min( offset + limit, maxDoc );
 		}
 	}
 }
@@ -40,7 +40,7 @@ class NullProjectionHitExtractor implements HitExtractor<ProjectionHitCollector>
 	}
 
 	@Override
-	public void extract(ProjectionHitCollector collector, Document document) {
+	public void extract(ProjectionHitCollector collector, Document document, HitDocValues docValues) {
 		collector.collectProjection( null );
 	}
 }
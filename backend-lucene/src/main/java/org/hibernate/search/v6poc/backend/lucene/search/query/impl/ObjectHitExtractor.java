@@ -21,7 +21,7 @@ class ObjectHitExtractor extends AbstractDocumentReferenceHitExtractor<LoadingHi
 	}
 
 	@Override
-	public void extract(LoadingHitCollector collector, Document document) {
+	public void extract(LoadingHitCollector collector, Document document, HitDocValues docValues) {
 		collector.collectForLoading( extractDocumentReference( document ) );
 	}
 }
@@ -0,0 +1,260 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.lucene.index.CompositeReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexReaderContext;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TopDocs;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneQueryResultCacheStatistics;
+
+/**
+ * Caches the top docs of queries, so that executing the same query again does not search the indexes.
+ * <p>
+ * Results are keyed by the query, its paging and the generation of the readers of each target index:
+ * doc IDs stay valid as long as the same readers are used, and a refresh opens new readers,
+ * so results are never stale.
+ * Results computed on readers are invalidated when these readers are closed.
+ * <p>
+ * Only doc IDs and scores are cached: hits are still extracted for each execution.
+ * The least recently used results are evicted when the cache is full.
+ */
+public class QueryResultCache implements LuceneQueryResultCacheStatistics {
+
+	// Larger results would make the number of entries a poor bound on the size of the cache
+	private static final int MAX_CACHED_HITS = 10_000;
+
+	private final int maxEntries;
+
+	private final Map<Key, TopDocs> entries;
+	// The readers whose closing invalidates cached results
+	private final Set<IndexReader.CacheKey> listenedReaderKeys = new HashSet<>();
+
+	private long hitCount = 0L;
+	private long missCount = 0L;
+
+	/**
+	 * @param maxEntries The maximum number of results in the cache, or {@code 0} to disable the cache.
+	 */
+	public QueryResultCache(int maxEntries) {
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<Key, TopDocs>( 16, 0.75f, true ) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, TopDocs> eldest) {
+				return size() > QueryResultCache.this.maxEntries;
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "maxEntries=" ).append( maxEntries )
+				.append( "]" )
+				.toString();
+	}
+
+	@Override
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	@Override
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	@Override
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+
+	boolean isEnabled() {
+		return maxEntries > 0;
+	}
+
+	/**
+	 * @param indexReader The reader to execute the query on.
+	 * @param queryKey The key of the query.
+	 * @param search The search to execute if the results are not cached.
+	 * @return The top docs of the query.
+	 * @throws IOException If the search fails.
+	 */
+	TopDocs get(IndexReader indexReader, QueryKey queryKey, Search search) throws IOException {
+		List<IndexReader.CacheHelper> readerCacheHelpers = getReaderCacheHelpers( indexReader );
+		if ( readerCacheHelpers == null ) {
+			return search.execute();
+		}
+		List<IndexReader.CacheKey> readerKeys = new ArrayList<>( readerCacheHelpers.size() );
+		for ( IndexReader.CacheHelper cacheHelper : readerCacheHelpers ) {
+			readerKeys.add( cacheHelper.getKey() );
+		}
+		Key key = new Key( readerKeys, queryKey );
+
+		synchronized ( this ) {
+			TopDocs topDocs = entries.get( key );
+			if ( topDocs != null ) {
+				++hitCount;
+				return topDocs;
+			}
+			++missCount;
+		}
+
+		// Concurrent executions of the same query may both search: the last one wins
+		TopDocs topDocs = search.execute();
+		if ( topDocs.scoreDocs.length > MAX_CACHED_HITS ) {
+			return topDocs;
+		}
+
+		List<IndexReader.CacheHelper> newReaderCacheHelpers = new ArrayList<>();
+		synchronized ( this ) {
+			entries.put( key, topDocs );
+			for ( IndexReader.CacheHelper cacheHelper : readerCacheHelpers ) {
+				if ( listenedReaderKeys.add( cacheHelper.getKey() ) ) {
+					newReaderCacheHelpers.add( cacheHelper );
+				}
+			}
+		}
+		// The readers are open as long as the search is executing: they cannot be closed before the listener is added
+		for ( IndexReader.CacheHelper cacheHelper : newReaderCacheHelpers ) {
+			cacheHelper.addClosedListener( this::invalidate );
+		}
+		return topDocs;
+	}
+
+	private synchronized void invalidate(IndexReader.CacheKey readerKey) {
+		listenedReaderKeys.remove( readerKey );
+		Iterator<Key> iterator = entries.keySet().iterator();
+		while ( iterator.hasNext() ) {
+			if ( iterator.next().readerKeys.contains( readerKey ) ) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private static List<IndexReader.CacheHelper> getReaderCacheHelpers(IndexReader indexReader) {
+		// The reader of a query is a multi-reader specific to this query, over the reader of each target index
+		List<IndexReader> subReaders = new ArrayList<>();
+		if ( indexReader instanceof CompositeReader ) {
+			for ( IndexReaderContext context : indexReader.getContext().children() ) {
+				subReaders.add( context.reader() );
+			}
+		}
+		else {
+			subReaders.add( indexReader );
+		}
+		List<IndexReader.CacheHelper> cacheHelpers = new ArrayList<>( subReaders.size() );
+		for ( IndexReader subReader : subReaders ) {
+			IndexReader.CacheHelper cacheHelper = subReader.getReaderCacheHelper();
+			if ( cacheHelper == null ) {
+				// The reader cannot be identified: its results cannot be cached
+				return null;
+			}
+			cacheHelpers.add( cacheHelper );
+		}
+		return cacheHelpers;
+	}
+
+	@FunctionalInterface
+	interface Search {
+		TopDocs execute() throws IOException;
+	}
+
+	private static final class Key {
+
+		private final List<IndexReader.CacheKey> readerKeys;
+		private final QueryKey queryKey;
+
+		Key(List<IndexReader.CacheKey> readerKeys, QueryKey queryKey) {
+			this.readerKeys = readerKeys;
+			this.queryKey = queryKey;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( obj == this ) {
+				return true;
+			}
+			if ( !( obj instanceof Key ) ) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return readerKeys.equals( other.readerKeys ) && queryKey.equals( other.queryKey );
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * readerKeys.hashCode() + queryKey.hashCode();
+		}
+	}
+
+	/**
+	 * Identifies the results of a query, regardless of the readers it is executed on.
+	 */
+	static final class QueryKey {
+
+		private final String tenantId;
+		private final Query query;
+		private final Sort sort;
+		private final long firstResultIndex;
+		private final Long maxResultsCount;
+		private final Long totalHitCountThreshold;
+		private final boolean topDocsRequired;
+		private final boolean scoresRequired;
+
+		QueryKey(String tenantId, Query query, Sort sort,
+				long firstResultIndex, Long maxResultsCount, Long totalHitCountThreshold,
+				boolean topDocsRequired, boolean scoresRequired) {
+			this.tenantId = tenantId;
+			this.query = query;
+			this.sort = sort;
+			this.firstResultIndex = firstResultIndex;
+			this.maxResultsCount = maxResultsCount;
+			this.totalHitCountThreshold = totalHitCountThreshold;
+			this.topDocsRequired = topDocsRequired;
+			this.scoresRequired = scoresRequired;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( obj == this ) {
+				return true;
+			}
+			if ( !( obj instanceof QueryKey ) ) {
+				return false;
+			}
+			QueryKey other = (QueryKey) obj;
+			return firstResultIndex == other.firstResultIndex
+					&& topDocsRequired == other.topDocsRequired
+					&& scoresRequired == other.scoresRequired
+					&& Objects.equals( tenantId, other.tenantId )
+					&& query.equals( other.query )
+					&& Objects.equals( sort, other.sort )
+					&& Objects.equals( maxResultsCount, other.maxResultsCount )
+					&& Objects.equals( totalHitCountThreshold, other.totalHitCountThreshold );
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash( tenantId, query, sort, firstResultIndex, maxResultsCount, totalHitCountThreshold,
+					topDocsRequired, scoresRequired );
+		}
+	}
+}
@@ -95,7 +95,8 @@ public final class ReusableDocumentStoredFieldVisitor extends StoredFieldVisitor
 			return Status.STOP;
 		}
 		final Status s = rootAcceptor.acceptField( fieldInfo.name );
-		if ( s == Status.YES ) {
+		// Multi-valued fields are visited once per value: only count them once
+		if ( s == Status.YES && ( doc == null || doc.getField( fieldInfo.name ) == null ) ) {
 			missingFields--;
 		}
 		return s;
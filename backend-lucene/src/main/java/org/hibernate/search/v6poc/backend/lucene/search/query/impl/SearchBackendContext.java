@@ -7,12 +7,15 @@
 package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.hibernate.search.v6poc.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
 import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneQueryWorkOrchestrator;
 import org.hibernate.search.v6poc.backend.lucene.search.impl.LuceneSearchTargetModel;
+import org.hibernate.search.v6poc.backend.lucene.types.codec.impl.LuceneFieldCodec;
 import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneWorkFactory;
 import org.hibernate.search.v6poc.engine.spi.SessionContext;
 import org.hibernate.search.v6poc.util.EventContext;
@@ -25,15 +28,24 @@ public class SearchBackendContext {
 	private final MultiTenancyStrategy multiTenancyStrategy;
 
 	private final LuceneQueryWorkOrchestrator orchestrator;
+	private final IndexSearcherFactory indexSearcherFactory;
+	private final UnboundedQueryLimit unboundedQueryLimit;
+	private final QueryResultCache queryResultCache;
 
 	public SearchBackendContext(EventContext eventContext,
 			LuceneWorkFactory workFactory,
 			MultiTenancyStrategy multiTenancyStrategy,
-			LuceneQueryWorkOrchestrator orchestrator) {
+			LuceneQueryWorkOrchestrator orchestrator,
+			IndexSearcherFactory indexSearcherFactory,
+			UnboundedQueryLimit unboundedQueryLimit,
+			QueryResultCache queryResultCache) {
 		this.eventContext = eventContext;
 		this.multiTenancyStrategy = multiTenancyStrategy;
 		this.workFactory = workFactory;
 		this.orchestrator = orchestrator;
+		this.indexSearcherFactory = indexSearcherFactory;
+		this.unboundedQueryLimit = unboundedQueryLimit;
+		this.queryResultCache = queryResultCache;
 	}
 
 	@Override
@@ -54,14 +66,20 @@ public class SearchBackendContext {
 
 		Set<String> storedFields = new HashSet<>();
 		hitExtractor.contributeFields( storedFields );
+		Map<String, LuceneFieldCodec<?>> docValuesFields = new LinkedHashMap<>();
+		hitExtractor.contributeDocValues( docValuesFields );
 
 		return new SearchQueryBuilderImpl<>(
 				workFactory,
 				orchestrator,
+				indexSearcherFactory,
+				unboundedQueryLimit,
+				queryResultCache,
 				multiTenancyStrategy,
 				searchTargetModel,
 				sessionContext,
 				new ReusableDocumentStoredFieldVisitor( storedFields ),
+				docValuesFields,
 				hitExtractor,
 				hitAggregator
 		);
@@ -6,7 +6,10 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 import org.hibernate.search.v6poc.backend.lucene.multitenancy.impl.MultiTenancyStrategy;
@@ -14,6 +17,7 @@ import org.hibernate.search.v6poc.backend.lucene.orchestration.impl.LuceneQueryW
 import org.hibernate.search.v6poc.backend.lucene.search.impl.LuceneQueries;
 import org.hibernate.search.v6poc.backend.lucene.search.impl.LuceneSearchQueryElementCollector;
 import org.hibernate.search.v6poc.backend.lucene.search.impl.LuceneSearchTargetModel;
+import org.hibernate.search.v6poc.backend.lucene.types.codec.impl.LuceneFieldCodec;
 import org.hibernate.search.v6poc.backend.lucene.work.impl.LuceneWorkFactory;
 import org.hibernate.search.v6poc.engine.spi.SessionContext;
 import org.hibernate.search.v6poc.search.SearchQuery;
@@ -28,12 +32,17 @@ class SearchQueryBuilderImpl<C, T>
 
 	private final LuceneWorkFactory workFactory;
 	private final LuceneQueryWorkOrchestrator queryOrchestrator;
+	private final IndexSearcherFactory indexSearcherFactory;
+	private final UnboundedQueryLimit unboundedQueryLimit;
+	private final QueryResultCache queryResultCache;
 	private final MultiTenancyStrategy multiTenancyStrategy;
 
 	private final LuceneSearchTargetModel searchTargetModel;
 	private final String tenantId;
+	private final Set<String> routingKeys = new HashSet<>();
 
 	private final ReusableDocumentStoredFieldVisitor storedFieldVisitor;
+	private final Map<String, LuceneFieldCodec<?>> docValuesFields;
 	private final HitExtractor<? super C> hitExtractor;
 	private final HitAggregator<C, List<T>> hitAggregator;
 	private final LuceneSearchQueryElementCollector elementCollector;
@@ -41,14 +50,21 @@ class SearchQueryBuilderImpl<C, T>
 	SearchQueryBuilderImpl(
 			LuceneWorkFactory workFactory,
 			LuceneQueryWorkOrchestrator queryOrchestrator,
+			IndexSearcherFactory indexSearcherFactory,
+			UnboundedQueryLimit unboundedQueryLimit,
+			QueryResultCache queryResultCache,
 			MultiTenancyStrategy multiTenancyStrategy,
 			LuceneSearchTargetModel searchTargetModel,
 			SessionContext sessionContext,
 			ReusableDocumentStoredFieldVisitor storedFieldVisitor,
+			Map<String, LuceneFieldCodec<?>> docValuesFields,
 			HitExtractor<? super C> hitExtractor,
 			HitAggregator<C, List<T>> hitAggregator) {
 		this.workFactory = workFactory;
 		this.queryOrchestrator = queryOrchestrator;
+		this.indexSearcherFactory = indexSearcherFactory;
+		this.unboundedQueryLimit = unboundedQueryLimit;
+		this.queryResultCache = queryResultCache;
 		this.multiTenancyStrategy = multiTenancyStrategy;
 
 		this.searchTargetModel = searchTargetModel;
@@ -56,6 +72,7 @@ class SearchQueryBuilderImpl<C, T>
 
 		this.elementCollector = new LuceneSearchQueryElementCollector();
 		this.storedFieldVisitor = storedFieldVisitor;
+		this.docValuesFields = docValuesFields;
 		this.hitExtractor = hitExtractor;
 		this.hitAggregator = hitAggregator;
 	}
@@ -67,19 +84,22 @@ class SearchQueryBuilderImpl<C, T>
 
 	@Override
 	public void addRoutingKey(String routingKey) {
-		// TODO see what to do with the routing key
-		throw new UnsupportedOperationException( "Routing keys are not supported by the Lucene backend yet." );
+		routingKeys.add( routingKey );
 	}
 
 	private SearchQuery<T> build() {
-		SearchResultExtractor<T> searchResultExtractor = new SearchResultExtractorImpl<>( storedFieldVisitor, hitExtractor, hitAggregator );
+		SearchResultExtractor<T> searchResultExtractor = new SearchResultExtractorImpl<>(
+				storedFieldVisitor, docValuesFields, hitExtractor, hitAggregator
+		);
 
 		BooleanQuery.Builder luceneQueryBuilder = new BooleanQuery.Builder();
 		luceneQueryBuilder.add( elementCollector.toLuceneQueryPredicate(), Occur.MUST );
 		luceneQueryBuilder.add( LuceneQueries.mainDocumentQuery(), Occur.FILTER );
 
-		return new LuceneSearchQuery<T>( queryOrchestrator, workFactory,
-				searchTargetModel.getIndexNames(), searchTargetModel.getReaderProviders(),
+		return new LuceneSearchQueryImpl<T>( queryOrchestrator, workFactory,
+				searchTargetModel.getIndexNames(), searchTargetModel.getReaderProviders( routingKeys ),
+				indexSearcherFactory, unboundedQueryLimit,
+				queryResultCache, tenantId,
 				multiTenancyStrategy.decorateLuceneQuery( luceneQueryBuilder.build(), tenantId ),
 				elementCollector.toLuceneSort(),
 				hitExtractor, searchResultExtractor );
@@ -66,14 +66,15 @@ class SearchQueryFactoryImpl
 		Set<LuceneIndexModel> indexModels = searchTargetModel.getIndexModels();
 		if ( indexModels.size() == 1 ) {
 			LuceneIndexModel indexModel = indexModels.iterator().next();
-			hitExtractor = createProjectionHitExtractor( indexModel, projections, projectionFound );
+			hitExtractor = createProjectionHitExtractor( indexModel, projections, projectionFound, true );
 		}
 		else {
 			// Use LinkedHashMap to ensure stable order when generating requests
 			Map<String, HitExtractor<? super ProjectionHitCollector>> extractorByIndex = new LinkedHashMap<>();
 			for ( LuceneIndexModel indexModel : indexModels ) {
+				// Doc values are not used: the same field may be encoded differently in each index
 				HitExtractor<? super ProjectionHitCollector> indexHitExtractor =
-						createProjectionHitExtractor( indexModel, projections, projectionFound );
+						createProjectionHitExtractor( indexModel, projections, projectionFound, false );
 				extractorByIndex.put( indexModel.getIndexName(), indexHitExtractor );
 			}
 			hitExtractor = new IndexSensitiveHitExtractor<>( extractorByIndex );
@@ -90,7 +91,7 @@ class SearchQueryFactoryImpl
 	}
 
 	private HitExtractor<? super ProjectionHitCollector> createProjectionHitExtractor(
-			LuceneIndexModel indexModel, String[] projections, BitSet projectionFound) {
+			LuceneIndexModel indexModel, String[] projections, BitSet projectionFound, boolean docValuesAllowed) {
 		List<HitExtractor<? super ProjectionHitCollector>> extractors = new ArrayList<>( projections.length );
 		for ( int i = 0; i < projections.length; ++i ) {
 			String projection = projections[i];
@@ -111,7 +112,7 @@ class SearchQueryFactoryImpl
 					LuceneIndexSchemaFieldNode<?> schemaNode = indexModel.getFieldNode( projection );
 					if ( schemaNode != null ) {
 						projectionFound.set( i );
-						extractors.add( new FieldProjectionHitExtractor( projection, schemaNode.getCodec() ) );
+						extractors.add( new FieldProjectionHitExtractor( projection, schemaNode.getCodec(), docValuesAllowed ) );
 					}
 					else {
 						// Make sure that the result list will have the correct indices and size
@@ -9,11 +9,13 @@ package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
+import org.hibernate.search.v6poc.backend.lucene.types.codec.impl.LuceneFieldCodec;
 import org.hibernate.search.v6poc.search.SearchResult;
 import org.hibernate.search.v6poc.search.query.spi.HitAggregator;
 
@@ -21,29 +23,48 @@ public class SearchResultExtractorImpl<C, T> implements SearchResultExtractor<T>
 
 	private final ReusableDocumentStoredFieldVisitor storedFieldVisitor;
 
+	// Stored fields are not loaded at all when every projection is extracted from doc values
+	private final boolean storedFieldsRequired;
+
+	private final Map<String, LuceneFieldCodec<?>> docValuesFields;
+
 	private final HitExtractor<? super C> hitExtractor;
 
 	private final HitAggregator<C, List<T>> hitAggregator;
 
 	public SearchResultExtractorImpl(
 			ReusableDocumentStoredFieldVisitor storedFieldVisitor,
+			Map<String, LuceneFieldCodec<?>> docValuesFields,
 			HitExtractor<? super C> hitExtractor,
 			HitAggregator<C, List<T>> hitAggregator) {
 		this.storedFieldVisitor = storedFieldVisitor;
+		this.storedFieldsRequired = storedFieldVisitor.countAcceptedFields() > 0;
+		this.docValuesFields = docValuesFields;
 		this.hitExtractor = hitExtractor;
 		this.hitAggregator = hitAggregator;
 	}
 
 	@Override
 	public SearchResult<T> extract(IndexSearcher indexSearcher, TopDocs topDocs) throws IOException {
-		hitAggregator.init( topDocs.scoreDocs.length );
+		ScoreDoc[] hits = topDocs.scoreDocs;
+		hitAggregator.init( hits.length );
+
+		HitDocValues docValues = HitDocValues.load( indexSearcher, hits, docValuesFields );
+		Document emptyDocument = new Document();
 
-		for ( ScoreDoc hit : topDocs.scoreDocs ) {
-			indexSearcher.doc( hit.doc, storedFieldVisitor );
-			Document document = storedFieldVisitor.getDocumentAndReset();
+		for ( int i = 0; i < hits.length; i++ ) {
+			Document document;
+			if ( storedFieldsRequired ) {
+				indexSearcher.doc( hits[i].doc, storedFieldVisitor );
+				document = storedFieldVisitor.getDocumentAndReset();
+			}
+			else {
+				document = emptyDocument;
+			}
+			docValues.setHitIndex( i );
 
 			C hitCollector = hitAggregator.nextCollector();
-			hitExtractor.extract( hitCollector, document );
+			hitExtractor.extract( hitCollector, document, docValues );
 		}
 
 		long totalHits = topDocs.totalHits;
@@ -0,0 +1,68 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.search.query.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
+import org.hibernate.search.v6poc.util.EventContext;
+import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
+
+/**
+ * The maximum number of hits returned by queries executed without a maximum number of results,
+ * if any.
+ * <p>
+ * Truncated results are logged at most once per minute:
+ * the same query is usually executed many times, and logging each execution would flood the logs.
+ */
+public final class UnboundedQueryLimit {
+
+	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
+
+	private static final long TRUNCATION_WARNING_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos( 1 );
+
+	private final Long maxResultsCount;
+
+	private final AtomicLong lastTruncationWarningNanos = new AtomicLong();
+
+	private volatile boolean truncationWarningLogged = false;
+
+	/**
+	 * @param maxResultsCount The maximum number of hits, or {@code null} to return every hit.
+	 */
+	public UnboundedQueryLimit(Long maxResultsCount) {
+		this.maxResultsCount = maxResultsCount;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder( getClass().getSimpleName() )
+				.append( "[" )
+				.append( "maxResultsCount=" ).append( maxResultsCount )
+				.append( "]" )
+				.toString();
+	}
+
+	long getMaxResultsCount() {
+		return maxResultsCount == null ? Long.MAX_VALUE : maxResultsCount;
+	}
+
+	void onTruncated(long hitCount, EventContext eventContext) {
+		long now = System.nanoTime();
+		long last = lastTruncationWarningNanos.get();
+		if ( truncationWarningLogged && now - last < TRUNCATION_WARNING_INTERVAL_NANOS ) {
+			return;
+		}
+		// Only one of the threads truncating results concurrently logs the warning
+		if ( lastTruncationWarningNanos.compareAndSet( last, now ) ) {
+			truncationWarningLogged = true;
+			log.unboundedQueryTruncated( hitCount, maxResultsCount, eventContext );
+		}
+	}
+}
@@ -39,11 +39,22 @@ public class ManagedMultiReader extends MultiReader {
 	}
 
 	static ManagedMultiReader createInstance(Set<ReaderProvider> readerProviders) throws IOException {
-		IndexReader[] indexReaders = readerProviders.stream()
-				.map( ReaderProvider::openIndexReader )
-				.toArray( size -> new IndexReader[size] );
-
-		return new ManagedMultiReader( indexReaders, readerProviders.toArray( new ReaderProvider[readerProviders.size()] ) );
+		ReaderProvider[] providers = readerProviders.toArray( new ReaderProvider[readerProviders.size()] );
+		IndexReader[] indexReaders = new IndexReader[providers.length];
+		int openedReaderCount = 0;
+		try {
+			for ( ; openedReaderCount < providers.length; openedReaderCount++ ) {
+				indexReaders[openedReaderCount] = providers[openedReaderCount].openIndexReader();
+			}
+			return new ManagedMultiReader( indexReaders, providers );
+		}
+		catch (IOException | RuntimeException e) {
+			// Release the readers we managed to open, so that they don't stay referenced forever
+			for ( int i = 0; i < openedReaderCount; i++ ) {
+				providers[i].closeIndexReader( indexReaders[i] );
+			}
+			throw e;
+		}
 	}
 
 	@Override
@@ -59,15 +59,46 @@ public final class GeoPointFieldCodec implements LuceneFieldCodec<GeoPoint> {
 			return;
 		}
 
+		double latitude = value.getLatitude();
+		double longitude = value.getLongitude();
+
 		if ( Store.YES.equals( store ) ) {
-			documentBuilder.addField( new StoredField( latitudeAbsoluteFieldPath, value.getLatitude() ) );
-			documentBuilder.addField( new StoredField( longitudeAbsoluteFieldPath, value.getLongitude() ) );
+			StoredField latitudeField = documentBuilder.reuseField( latitudeAbsoluteFieldPath, StoredField.class );
+			if ( latitudeField == null ) {
+				latitudeField = new StoredField( latitudeAbsoluteFieldPath, latitude );
+			}
+			else {
+				latitudeField.setDoubleValue( latitude );
+			}
+			documentBuilder.addField( latitudeField );
+			StoredField longitudeField = documentBuilder.reuseField( longitudeAbsoluteFieldPath, StoredField.class );
+			if ( longitudeField == null ) {
+				longitudeField = new StoredField( longitudeAbsoluteFieldPath, longitude );
+			}
+			else {
+				longitudeField.setDoubleValue( longitude );
+			}
+			documentBuilder.addField( longitudeField );
 		}
 		if ( Sortable.YES.equals( sortable ) ) {
-			documentBuilder.addField( new LatLonDocValuesField( absoluteFieldPath, value.getLatitude(), value.getLongitude() ) );
+			LatLonDocValuesField docValuesField = documentBuilder.reuseField( absoluteFieldPath, LatLonDocValuesField.class );
+			if ( docValuesField == null ) {
+				docValuesField = new LatLonDocValuesField( absoluteFieldPath, latitude, longitude );
+			}
+			else {
+				docValuesField.setLocationValue( latitude, longitude );
+			}
+			documentBuilder.addField( docValuesField );
 		}
 
-		documentBuilder.addField( new LatLonPoint( absoluteFieldPath, value.getLatitude(), value.getLongitude() ) );
+		LatLonPoint point = documentBuilder.reuseField( absoluteFieldPath, LatLonPoint.class );
+		if ( point == null ) {
+			point = new LatLonPoint( absoluteFieldPath, latitude, longitude );
+		}
+		else {
+			point.setLocationValue( latitude, longitude );
+		}
+		documentBuilder.addField( point );
 	}
 
 	@Override
@@ -6,13 +6,17 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.types.codec.impl;
 
+import java.io.IOException;
 import java.util.Objects;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.NumericDocValues;
 import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
 import org.hibernate.search.v6poc.backend.document.model.dsl.Store;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneDocumentBuilder;
@@ -35,14 +39,35 @@ public final class IntegerFieldCodec implements LuceneFieldCodec<Integer> {
 		}
 
 		if ( Store.YES.equals( store ) ) {
-			documentBuilder.addField( new StoredField( absoluteFieldPath, value ) );
+			StoredField storedField = documentBuilder.reuseField( absoluteFieldPath, StoredField.class );
+			if ( storedField == null ) {
+				storedField = new StoredField( absoluteFieldPath, value );
+			}
+			else {
+				storedField.setIntValue( value );
+			}
+			documentBuilder.addField( storedField );
 		}
 
 		if ( Sortable.YES.equals( sortable ) ) {
-			documentBuilder.addField( new NumericDocValuesField( absoluteFieldPath, value.longValue() ) );
+			NumericDocValuesField docValuesField = documentBuilder.reuseField( absoluteFieldPath, NumericDocValuesField.class );
+			if ( docValuesField == null ) {
+				docValuesField = new NumericDocValuesField( absoluteFieldPath, value.longValue() );
+			}
+			else {
+				docValuesField.setLongValue( value.longValue() );
+			}
+			documentBuilder.addField( docValuesField );
 		}
 
-		documentBuilder.addField( new IntPoint( absoluteFieldPath, value ) );
+		IntPoint point = documentBuilder.reuseField( absoluteFieldPath, IntPoint.class );
+		if ( point == null ) {
+			point = new IntPoint( absoluteFieldPath, value );
+		}
+		else {
+			point.setIntValue( value );
+		}
+		documentBuilder.addField( point );
 	}
 
 	@Override
@@ -56,6 +81,22 @@ public final class IntegerFieldCodec implements LuceneFieldCodec<Integer> {
 		return (Integer) field.numericValue();
 	}
 
+	/*
+	 * Only sortable fields are supported: they hold a single value,
+	 * whereas multi-valued doc values would return the values in sorted order, not in the order they were stored.
+	 */
+	@Override
+	public boolean isDocValuesDecodingSupported() {
+		return Store.YES.equals( store ) && Sortable.YES.equals( sortable );
+	}
+
+	@Override
+	public LuceneDocValuesDecoder<Integer> createDocValuesDecoder(LeafReader reader, String absoluteFieldPath)
+			throws IOException {
+		NumericDocValues docValues = DocValues.getNumeric( reader, absoluteFieldPath );
+		return docId -> docValues.advanceExact( docId ) ? Integer.valueOf( (int) docValues.longValue() ) : null;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if ( this == obj ) {
@@ -10,6 +10,7 @@ import static java.time.temporal.ChronoField.DAY_OF_MONTH;
 import static java.time.temporal.ChronoField.MONTH_OF_YEAR;
 import static java.time.temporal.ChronoField.YEAR;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
@@ -22,7 +23,10 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.NumericDocValues;
 import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
 import org.hibernate.search.v6poc.backend.document.model.dsl.Store;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneDocumentBuilder;
@@ -54,16 +58,38 @@ public final class LocalDateFieldCodec implements LuceneFieldCodec<LocalDate> {
 		}
 
 		if ( Store.YES.equals( store ) ) {
-			documentBuilder.addField( new StoredField( absoluteFieldPath, FORMATTER.format( value ) ) );
+			String formattedValue = FORMATTER.format( value );
+			StoredField storedField = documentBuilder.reuseField( absoluteFieldPath, StoredField.class );
+			if ( storedField == null ) {
+				storedField = new StoredField( absoluteFieldPath, formattedValue );
+			}
+			else {
+				storedField.setStringValue( formattedValue );
+			}
+			documentBuilder.addField( storedField );
 		}
 
 		long valueToEpochDay = value.toEpochDay();
 
 		if ( Sortable.YES.equals( sortable ) ) {
-			documentBuilder.addField( new NumericDocValuesField( absoluteFieldPath, valueToEpochDay ) );
+			NumericDocValuesField docValuesField = documentBuilder.reuseField( absoluteFieldPath, NumericDocValuesField.class );
+			if ( docValuesField == null ) {
+				docValuesField = new NumericDocValuesField( absoluteFieldPath, valueToEpochDay );
+			}
+			else {
+				docValuesField.setLongValue( valueToEpochDay );
+			}
+			documentBuilder.addField( docValuesField );
 		}
 
-		documentBuilder.addField( new LongPoint( absoluteFieldPath, valueToEpochDay ) );
+		LongPoint point = documentBuilder.reuseField( absoluteFieldPath, LongPoint.class );
+		if ( point == null ) {
+			point = new LongPoint( absoluteFieldPath, valueToEpochDay );
+		}
+		else {
+			point.setLongValue( valueToEpochDay );
+		}
+		documentBuilder.addField( point );
 	}
 
 	@Override
@@ -83,6 +109,22 @@ public final class LocalDateFieldCodec implements LuceneFieldCodec<LocalDate> {
 		return LocalDate.parse( value, FORMATTER );
 	}
 
+	/*
+	 * Only sortable fields are supported: they hold a single value,
+	 * whereas multi-valued doc values would return the values in sorted order, not in the order they were stored.
+	 */
+	@Override
+	public boolean isDocValuesDecodingSupported() {
+		return Store.YES.equals( store ) && Sortable.YES.equals( sortable );
+	}
+
+	@Override
+	public LuceneDocValuesDecoder<LocalDate> createDocValuesDecoder(LeafReader reader, String absoluteFieldPath)
+			throws IOException {
+		NumericDocValues docValues = DocValues.getNumeric( reader, absoluteFieldPath );
+		return docId -> docValues.advanceExact( docId ) ? LocalDate.ofEpochDay( docValues.longValue() ) : null;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if ( this == obj ) {
@@ -0,0 +1,27 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.types.codec.impl;
+
+import java.io.IOException;
+
+/**
+ * Decodes the values of a field from the doc values of a given segment.
+ * <p>
+ * Doc values are read sequentially: documents must be decoded in increasing doc ID order.
+ */
+@FunctionalInterface
+public interface LuceneDocValuesDecoder<T> {
+
+	/**
+	 * @param docId The doc ID of a document, relative to the segment.
+	 * Must be greater than the doc ID passed to the previous call, if any.
+	 * @return The decoded value, or {@code null} if the document has no value for this field.
+	 * @throws IOException If the doc values cannot be read.
+	 */
+	T decode(int docId) throws IOException;
+
+}
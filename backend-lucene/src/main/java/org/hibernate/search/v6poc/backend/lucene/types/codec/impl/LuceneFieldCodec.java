@@ -6,10 +6,12 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.types.codec.impl;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Set;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.LeafReader;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneDocumentBuilder;
 import org.hibernate.search.v6poc.spatial.GeoPoint;
 
@@ -46,6 +48,29 @@ public interface LuceneFieldCodec<T> {
 	 */
 	T decode(Document document, String absoluteFieldPath);
 
+	/**
+	 * @return {@code true} if projections can extract values from doc values
+	 * with {@link #createDocValuesDecoder(LeafReader, String)} instead of loading stored fields.
+	 */
+	default boolean isDocValuesDecodingSupported() {
+		return false;
+	}
+
+	/**
+	 * Create a decoder extracting values from the doc values of a segment, typically used in projections.
+	 * <p>
+	 * Only called if {@link #isDocValuesDecodingSupported()} returns {@code true}.
+	 *
+	 * @param reader The reader of the segment.
+	 * @param absoluteFieldPath The absolute path of the field.
+	 * @return The decoder.
+	 * @throws IOException If the doc values cannot be opened.
+	 */
+	default LuceneDocValuesDecoder<T> createDocValuesDecoder(LeafReader reader, String absoluteFieldPath)
+			throws IOException {
+		throw new UnsupportedOperationException( "Doc values decoding is not supported by " + this );
+	}
+
 	// equals()/hashCode() needs to be implemented if the codec is not a singleton
 
 	boolean equals(Object obj);
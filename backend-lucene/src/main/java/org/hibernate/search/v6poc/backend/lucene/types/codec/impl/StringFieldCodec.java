@@ -6,6 +6,7 @@
  */
 package org.hibernate.search.v6poc.backend.lucene.types.codec.impl;
 
+import java.io.IOException;
 import java.util.Objects;
 
 import org.apache.lucene.analysis.Analyzer;
@@ -13,6 +14,9 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FieldType;
 import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.util.BytesRef;
 import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneDocumentBuilder;
@@ -24,12 +28,12 @@ public final class StringFieldCodec implements LuceneFieldCodec<String> {
 
 	private final FieldType fieldType;
 
-	private final Analyzer normalizer;
+	private final Analyzer analyzerOrNormalizer;
 
-	public StringFieldCodec(Sortable sortable, FieldType fieldType, Analyzer normalizer) {
+	public StringFieldCodec(Sortable sortable, FieldType fieldType, Analyzer analyzerOrNormalizer) {
 		this.sortable = sortable;
 		this.fieldType = fieldType;
-		this.normalizer = normalizer;
+		this.analyzerOrNormalizer = analyzerOrNormalizer;
 	}
 
 	@Override
@@ -38,13 +42,25 @@ public final class StringFieldCodec implements LuceneFieldCodec<String> {
 			return;
 		}
 
-		documentBuilder.addField( new Field( absoluteFieldPath, value, fieldType ) );
+		Field field = documentBuilder.reuseField( absoluteFieldPath, Field.class );
+		if ( field == null ) {
+			field = new Field( absoluteFieldPath, value, fieldType );
+		}
+		else {
+			field.setStringValue( value );
+		}
+		documentBuilder.addField( field );
 
 		if ( Sortable.YES.equals( sortable ) ) {
-			documentBuilder.addField( new SortedDocValuesField(
-					absoluteFieldPath,
-					new BytesRef( normalizer != null ? AnalyzerUtils.normalize( normalizer, absoluteFieldPath, value ) : value )
-			) );
+			BytesRef sortValue = new BytesRef( analyzerOrNormalizer != null ? AnalyzerUtils.normalize( analyzerOrNormalizer, absoluteFieldPath, value ) : value );
+			SortedDocValuesField docValuesField = documentBuilder.reuseField( absoluteFieldPath, SortedDocValuesField.class );
+			if ( docValuesField == null ) {
+				docValuesField = new SortedDocValuesField( absoluteFieldPath, sortValue );
+			}
+			else {
+				docValuesField.setBytesValue( sortValue );
+			}
+			documentBuilder.addField( docValuesField );
 		}
 	}
 
@@ -53,6 +69,23 @@ public final class StringFieldCodec implements LuceneFieldCodec<String> {
 		return document.get( absoluteFieldPath );
 	}
 
+	/*
+	 * Only sortable fields are supported: they hold a single value,
+	 * whereas multi-valued doc values would return the values in sorted order, not in the order they were stored.
+	 * Analyzed and normalized fields are not supported: their doc values only contain normalized values.
+	 */
+	@Override
+	public boolean isDocValuesDecodingSupported() {
+		return fieldType.stored() && Sortable.YES.equals( sortable ) && analyzerOrNormalizer == null;
+	}
+
+	@Override
+	public LuceneDocValuesDecoder<String> createDocValuesDecoder(LeafReader reader, String absoluteFieldPath)
+			throws IOException {
+		SortedDocValues docValues = DocValues.getSorted( reader, absoluteFieldPath );
+		return docId -> docValues.advanceExact( docId ) ? docValues.binaryValue().utf8ToString() : null;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if ( this == obj ) {
@@ -69,11 +102,11 @@ public final class StringFieldCodec implements LuceneFieldCodec<String> {
 
 		return Objects.equals( sortable, other.sortable ) &&
 				Objects.equals( fieldType, other.fieldType ) &&
-				Objects.equals( normalizer, other.normalizer );
+				Objects.equals( analyzerOrNormalizer, other.analyzerOrNormalizer );
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash( sortable, fieldType, normalizer );
+		return Objects.hash( sortable, fieldType, analyzerOrNormalizer );
 	}
 }
@@ -18,6 +18,8 @@ public class LuceneFields {
 
 	private static final String TENANT_ID_FIELD_NAME = internalFieldName( "tenantId" );
 
+	private static final String ENTRY_KEY_FIELD_NAME = internalFieldName( "entry_key" );
+
 	private static final String TYPE_FIELD_NAME = internalFieldName( "type" );
 
 	public static final String TYPE_MAIN_DOCUMENT = "main";
@@ -61,6 +63,27 @@ public class LuceneFields {
 		return TENANT_ID_FIELD_NAME;
 	}
 
+	public static String entryKeyFieldName() {
+		return ENTRY_KEY_FIELD_NAME;
+	}
+
+	/**
+	 * @param tenantId The tenant id.
+	 * @param id The document id.
+	 * @return A value identifying the entry uniquely across tenants.
+	 * The length of the tenant id is used as a prefix so that two different (tenantId, id) pairs
+	 * never result in the same value.
+	 */
+	public static String entryKey(String tenantId, String id) {
+		String tenantIdLength = String.valueOf( tenantId.length() );
+		StringBuilder sb = new StringBuilder( tenantIdLength.length() + tenantId.length() + id.length() + 1 );
+		sb.append( tenantIdLength );
+		sb.append( '_' );
+		sb.append( tenantId );
+		sb.append( id );
+		return sb.toString();
+	}
+
 	public static String typeFieldName() {
 		return TYPE_FIELD_NAME;
 	}
@@ -10,7 +10,7 @@ import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.util.concurrent.CompletableFuture;
 
-import org.apache.lucene.index.IndexWriter;
+import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
 import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
 import org.hibernate.search.v6poc.util.impl.common.Futures;
 import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
@@ -18,7 +18,7 @@ import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
 /**
  * @author Guillaume Smet
  */
-public abstract class AbstractDeleteEntryLuceneWork extends AbstractLuceneWork<Long> {
+public abstract class AbstractDeleteEntryLuceneWork extends AbstractLuceneWork<Long> implements LuceneIndexEntryWork<Long> {
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
@@ -32,22 +32,41 @@ public abstract class AbstractDeleteEntryLuceneWork extends AbstractLuceneWork<L
 		this.id = id;
 	}
 
+	@Override
+	public String getTenantId() {
+		return tenantId;
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public LuceneIndexEntry getIndexEntry() {
+		return null;
+	}
+
+	@Override
+	public boolean supersedesPreviousWorks() {
+		return true;
+	}
+
 	@Override
 	public CompletableFuture<Long> execute(LuceneIndexWorkExecutionContext context) {
-		// FIXME for now everything is blocking here, we need a non blocking wrapper on top of the IndexWriter
-		return Futures.create( () -> CompletableFuture.completedFuture( deleteDocuments( context.getIndexWriter() ) ) );
+		return Futures.create( () -> CompletableFuture.completedFuture( deleteDocuments( context ) ) );
 	}
 
-	private Long deleteDocuments(IndexWriter indexWriter) {
+	private Long deleteDocuments(LuceneIndexWorkExecutionContext context) {
 		try {
-			return doDeleteDocuments( indexWriter, tenantId, id );
+			return doDeleteDocuments( context, tenantId, id );
 		}
 		catch (IOException e) {
 			throw log.unableToDeleteEntryFromIndex( tenantId, id, getEventContext(), e );
 		}
 	}
 
-	protected abstract long doDeleteDocuments(IndexWriter indexWriter, String tenantId, String id) throws IOException;
+	protected abstract long doDeleteDocuments(LuceneIndexWorkExecutionContext context, String tenantId, String id) throws IOException;
 
 	@Override
 	public String toString() {
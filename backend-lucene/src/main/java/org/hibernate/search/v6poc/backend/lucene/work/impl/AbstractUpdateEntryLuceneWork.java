@@ -10,7 +10,6 @@ import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.util.concurrent.CompletableFuture;
 
-import org.apache.lucene.index.IndexWriter;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
 import org.hibernate.search.v6poc.backend.lucene.logging.impl.Log;
 import org.hibernate.search.v6poc.util.impl.common.Futures;
@@ -19,7 +18,7 @@ import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
 /**
  * @author Guillaume Smet
  */
-public abstract class AbstractUpdateEntryLuceneWork extends AbstractLuceneWork<Long> {
+public abstract class AbstractUpdateEntryLuceneWork extends AbstractLuceneWork<Long> implements LuceneIndexEntryWork<Long> {
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
@@ -36,22 +35,41 @@ public abstract class AbstractUpdateEntryLuceneWork extends AbstractLuceneWork<L
 		this.indexEntry = indexEntry;
 	}
 
+	@Override
+	public String getTenantId() {
+		return tenantId;
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public LuceneIndexEntry getIndexEntry() {
+		return indexEntry;
+	}
+
+	@Override
+	public boolean supersedesPreviousWorks() {
+		return true;
+	}
+
 	@Override
 	public CompletableFuture<Long> execute(LuceneIndexWorkExecutionContext context) {
-		// FIXME for now everything is blocking here, we need a non blocking wrapper on top of the IndexWriter
-		return Futures.create( () -> CompletableFuture.completedFuture( updateEntry( context.getIndexWriter() ) ) );
+		return Futures.create( () -> CompletableFuture.completedFuture( updateEntry( context ) ) );
 	}
 
-	private long updateEntry(IndexWriter indexWriter) {
+	private long updateEntry(LuceneIndexWorkExecutionContext context) {
 		try {
-			return doUpdateEntry( indexWriter, tenantId, id, indexEntry );
+			return doUpdateEntry( context, tenantId, id, indexEntry );
 		}
 		catch (IOException e) {
 			throw log.unableToIndexEntry( tenantId, id, getEventContext(), e );
 		}
 	}
 
-	protected abstract long doUpdateEntry(IndexWriter indexWriter, String tenantId, String id, LuceneIndexEntry indexEntry) throws IOException;
+	protected abstract long doUpdateEntry(LuceneIndexWorkExecutionContext context, String tenantId, String id, LuceneIndexEntry indexEntry) throws IOException;
 
 	@Override
 	public String toString() {
@@ -19,7 +19,7 @@ import org.hibernate.search.v6poc.util.impl.common.LoggerFactory;
 /**
  * @author Guillaume Smet
  */
-public class AddEntryLuceneWork extends AbstractLuceneWork<Long> {
+public class AddEntryLuceneWork extends AbstractLuceneWork<Long> implements LuceneIndexEntryWork<Long> {
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
@@ -36,9 +36,28 @@ public class AddEntryLuceneWork extends AbstractLuceneWork<Long> {
 		this.indexEntry = indexEntry;
 	}
 
+	@Override
+	public String getTenantId() {
+		return tenantId;
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public LuceneIndexEntry getIndexEntry() {
+		return indexEntry;
+	}
+
+	@Override
+	public boolean supersedesPreviousWorks() {
+		return false;
+	}
+
 	@Override
 	public CompletableFuture<Long> execute(LuceneIndexWorkExecutionContext context) {
-		// FIXME for now everything is blocking here, we need a non blocking wrapper on top of the IndexWriter
 		return Futures.create( () -> addEntry( context.getIndexWriter() ) );
 	}
 
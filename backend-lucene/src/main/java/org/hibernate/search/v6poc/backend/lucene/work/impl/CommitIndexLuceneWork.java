@@ -28,7 +28,6 @@ public class CommitIndexLuceneWork extends AbstractLuceneWork<Long> {
 
 	@Override
 	public CompletableFuture<Long> execute(LuceneIndexWorkExecutionContext context) {
-		// FIXME for now everything is blocking here, we need a non blocking wrapper on top of the IndexWriter
 		return Futures.create( () -> commitIndex( context.getIndexWriter() ) );
 	}
 
@@ -0,0 +1,34 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.work.impl;
+
+import java.io.IOException;
+
+import org.apache.lucene.index.Term;
+import org.hibernate.search.v6poc.backend.lucene.util.impl.LuceneFields;
+
+/**
+ * A delete work relying on the entry key term, which combines the tenant id and the document id.
+ * <p>
+ * Falls back to a query-based delete when some entries in the index do not have an entry key term.
+ */
+public class EntryKeyBasedDeleteEntryLuceneWork extends QueryBasedDeleteEntryLuceneWork {
+
+	public EntryKeyBasedDeleteEntryLuceneWork(String indexName, String tenantId, String id) {
+		super( indexName, tenantId, id );
+	}
+
+	@Override
+	protected long doDeleteDocuments(LuceneIndexWorkExecutionContext context, String tenantId, String id) throws IOException {
+		if ( !context.isEntryKeyIndexed() ) {
+			return super.doDeleteDocuments( context, tenantId, id );
+		}
+		return context.getIndexWriter().deleteDocuments(
+				new Term( LuceneFields.entryKeyFieldName(), LuceneFields.entryKey( tenantId, id ) )
+		);
+	}
+}
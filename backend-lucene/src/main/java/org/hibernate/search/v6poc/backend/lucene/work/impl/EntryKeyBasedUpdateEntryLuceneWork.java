@@ -0,0 +1,36 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.work.impl;
+
+import java.io.IOException;
+
+import org.apache.lucene.index.Term;
+import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
+import org.hibernate.search.v6poc.backend.lucene.util.impl.LuceneFields;
+
+/**
+ * An update work relying on the entry key term, which combines the tenant id and the document id,
+ * so that the entry is replaced atomically with a single term instead of a delete query.
+ * <p>
+ * Falls back to a query-based update when some entries in the index do not have an entry key term.
+ */
+public class EntryKeyBasedUpdateEntryLuceneWork extends QueryBasedUpdateEntryLuceneWork {
+
+	public EntryKeyBasedUpdateEntryLuceneWork(String indexName, String tenantId, String id, LuceneIndexEntry indexEntry) {
+		super( indexName, tenantId, id, indexEntry );
+	}
+
+	@Override
+	protected long doUpdateEntry(LuceneIndexWorkExecutionContext context, String tenantId, String id, LuceneIndexEntry indexEntry) throws IOException {
+		if ( !context.isEntryKeyIndexed() ) {
+			return super.doUpdateEntry( context, tenantId, id, indexEntry );
+		}
+		return context.getIndexWriter().updateDocuments(
+				new Term( LuceneFields.entryKeyFieldName(), LuceneFields.entryKey( tenantId, id ) ), indexEntry
+		);
+	}
+}
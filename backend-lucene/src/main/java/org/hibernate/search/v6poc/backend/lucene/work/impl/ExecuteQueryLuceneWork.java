@@ -31,7 +31,6 @@ public class ExecuteQueryLuceneWork<T> implements LuceneQueryWork<SearchResult<T
 
 	@Override
 	public CompletableFuture<SearchResult<T>> execute(LuceneQueryWorkExecutionContext context) {
-		// FIXME for now everything is blocking here, we need a non blocking wrapper on top of the IndexWriter
 		return Futures.create( () -> CompletableFuture.completedFuture( executeQuery( searcher ) ) );
 	}
 
@@ -0,0 +1,34 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.backend.lucene.work.impl;
+
+import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
+
+/**
+ * A work affecting a single entry of the index, i.e. a single root document and its nested documents.
+ * <p>
+ * Works affecting different entries are independent from each other.
+ * Works that are not entry works (commit, flush, ...) affect the index as a whole.
+ */
+public interface LuceneIndexEntryWork<T> extends LuceneIndexWork<T> {
+
+	String getTenantId();
+
+	String getId();
+
+	/**
+	 * @return The entry to add to the index, or {@code null} if this work only removes the entry.
+	 */
+	LuceneIndexEntry getIndexEntry();
+
+	/**
+	 * @return {@code true} if this work removes any existing document for the entry before (optionally) adding a new one,
+	 * making the outcome of previous works on the same entry irrelevant; {@code false} otherwise.
+	 */
+	boolean supersedesPreviousWorks();
+
+}
@@ -9,6 +9,11 @@ package org.hibernate.search.v6poc.backend.lucene.work.impl;
 import java.util.concurrent.CompletableFuture;
 
 /**
+ * A work on an index.
+ * <p>
+ * Works are executed by an orchestrator, in threads owned by the backend:
+ * they may block on index I/O without blocking the thread that submitted them.
+ *
  * @author Guillaume Smet
  */
 public interface LuceneIndexWork<T> {
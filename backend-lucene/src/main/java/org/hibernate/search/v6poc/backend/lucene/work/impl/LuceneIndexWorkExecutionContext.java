@@ -14,4 +14,11 @@ import org.apache.lucene.index.IndexWriter;
 public interface LuceneIndexWorkExecutionContext {
 
 	IndexWriter getIndexWriter();
+
+	/**
+	 * @return {@code true} if every entry in the index has an entry key term,
+	 * meaning multi-tenant entries can be updated and deleted using a single term.
+	 * {@code false} if some entries were indexed before entry keys were introduced.
+	 */
+	boolean isEntryKeyIndexed();
 }
@@ -25,7 +25,7 @@ public interface LuceneWorkFactory {
 
 	LuceneIndexWork<?> flush(String indexName);
 
-	LuceneIndexWork<?> optimize(String indexName);
+	LuceneIndexWork<?> optimize(String indexName, int maxSegments);
 
 	<T> ExecuteQueryLuceneWork<T> search(LuceneSearcher<T> luceneSearcher);
 }
@@ -22,19 +22,21 @@ public class OptimizeIndexLuceneWork extends AbstractLuceneWork<Long> {
 
 	private static final Log log = LoggerFactory.make( Log.class, MethodHandles.lookup() );
 
-	public OptimizeIndexLuceneWork(String indexName) {
+	private final int maxSegments;
+
+	public OptimizeIndexLuceneWork(String indexName, int maxSegments) {
 		super( "optimizeIndex", indexName );
+		this.maxSegments = maxSegments;
 	}
 
 	@Override
 	public CompletableFuture<Long> execute(LuceneIndexWorkExecutionContext context) {
-		// FIXME for now everything is blocking here, we need a non blocking wrapper on top of the IndexWriter
 		return Futures.create( () -> commitIndex( context.getIndexWriter() ) );
 	}
 
 	private CompletableFuture<Long> commitIndex(IndexWriter indexWriter) {
 		try {
-			indexWriter.forceMerge( 1 );
+			indexWriter.forceMerge( maxSegments );
 			return CompletableFuture.completedFuture( indexWriter.commit() );
 		}
 		catch (IOException e) {
@@ -48,6 +50,7 @@ public class OptimizeIndexLuceneWork extends AbstractLuceneWork<Long> {
 				.append( "[" )
 				.append( "type=" ).append( workType )
 				.append( ", indexName=" ).append( indexName )
+				.append( ", maxSegments=" ).append( maxSegments )
 				.append( "]" );
 		return sb.toString();
 	}
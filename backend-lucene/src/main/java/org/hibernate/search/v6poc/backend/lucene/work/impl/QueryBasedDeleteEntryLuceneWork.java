@@ -8,7 +8,6 @@ package org.hibernate.search.v6poc.backend.lucene.work.impl;
 
 import java.io.IOException;
 
-import org.apache.lucene.index.IndexWriter;
 import org.hibernate.search.v6poc.backend.lucene.search.impl.LuceneQueries;
 
 /**
@@ -21,7 +20,7 @@ public class QueryBasedDeleteEntryLuceneWork extends AbstractDeleteEntryLuceneWo
 	}
 
 	@Override
-	protected long doDeleteDocuments(IndexWriter indexWriter, String tenantId, String id) throws IOException {
-		return indexWriter.deleteDocuments( LuceneQueries.discriminatorMultiTenancyDeleteDocumentQuery( tenantId, id ) );
+	protected long doDeleteDocuments(LuceneIndexWorkExecutionContext context, String tenantId, String id) throws IOException {
+		return context.getIndexWriter().deleteDocuments( LuceneQueries.discriminatorMultiTenancyDeleteDocumentQuery( tenantId, id ) );
 	}
 }
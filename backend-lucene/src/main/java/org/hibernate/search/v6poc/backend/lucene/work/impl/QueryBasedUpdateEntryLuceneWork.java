@@ -8,7 +8,6 @@ package org.hibernate.search.v6poc.backend.lucene.work.impl;
 
 import java.io.IOException;
 
-import org.apache.lucene.index.IndexWriter;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
 import org.hibernate.search.v6poc.backend.lucene.search.impl.LuceneQueries;
 
@@ -22,8 +21,8 @@ public class QueryBasedUpdateEntryLuceneWork extends AbstractUpdateEntryLuceneWo
 	}
 
 	@Override
-	protected long doUpdateEntry(IndexWriter indexWriter, String tenantId, String id, LuceneIndexEntry indexEntry) throws IOException {
-		indexWriter.deleteDocuments( LuceneQueries.discriminatorMultiTenancyDeleteDocumentQuery( tenantId, id ) );
-		return indexWriter.addDocuments( indexEntry );
+	protected long doUpdateEntry(LuceneIndexWorkExecutionContext context, String tenantId, String id, LuceneIndexEntry indexEntry) throws IOException {
+		context.getIndexWriter().deleteDocuments( LuceneQueries.discriminatorMultiTenancyDeleteDocumentQuery( tenantId, id ) );
+		return context.getIndexWriter().addDocuments( indexEntry );
 	}
 }
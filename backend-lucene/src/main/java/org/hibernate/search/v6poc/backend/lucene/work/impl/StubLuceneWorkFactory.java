@@ -49,8 +49,8 @@ public class StubLuceneWorkFactory implements LuceneWorkFactory {
 	}
 
 	@Override
-	public LuceneIndexWork<?> optimize(String indexName) {
-		return new OptimizeIndexLuceneWork( indexName );
+	public LuceneIndexWork<?> optimize(String indexName, int maxSegments) {
+		return new OptimizeIndexLuceneWork( indexName, maxSegments );
 	}
 
 	@Override
@@ -8,7 +8,6 @@ package org.hibernate.search.v6poc.backend.lucene.work.impl;
 
 import java.io.IOException;
 
-import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.Term;
 import org.hibernate.search.v6poc.backend.lucene.util.impl.LuceneFields;
 
@@ -22,7 +21,7 @@ public class TermBasedDeleteEntryLuceneWork extends AbstractDeleteEntryLuceneWor
 	}
 
 	@Override
-	protected long doDeleteDocuments(IndexWriter indexWriter, String tenantId, String id) throws IOException {
-		return indexWriter.deleteDocuments( new Term( LuceneFields.idFieldName(), id ) );
+	protected long doDeleteDocuments(LuceneIndexWorkExecutionContext context, String tenantId, String id) throws IOException {
+		return context.getIndexWriter().deleteDocuments( new Term( LuceneFields.idFieldName(), id ) );
 	}
 }
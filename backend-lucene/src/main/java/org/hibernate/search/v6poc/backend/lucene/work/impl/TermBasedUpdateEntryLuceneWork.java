@@ -8,7 +8,6 @@ package org.hibernate.search.v6poc.backend.lucene.work.impl;
 
 import java.io.IOException;
 
-import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.Term;
 import org.hibernate.search.v6poc.backend.lucene.document.impl.LuceneIndexEntry;
 import org.hibernate.search.v6poc.backend.lucene.util.impl.LuceneFields;
@@ -23,7 +22,7 @@ public class TermBasedUpdateEntryLuceneWork extends AbstractUpdateEntryLuceneWor
 	}
 
 	@Override
-	protected long doUpdateEntry(IndexWriter indexWriter, String tenantId, String id, LuceneIndexEntry indexEntry) throws IOException {
-		return indexWriter.updateDocuments( new Term( LuceneFields.idFieldName(), id ), indexEntry );
+	protected long doUpdateEntry(LuceneIndexWorkExecutionContext context, String tenantId, String id, LuceneIndexEntry indexEntry) throws IOException {
+		return context.getIndexWriter().updateDocuments( new Term( LuceneFields.idFieldName(), id ), indexEntry );
 	}
 }
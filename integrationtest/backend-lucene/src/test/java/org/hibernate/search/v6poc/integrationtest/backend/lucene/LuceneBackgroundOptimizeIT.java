@@ -0,0 +1,199 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.index.spi.StreamIndexWorker;
+import org.hibernate.search.v6poc.backend.lucene.LuceneBackend;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.SearchMappingRepository;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.hibernate.search.v6poc.util.impl.test.SubTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+public class LuceneBackgroundOptimizeIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final String DOCUMENT_1 = "1";
+	private static final String DOCUMENT_2 = "2";
+	private static final String DOCUMENT_3 = "3";
+
+	private final TemporaryFolder rootFolder = new TemporaryFolder();
+
+	private final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	// The index is stored in the temporary folder, so it must be closed before the folder is deleted
+	@Rule
+	public RuleChain ruleChain = RuleChain.outerRule( rootFolder ).around( setupHelper );
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SearchMappingRepository mappingRepository;
+	private LuceneBackend backend;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		this.mappingRepository = setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty(
+						"backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.LUCENE_ROOT_DIRECTORY,
+						rootFolder.getRoot().getAbsolutePath()
+				)
+				.withProperty(
+						"index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_OPTIMIZE_BACKGROUND_ENABLED,
+						"true"
+				)
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+		this.backend = mappingRepository.getBackend( BACKEND_NAME ).unwrap( LuceneBackend.class );
+
+		initData();
+	}
+
+	@Test
+	public void optimize() {
+		StreamIndexWorker<? extends DocumentElement> worker = indexManager.createStreamWorker( sessionContext );
+		worker.optimize();
+		// Optimizing must not prevent other works from being executed
+		ChangesetIndexWorker<? extends DocumentElement> changesetWorker = indexManager.createWorker( sessionContext );
+		changesetWorker.delete( referenceProvider( DOCUMENT_3 ) );
+		changesetWorker.execute().join();
+
+		assertThat( matchAllQuery() ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2 );
+	}
+
+	@Test
+	public void optimize_mergesCommittedSegments() throws IOException, InterruptedException {
+		assertThat( getCommittedSegmentCount() ).isGreaterThan( 1 );
+
+		StreamIndexWorker<? extends DocumentElement> worker = indexManager.createStreamWorker( sessionContext );
+		worker.optimize();
+
+		// The optimization runs in the background: wait for the merged segment to be committed
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 10 );
+		while ( getCommittedSegmentCount() > 1 && System.nanoTime() < deadline ) {
+			Thread.sleep( 50 );
+		}
+		assertThat( getCommittedSegmentCount() ).isEqualTo( 1 );
+		assertThat( matchAllQuery() ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2, DOCUMENT_3 );
+	}
+
+	@Test
+	public void cancelOptimize() {
+		StreamIndexWorker<? extends DocumentElement> worker = indexManager.createStreamWorker( sessionContext );
+		worker.optimize();
+		backend.cancelOptimize( INDEX_NAME );
+		// Cancelling when no optimization is in progress is fine
+		backend.cancelOptimize( INDEX_NAME );
+
+		assertThat( matchAllQuery() ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2, DOCUMENT_3 );
+	}
+
+	@Test
+	public void optimizeAfterCancel() {
+		StreamIndexWorker<? extends DocumentElement> worker = indexManager.createStreamWorker( sessionContext );
+		worker.optimize();
+		backend.cancelOptimize( INDEX_NAME );
+		// Requesting another optimization while the cancelled one is still running must not un-cancel it
+		worker.optimize();
+
+		assertThat( matchAllQuery() ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2, DOCUMENT_3 );
+	}
+
+	@Test
+	public void closed() {
+		StreamIndexWorker<? extends DocumentElement> worker = indexManager.createStreamWorker( sessionContext );
+
+		mappingRepository.close();
+
+		// Must fail instead of queuing an optimization that will never be executed
+		SubTest.expectException(
+				"Optimize after the index was closed",
+				worker::optimize
+		)
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "Unable to submit works: the index is closed" );
+	}
+
+	@Test
+	public void cancelOptimize_unknownIndex() {
+		SubTest.expectException(
+				"Cancel optimize on an unknown index",
+				() -> backend.cancelOptimize( "unknownIndex" )
+		)
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "Unknown index" )
+				.hasMessageContaining( "unknownIndex" );
+	}
+
+	private int getCommittedSegmentCount() throws IOException {
+		try ( Directory directory = FSDirectory.open( rootFolder.getRoot().toPath().resolve( INDEX_NAME ) ) ) {
+			return SegmentInfos.readLatestCommit( directory ).size();
+		}
+	}
+
+	private SearchQuery<DocumentReference> matchAllQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private void initData() {
+		// One changeset per document, so that the index contains several segments
+		for ( String id : new String[] { DOCUMENT_1, DOCUMENT_2, DOCUMENT_3 } ) {
+			ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+			worker.add( referenceProvider( id ), document -> {
+				indexAccessors.string.write( document, "text " + id );
+			} );
+			worker.execute().join();
+		}
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.SearchMappingRepository;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.hibernate.search.v6poc.util.impl.test.SubTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneBatchingIndexingIT {
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final int THREAD_COUNT = 4;
+
+	private static final int CHANGESETS_PER_THREAD = 50;
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private SearchMappingRepository mappingRepository;
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		// A small queue and small batches, so that submitting blocks and changesets span several batches
+		this.mappingRepository = setupHelper.withDefaultConfiguration()
+				.withProperty( "index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_QUEUE_SIZE, "5" )
+				.withProperty( "index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_MAX_BATCH_SIZE, "3" )
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+	}
+
+	@Test
+	public void concurrentChangesets() throws Exception {
+		ExecutorService clientExecutor = Executors.newFixedThreadPool( THREAD_COUNT );
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for ( int i = 0; i < THREAD_COUNT; i++ ) {
+				int threadIndex = i;
+				futures.add( clientExecutor.submit( () -> {
+					for ( int j = 0; j < CHANGESETS_PER_THREAD; j++ ) {
+						String id = threadIndex + "_" + j;
+						ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+						worker.add( referenceProvider( id ), document -> {
+							indexAccessors.string.write( document, "text" );
+						} );
+						worker.execute().join();
+					}
+				} ) );
+			}
+			for ( Future<?> future : futures ) {
+				future.get( 30, TimeUnit.SECONDS );
+			}
+		}
+		finally {
+			clientExecutor.shutdownNow();
+		}
+
+		assertThat( matchQuery( "text" ) ).hasHitCount( THREAD_COUNT * CHANGESETS_PER_THREAD );
+	}
+
+	@Test
+	public void submissionOrder() {
+		// Changesets are not awaited: they end up in the queue, then in the same batches
+		List<CompletableFuture<?>> futures = new ArrayList<>();
+		for ( int i = 0; i < 20; i++ ) {
+			String value = "value " + i;
+			ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+			worker.update( referenceProvider( "1" ), document -> {
+				indexAccessors.string.write( document, value );
+			} );
+			futures.add( worker.execute() );
+			if ( i % 2 == 0 ) {
+				worker = indexManager.createWorker( sessionContext );
+				worker.delete( referenceProvider( "1" ) );
+				futures.add( worker.execute() );
+			}
+		}
+		CompletableFuture.allOf( futures.toArray( new CompletableFuture<?>[futures.size()] ) ).join();
+
+		assertThat( matchQuery( "value 19" ) ).hasReferencesHitsAnyOrder( INDEX_NAME, "1" );
+		assertThat( matchAllQuery() ).hasHitCount( 1 );
+	}
+
+	@Test
+	public void closed() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( "1" ), document -> {
+			indexAccessors.string.write( document, "text" );
+		} );
+
+		mappingRepository.close();
+
+		// Must fail instead of queuing a changeset that will never be executed
+		SubTest.expectException(
+				"Changeset executed after the index was closed",
+				() -> worker.execute()
+		)
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "Unable to submit works: the index is closed" );
+	}
+
+	private SearchQuery<DocumentReference> matchQuery(String value) {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().match().onField( "string" ).matching( value ).end()
+				.build();
+	}
+
+	private SearchQuery<DocumentReference> matchAllQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.io.IOException;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.index.spi.StreamIndexWorker;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+public class LuceneBulkIndexingIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final int ENTRY_COUNT = 20;
+
+	private static final int ITERATION_COUNT = 100;
+
+	private final TemporaryFolder rootFolder = new TemporaryFolder();
+
+	private final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	// The index is stored in the temporary folder, so it must be closed before the folder is deleted
+	@Rule
+	public RuleChain ruleChain = RuleChain.outerRule( rootFolder ).around( setupHelper );
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty(
+						"backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.LUCENE_ROOT_DIRECTORY,
+						rootFolder.getRoot().getAbsolutePath()
+				)
+				.withProperty(
+						"index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_STREAM_BULK_ENABLED,
+						"true"
+				)
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+	}
+
+	@Test
+	public void addThenDelete() {
+		StreamIndexWorker<? extends DocumentElement> worker = indexManager.createStreamWorker( sessionContext );
+		for ( int i = 0; i < ITERATION_COUNT; i++ ) {
+			for ( int j = 0; j < ENTRY_COUNT; j++ ) {
+				String id = String.valueOf( j );
+				worker.add( referenceProvider( id ), document -> {
+					indexAccessors.string.write( document, "text " + id );
+				} );
+				worker.delete( referenceProvider( id ) );
+			}
+		}
+		// In bulk mode, the flush is only executed once all the works submitted before it have been executed
+		worker.flush();
+
+		assertThat( matchAllQuery() ).hasHitCount( 0 );
+	}
+
+	@Test
+	public void successiveUpdates() {
+		StreamIndexWorker<? extends DocumentElement> worker = indexManager.createStreamWorker( sessionContext );
+		for ( int j = 0; j < ENTRY_COUNT; j++ ) {
+			String id = String.valueOf( j );
+			worker.add( referenceProvider( id ), document -> {
+				indexAccessors.string.write( document, "initial" );
+			} );
+		}
+		for ( int i = 0; i < ITERATION_COUNT; i++ ) {
+			String value = "update " + i;
+			for ( int j = 0; j < ENTRY_COUNT; j++ ) {
+				worker.update( referenceProvider( String.valueOf( j ) ), document -> {
+					indexAccessors.string.write( document, value );
+				} );
+			}
+		}
+		worker.flush();
+
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		SearchQuery<DocumentReference> query = searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().match().onField( "string" ).matching( "update " + ( ITERATION_COUNT - 1 ) ).end()
+				.build();
+		assertThat( query ).hasHitCount( ENTRY_COUNT );
+		assertThat( matchAllQuery() ).hasHitCount( ENTRY_COUNT );
+	}
+
+	@Test
+	public void flushCommits() throws IOException {
+		StreamIndexWorker<? extends DocumentElement> worker = indexManager.createStreamWorker( sessionContext );
+		for ( int j = 0; j < ENTRY_COUNT; j++ ) {
+			String id = String.valueOf( j );
+			worker.add( referenceProvider( id ), document -> {
+				indexAccessors.string.write( document, "text " + id );
+			} );
+		}
+		worker.flush();
+
+		// The work ending the load must make the loaded entries durable
+		assertThat( getCommittedDocumentCount() ).isEqualTo( ENTRY_COUNT );
+	}
+
+	private int getCommittedDocumentCount() throws IOException {
+		// Readers opened on the directory only see committed documents
+		try ( Directory directory = FSDirectory.open( rootFolder.getRoot().toPath().resolve( INDEX_NAME ) );
+				DirectoryReader reader = DirectoryReader.open( directory ) ) {
+			return reader.numDocs();
+		}
+	}
+
+	private SearchQuery<DocumentReference> matchAllQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+/**
+ * Checks that changesets are only acknowledged once committed, even when commits cover several changesets.
+ */
+public class LuceneCommitCoalescingIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final int CHANGESET_COUNT = 5;
+
+	private final TemporaryFolder rootFolder = new TemporaryFolder();
+
+	private final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	// The index is stored in the temporary folder, so it must be closed before the folder is deleted
+	@Rule
+	public RuleChain ruleChain = RuleChain.outerRule( rootFolder ).around( setupHelper );
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Test
+	public void commitInterval() throws IOException {
+		setup( "200", String.valueOf( SearchBackendLuceneSettings.Defaults.INDEXING_COMMIT_MAX_PENDING_WORKS ) );
+
+		for ( int i = 0; i < CHANGESET_COUNT; i++ ) {
+			add( String.valueOf( i ) ).join();
+			// Every acknowledged changeset must be durable
+			assertThat( getCommittedDocumentCount() ).isEqualTo( i + 1 );
+		}
+	}
+
+	@Test
+	public void commitMaxPendingWorks() throws IOException {
+		// The commit interval is never reached: only the number of pending works triggers commits
+		setup( String.valueOf( 3_600_000L ), "3" );
+
+		List<CompletableFuture<?>> futures = new ArrayList<>();
+		for ( int i = 0; i < 3; i++ ) {
+			futures.add( add( String.valueOf( i ) ) );
+		}
+		CompletableFuture.allOf( futures.toArray( new CompletableFuture<?>[futures.size()] ) ).join();
+
+		assertThat( getCommittedDocumentCount() ).isEqualTo( 3 );
+	}
+
+	private void setup(String commitInterval, String commitMaxPendingWorks) {
+		setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty(
+						"backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.LUCENE_ROOT_DIRECTORY,
+						rootFolder.getRoot().getAbsolutePath()
+				)
+				.withProperty( "index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_COMMIT_INTERVAL, commitInterval )
+				.withProperty(
+						"index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_COMMIT_MAX_PENDING_WORKS,
+						commitMaxPendingWorks
+				)
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+	}
+
+	private CompletableFuture<?> add(String id) {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( id ), document -> {
+			indexAccessors.string.write( document, "text " + id );
+		} );
+		return worker.execute();
+	}
+
+	private int getCommittedDocumentCount() throws IOException {
+		// Readers opened on the directory only see committed documents
+		try ( Directory directory = FSDirectory.open( rootFolder.getRoot().toPath().resolve( INDEX_NAME ) );
+				DirectoryReader reader = DirectoryReader.open( directory ) ) {
+			return reader.numDocs();
+		}
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+		}
+	}
+}
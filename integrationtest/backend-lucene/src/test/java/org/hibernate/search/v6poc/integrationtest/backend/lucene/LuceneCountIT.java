@@ -0,0 +1,149 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneSearchQuery;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchResult;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.hibernate.search.v6poc.util.impl.test.SubTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneCountIT {
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final int DOCUMENT_COUNT = 50;
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		setupHelper.withDefaultConfiguration()
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+
+		initData();
+	}
+
+	@Test
+	public void matchAll() {
+		assertThat( createMatchAllQuery().executeCount() ).isEqualTo( DOCUMENT_COUNT );
+
+		// Deleted documents are not counted
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.delete( referenceProvider( "0" ) );
+		worker.execute().join();
+
+		assertThat( createMatchAllQuery().executeCount() ).isEqualTo( DOCUMENT_COUNT - 1 );
+	}
+
+	@Test
+	public void predicate() {
+		assertThat( createRangeQuery().executeCount() ).isEqualTo( 30 );
+	}
+
+	@Test
+	public void firstAndMaxResultsIgnored() {
+		LuceneSearchQuery<DocumentReference> query = createRangeQuery();
+		query.setFirstResult( 10L );
+		query.setMaxResults( 5L );
+		assertThat( query.executeCount() ).isEqualTo( 30 );
+	}
+
+	@Test
+	public void zeroMaxResults() {
+		LuceneSearchQuery<DocumentReference> query = createRangeQuery();
+		query.setMaxResults( 0L );
+		SearchResult<DocumentReference> result = query.execute();
+		assertThat( result.getHitCount() ).isEqualTo( 30 );
+		assertThat( result.getHits() ).isEmpty();
+	}
+
+	@Test
+	public void threshold() {
+		LuceneSearchQuery<DocumentReference> query = createRangeQuery();
+		query.setTotalHitCountThreshold( 10L );
+		assertThat( query.executeCount() ).isGreaterThanOrEqualTo( 10 ).isLessThan( 30 );
+
+		query.setMaxResults( 0L );
+		assertThat( query.execute().getHitCount() ).isGreaterThanOrEqualTo( 10 ).isLessThan( 30 );
+
+		// Queries returning hits always count all hits
+		query.setMaxResults( 5L );
+		assertThat( query.execute().getHitCount() ).isEqualTo( 30 );
+
+		// Thresholds above the number of hits do not change the count
+		query.setTotalHitCountThreshold( 1000L );
+		assertThat( query.executeCount() ).isEqualTo( 30 );
+	}
+
+	@Test
+	public void invalidThreshold() {
+		SubTest.expectException( () -> createRangeQuery().setTotalHitCountThreshold( 0L ) )
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "Invalid total hit count threshold" );
+	}
+
+	private LuceneSearchQuery<DocumentReference> createMatchAllQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return (LuceneSearchQuery<DocumentReference>) searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private LuceneSearchQuery<DocumentReference> createRangeQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return (LuceneSearchQuery<DocumentReference>) searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().range().onField( "integer" ).from( 10 ).to( 39 ).end()
+				.build();
+	}
+
+	private void initData() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		for ( int i = 0; i < DOCUMENT_COUNT; i++ ) {
+			int value = i;
+			worker.add( referenceProvider( String.valueOf( value ) ),
+					document -> indexAccessors.integer.write( document, value ) );
+		}
+		worker.execute().join();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<Integer> integer;
+
+		IndexAccessors(IndexSchemaElement root) {
+			integer = root.field( "integer" ).asInteger().createAccessor();
+		}
+	}
+}
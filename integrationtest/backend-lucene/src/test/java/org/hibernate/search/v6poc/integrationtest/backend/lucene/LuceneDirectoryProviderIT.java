@@ -0,0 +1,178 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.hibernate.search.v6poc.util.impl.test.SubTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+public class LuceneDirectoryProviderIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final String DOCUMENT_1 = "1";
+	private static final String DOCUMENT_2 = "2";
+
+	private final TemporaryFolder rootFolder = new TemporaryFolder();
+
+	private final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	// The index may be stored in the temporary folder, so it must be closed before the folder is deleted
+	@Rule
+	public RuleChain ruleChain = RuleChain.outerRule( rootFolder ).around( setupHelper );
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Test
+	public void localHeap() {
+		setup( configuration( "local_heap" ) );
+
+		checkIndexingAndSearching();
+		// Nothing must be written to the filesystem
+		assertThat( rootFolder.getRoot().toPath().resolve( INDEX_NAME ) ).doesNotExist();
+	}
+
+	@Test
+	public void localDirectory_mmap() {
+		setup( configuration( "local_directory" )
+				.withProperty( backendProperty( SearchBackendLuceneSettings.LUCENE_FILESYSTEM_ACCESS_STRATEGY ), "mmap" )
+				.withProperty( backendProperty( SearchBackendLuceneSettings.LUCENE_MMAP_PRELOAD ), "true" ) );
+
+		checkIndexingAndSearching();
+		assertThat( rootFolder.getRoot().toPath().resolve( INDEX_NAME ) ).isDirectory();
+	}
+
+	@Test
+	public void localDirectory_nio() {
+		setup( configuration( "local_directory" )
+				.withProperty( backendProperty( SearchBackendLuceneSettings.LUCENE_FILESYSTEM_ACCESS_STRATEGY ), "nio" ) );
+
+		checkIndexingAndSearching();
+		assertThat( rootFolder.getRoot().toPath().resolve( INDEX_NAME ) ).isDirectory();
+	}
+
+	@Test
+	public void localDirectory_auto() {
+		setup( configuration( "local_directory" )
+				.withProperty( backendProperty( SearchBackendLuceneSettings.LUCENE_FILESYSTEM_ACCESS_STRATEGY ), "auto" ) );
+
+		checkIndexingAndSearching();
+		assertThat( rootFolder.getRoot().toPath().resolve( INDEX_NAME ) ).isDirectory();
+	}
+
+	@Test
+	public void localDirectory_nrtCaching() {
+		setup( configuration( "local_directory" )
+				.withProperty( backendProperty( SearchBackendLuceneSettings.LUCENE_NRT_CACHING_ENABLED ), "true" ) );
+
+		checkIndexingAndSearching();
+		assertThat( rootFolder.getRoot().toPath().resolve( INDEX_NAME ) ).isDirectory();
+	}
+
+	@Test
+	public void localDirectory_invalidFileSystemAccessStrategy() {
+		SubTest.expectException(
+				"Unknown filesystem access strategy",
+				() -> setup( configuration( "local_directory" )
+						.withProperty( backendProperty( SearchBackendLuceneSettings.LUCENE_FILESYSTEM_ACCESS_STRATEGY ), "invalid" ) )
+		)
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( SearchBackendLuceneSettings.LUCENE_FILESYSTEM_ACCESS_STRATEGY )
+				.hasMessageContaining( "'invalid'" );
+	}
+
+	@Test
+	public void invalidDirectoryProvider() {
+		SubTest.expectException(
+				"Unrecognized directory provider",
+				() -> setup( configuration( "invalid" ) )
+		)
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "Unrecognized Lucene directory provider 'invalid'" );
+	}
+
+	private SearchSetupHelper.SetupContext configuration(String directoryProvider) {
+		return setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty( backendProperty( SearchBackendLuceneSettings.LUCENE_DIRECTORY_PROVIDER ), directoryProvider )
+				.withProperty(
+						backendProperty( SearchBackendLuceneSettings.LUCENE_ROOT_DIRECTORY ),
+						rootFolder.getRoot().getAbsolutePath()
+				);
+	}
+
+	private void setup(SearchSetupHelper.SetupContext setupContext) {
+		setupContext.withIndex(
+				"MappedType", INDEX_NAME,
+				ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+				indexManager -> this.indexManager = indexManager
+		)
+				.setup();
+	}
+
+	private void checkIndexingAndSearching() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( DOCUMENT_1 ), document -> {
+			indexAccessors.string.write( document, "text 1" );
+		} );
+		worker.add( referenceProvider( DOCUMENT_2 ), document -> {
+			indexAccessors.string.write( document, "text 2" );
+		} );
+		worker.execute().join();
+
+		assertThat( matchAllQuery() ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2 );
+
+		worker = indexManager.createWorker( sessionContext );
+		worker.delete( referenceProvider( DOCUMENT_1 ) );
+		worker.execute().join();
+
+		assertThat( matchAllQuery() ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_2 );
+	}
+
+	private SearchQuery<DocumentReference> matchAllQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private static String backendProperty(String key) {
+		return "backend." + BACKEND_NAME + "." + key;
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Store;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.ProjectionsSearchResultAssert;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneDocValuesIT {
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final String DOCUMENT_1 = "1";
+	private static final String DOCUMENT_2 = "2";
+	private static final String EMPTY = "empty";
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		setupHelper.withDefaultConfiguration()
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+
+		initData();
+	}
+
+	@Test
+	public void projections() {
+		SearchQuery<List<?>> query = createProjectionQuery(
+				"string", "sortableString", "integer", "sortableInteger", "localDate", "sortableLocalDate"
+		);
+		ProjectionsSearchResultAssert.assertThat( query ).hasProjectionsHitsAnyOrder( b -> {
+			b.projection( "text 1", "sortable 1", 1, 11, LocalDate.of( 2018, 1, 1 ), LocalDate.of( 2018, 1, 11 ) );
+			b.projection( "text 2", "sortable 2", 2, 12, LocalDate.of( 2018, 1, 2 ), LocalDate.of( 2018, 1, 12 ) );
+			b.projection( null, null, null, null, null, null );
+		} );
+	}
+
+	@Test
+	public void projections_hitOrderDiffersFromDocIdOrder() {
+		// Another segment, with values in the middle of the existing ones
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( "3" ), document -> {
+			indexAccessors.string.write( document, "text 3" );
+			indexAccessors.sortableInteger.write( document, 5 );
+		} );
+		worker.execute().join();
+
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		SearchQuery<List<?>> query = searchTarget.query( sessionContext )
+				.asProjections( "string", "sortableInteger" )
+				.predicate().matchAll().end()
+				.sort().byField( "sortableInteger" ).desc().onMissingValue().sortLast().end()
+				.build();
+		ProjectionsSearchResultAssert.assertThat( query ).hasProjectionsHitsExactOrder( b -> {
+			b.projection( "text 2", 12 );
+			b.projection( "text 1", 11 );
+			b.projection( "text 3", 5 );
+			b.projection( null, (Object) null );
+		} );
+	}
+
+	@Test
+	public void multiValued() {
+		// Projectable fields that are not sortable accept several values
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( "multiValued" ), document -> {
+			indexAccessors.string.write( document, "text 1" );
+			indexAccessors.string.write( document, "text 2" );
+			indexAccessors.integer.write( document, 1 );
+			indexAccessors.integer.write( document, 2 );
+			indexAccessors.localDate.write( document, LocalDate.of( 2018, 1, 1 ) );
+			indexAccessors.localDate.write( document, LocalDate.of( 2018, 1, 2 ) );
+		} );
+		worker.execute().join();
+
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		DocumentReferencesSearchResultAssert.assertThat(
+				searchTarget.query( sessionContext )
+						.asReferences()
+						.predicate().match().onField( "integer" ).matching( 2 ).end()
+						.build()
+		)
+				.hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_2, "multiValued" );
+	}
+
+	@Test
+	public void multiValued_projection() {
+		// Values are not written in their natural order: projections must return the first value, not the lowest one
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( "multiValued" ), document -> {
+			indexAccessors.string.write( document, "text 4" );
+			indexAccessors.string.write( document, "text 3" );
+			indexAccessors.integer.write( document, 4 );
+			indexAccessors.integer.write( document, 3 );
+			indexAccessors.localDate.write( document, LocalDate.of( 2018, 1, 4 ) );
+			indexAccessors.localDate.write( document, LocalDate.of( 2018, 1, 3 ) );
+		} );
+		worker.execute().join();
+
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		SearchQuery<List<?>> query = searchTarget.query( sessionContext )
+				.asProjections( "string", "integer", "localDate" )
+				.predicate().match().onField( "integer" ).matching( 3 ).end()
+				.build();
+		ProjectionsSearchResultAssert.assertThat( query ).hasProjectionsHitsAnyOrder( b -> {
+			b.projection( "text 4", 4, LocalDate.of( 2018, 1, 4 ) );
+		} );
+	}
+
+	private SearchQuery<List<?>> createProjectionQuery(String... fieldPaths) {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asProjections( fieldPaths )
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private void initData() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( DOCUMENT_1 ), document -> {
+			indexAccessors.string.write( document, "text 1" );
+			indexAccessors.sortableString.write( document, "sortable 1" );
+			indexAccessors.integer.write( document, 1 );
+			indexAccessors.sortableInteger.write( document, 11 );
+			indexAccessors.localDate.write( document, LocalDate.of( 2018, 1, 1 ) );
+			indexAccessors.sortableLocalDate.write( document, LocalDate.of( 2018, 1, 11 ) );
+		} );
+		worker.add( referenceProvider( DOCUMENT_2 ), document -> {
+			indexAccessors.string.write( document, "text 2" );
+			indexAccessors.sortableString.write( document, "sortable 2" );
+			indexAccessors.integer.write( document, 2 );
+			indexAccessors.sortableInteger.write( document, 12 );
+			indexAccessors.localDate.write( document, LocalDate.of( 2018, 1, 2 ) );
+			indexAccessors.sortableLocalDate.write( document, LocalDate.of( 2018, 1, 12 ) );
+		} );
+		worker.add( referenceProvider( EMPTY ), document -> { } );
+		worker.execute().join();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+		final IndexFieldAccessor<String> sortableString;
+		final IndexFieldAccessor<Integer> integer;
+		final IndexFieldAccessor<Integer> sortableInteger;
+		final IndexFieldAccessor<LocalDate> localDate;
+		final IndexFieldAccessor<LocalDate> sortableLocalDate;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().store( Store.YES ).createAccessor();
+			sortableString = root.field( "sortableString" ).asString()
+					.store( Store.YES ).sortable( Sortable.YES ).createAccessor();
+			integer = root.field( "integer" ).asInteger().store( Store.YES ).createAccessor();
+			sortableInteger = root.field( "sortableInteger" ).asInteger()
+					.store( Store.YES ).sortable( Sortable.YES ).createAccessor();
+			localDate = root.field( "localDate" ).asLocalDate().store( Store.YES ).createAccessor();
+			sortableLocalDate = root.field( "sortableLocalDate" ).asLocalDate()
+					.store( Store.YES ).sortable( Sortable.YES ).createAccessor();
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Store;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.backend.lucene.util.impl.LuceneFields;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.ProjectionsSearchResultAssert;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+/**
+ * Checks that projections still return values for documents indexed before fields had doc values.
+ */
+public class LuceneDocValuesLegacyIndexIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final String DOCUMENT_1 = "1";
+	private static final String DOCUMENT_2 = "2";
+	private static final String DOCUMENT_3 = "3";
+
+	private final TemporaryFolder rootFolder = new TemporaryFolder();
+
+	private final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	// The index is stored in the temporary folder, so it must be closed before the folder is deleted
+	@Rule
+	public RuleChain ruleChain = RuleChain.outerRule( rootFolder ).around( setupHelper );
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Test
+	public void projections_legacySegment() throws IOException {
+		// Documents as they were indexed before stored fields had doc values
+		try ( Directory directory = FSDirectory.open( rootFolder.getRoot().toPath().resolve( INDEX_NAME ) );
+				IndexWriter indexWriter = new IndexWriter( directory, new IndexWriterConfig() ) ) {
+			indexWriter.addDocument( createLegacyDocument( DOCUMENT_1, "text 1", 1 ) );
+			indexWriter.addDocument( createLegacyDocument( DOCUMENT_2, "text 2", 2 ) );
+			indexWriter.addDocument( createLegacyDocument( DOCUMENT_3, "text 3", 3 ) );
+			indexWriter.commit();
+		}
+
+		setup();
+
+		// Reindex part of the data: the new segment has doc values, the legacy segment does not
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.update( referenceProvider( DOCUMENT_2 ), document -> {
+			indexAccessors.string.write( document, "text 2 updated" );
+			indexAccessors.integer.write( document, 22 );
+		} );
+		worker.execute().join();
+
+		ProjectionsSearchResultAssert.assertThat( projectionQuery() ).hasProjectionsHitsAnyOrder( b -> {
+			b.projection( "text 1", 1 );
+			b.projection( "text 2 updated", 22 );
+			b.projection( "text 3", 3 );
+		} );
+	}
+
+	@Test
+	public void projections_missingValue() {
+		setup();
+
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( DOCUMENT_1 ), document -> {
+			indexAccessors.string.write( document, "text 1" );
+			indexAccessors.integer.write( document, 1 );
+		} );
+		worker.add( referenceProvider( DOCUMENT_2 ), document -> {
+			indexAccessors.string.write( document, "text 2" );
+		} );
+		worker.execute().join();
+
+		// The segment has doc values: a missing value is not looked up in stored fields
+		ProjectionsSearchResultAssert.assertThat( projectionQuery() ).hasProjectionsHitsAnyOrder( b -> {
+			b.projection( "text 1", 1 );
+			b.projection( "text 2", (Object) null );
+		} );
+	}
+
+	private void setup() {
+		setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty(
+						"backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.LUCENE_ROOT_DIRECTORY,
+						rootFolder.getRoot().getAbsolutePath()
+				)
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+	}
+
+	private SearchQuery<List<?>> projectionQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asProjections( "string", "integer" )
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private static Document createLegacyDocument(String id, String string, int integer) {
+		Document document = new Document();
+		document.add( new StringField( LuceneFields.typeFieldName(), LuceneFields.TYPE_MAIN_DOCUMENT, Field.Store.YES ) );
+		document.add( new StringField( LuceneFields.indexFieldName(), INDEX_NAME, Field.Store.YES ) );
+		document.add( new StringField( LuceneFields.idFieldName(), id, Field.Store.YES ) );
+		document.add( new StringField( "string", string, Field.Store.YES ) );
+		document.add( new StoredField( "integer", integer ) );
+		document.add( new IntPoint( "integer", integer ) );
+		return document;
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+		final IndexFieldAccessor<Integer> integer;
+
+		IndexAccessors(IndexSchemaElement root) {
+			// Only sortable fields are projected from doc values
+			string = root.field( "string" ).asString().store( Store.YES ).sortable( Sortable.YES ).createAccessor();
+			integer = root.field( "integer" ).asInteger().store( Store.YES ).sortable( Sortable.YES ).createAccessor();
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+public class LuceneIndexJournalIT {
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final String DOCUMENT_1 = "1";
+	private static final String DOCUMENT_2 = "2";
+	private static final String DOCUMENT_3 = "3";
+
+	private final TemporaryFolder journalFolder = new TemporaryFolder();
+
+	private final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	// The index may be stored in the journal folder, so it must be closed before the folder is deleted
+	@Rule
+	public RuleChain ruleChain = RuleChain.outerRule( journalFolder ).around( setupHelper );
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Test
+	public void changeset() throws IOException {
+		setup();
+
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( DOCUMENT_1 ), document -> {
+			indexAccessors.string.write( document, "text 1" );
+			indexAccessors.integer.write( document, 1 );
+		} );
+		worker.add( referenceProvider( DOCUMENT_2 ), document -> {
+			indexAccessors.string.write( document, "text 2" );
+			indexAccessors.integer.write( document, 2 );
+		} );
+		worker.add( referenceProvider( DOCUMENT_3 ), document -> {
+			indexAccessors.string.write( document, "text 3" );
+		} );
+		worker.execute().join();
+
+		worker = indexManager.createWorker( sessionContext );
+		worker.update( referenceProvider( DOCUMENT_2 ), document -> {
+			indexAccessors.string.write( document, "text 2 updated" );
+		} );
+		worker.delete( referenceProvider( DOCUMENT_3 ) );
+		worker.execute().join();
+
+		DocumentReferencesSearchResultAssert.assertThat( matchAllQuery() )
+				.hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2 );
+
+		// Committed records are released
+		File[] journalFiles = journalFolder.getRoot().listFiles();
+		assertThat( journalFiles ).hasSize( 1 );
+		assertThat( journalFiles[0].getName() ).isEqualTo( INDEX_NAME + ".journal.0" );
+		assertThat( journalFiles[0].length() ).isEqualTo( 0L );
+	}
+
+	@Test
+	public void corruptedJournal() throws IOException {
+		// A record whose length exceeds the size of the file, as if the process crashed while writing it
+		Path journalFile = journalFolder.getRoot().toPath().resolve( INDEX_NAME + ".journal.3" );
+		ByteBuffer record = ByteBuffer.allocate( 16 ).putInt( 1000 ).putLong( 42L ).putInt( 0 );
+		Files.write( journalFile, record.array() );
+
+		setup();
+
+		// The corrupted record is ignored, and the next generation is started
+		assertThat( Files.exists( journalFile ) ).isFalse();
+		assertThat( Files.exists( journalFile.resolveSibling( INDEX_NAME + ".journal.4" ) ) ).isTrue();
+
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( DOCUMENT_1 ), document -> {
+			indexAccessors.string.write( document, "text 1" );
+		} );
+		worker.execute().join();
+
+		DocumentReferencesSearchResultAssert.assertThat( matchAllQuery() )
+				.hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1 );
+	}
+
+	@Test
+	public void defaultDirectory() {
+		// Journal files are stored in the root directory of the backend by default
+		setupHelper.withDefaultConfiguration()
+				.withProperty(
+						"index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_JOURNAL_ENABLED,
+						"true"
+				)
+				.withProperty(
+						"backend.testedBackend." + SearchBackendLuceneSettings.LUCENE_ROOT_DIRECTORY,
+						journalFolder.getRoot().getAbsolutePath()
+				)
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+
+		assertThat( journalFolder.getRoot().toPath().resolve( INDEX_NAME + ".journal.0" ) ).exists();
+	}
+
+	private void setup() {
+		setupHelper.withDefaultConfiguration()
+				.withProperty(
+						"index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_JOURNAL_ENABLED,
+						"true"
+				)
+				.withProperty(
+						"index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_JOURNAL_DIRECTORY,
+						journalFolder.getRoot().getAbsolutePath()
+				)
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+	}
+
+	private SearchQuery<DocumentReference> matchAllQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+		final IndexFieldAccessor<Integer> integer;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+			integer = root.field( "integer" ).asInteger().createAccessor();
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.hibernate.search.v6poc.util.impl.test.SubTest;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneIndexWriterConfigIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final int DOCUMENT_COUNT = 50;
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Test
+	public void configured() {
+		// Backend properties apply to every index
+		setup( setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty( backendProperty( SearchBackendLuceneSettings.INDEXING_RAM_BUFFER_SIZE ), "1" )
+				.withProperty( backendProperty( SearchBackendLuceneSettings.INDEXING_MERGE_SEGMENTS_PER_TIER ), "2" )
+				.withProperty( backendProperty( SearchBackendLuceneSettings.INDEXING_MERGE_MAX_MERGE_AT_ONCE ), "2" )
+				.withProperty( indexProperty( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_THREAD_COUNT ), "1" )
+				.withProperty( indexProperty( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_MERGE_COUNT ), "2" )
+				.withProperty( indexProperty( SearchBackendLuceneSettings.INDEXING_CODEC ), "Lucene70" ) );
+
+		checkIndexing();
+	}
+
+	@Test
+	public void maxMergeCountOnly() {
+		// The thread count is derived from the merge count
+		setup( setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty( indexProperty( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_MERGE_COUNT ), "1" ) );
+
+		checkIndexing();
+	}
+
+	@Test
+	public void maxThreadCountOnly() {
+		setup( setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty( indexProperty( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_THREAD_COUNT ), "2" ) );
+
+		checkIndexing();
+	}
+
+	@Test
+	public void invalidMaxMergeCount() {
+		SubTest.expectException(
+				"Merge count below the thread count",
+				() -> setup( setupHelper.withDefaultConfiguration( BACKEND_NAME )
+						.withProperty( indexProperty( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_THREAD_COUNT ), "3" )
+						.withProperty( indexProperty( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_MERGE_COUNT ), "2" ) )
+		)
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "Invalid maximum number of merges: '2'" )
+				.hasMessageContaining( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_MERGE_COUNT );
+	}
+
+	@Test
+	public void invalidMaxThreadCount() {
+		SubTest.expectException(
+				"Zero merge threads",
+				() -> setup( setupHelper.withDefaultConfiguration( BACKEND_NAME )
+						.withProperty( indexProperty( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_THREAD_COUNT ), "0" ) )
+		)
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "Invalid maximum number of merge threads: '0'" )
+				.hasMessageContaining( SearchBackendLuceneSettings.INDEXING_MERGE_SCHEDULER_MAX_THREAD_COUNT );
+	}
+
+	private void setup(SearchSetupHelper.SetupContext setupContext) {
+		setupContext.withIndex(
+				"MappedType", INDEX_NAME,
+				ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+				indexManager -> this.indexManager = indexManager
+		)
+				.setup();
+	}
+
+	private void checkIndexing() {
+		// One changeset per document, so that segments get merged
+		for ( int i = 0; i < DOCUMENT_COUNT; i++ ) {
+			String id = String.valueOf( i );
+			ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+			worker.add( referenceProvider( id ), document -> {
+				indexAccessors.string.write( document, "text" );
+			} );
+			worker.execute().join();
+		}
+
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		SearchQuery<DocumentReference> query = searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().match().onField( "string" ).matching( "text" ).end()
+				.build();
+		assertThat( query ).hasHitCount( DOCUMENT_COUNT );
+	}
+
+	private static String backendProperty(String key) {
+		return "backend." + BACKEND_NAME + "." + key;
+	}
+
+	private static String indexProperty(String key) {
+		return "index." + INDEX_NAME + "." + key;
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+		}
+	}
+}
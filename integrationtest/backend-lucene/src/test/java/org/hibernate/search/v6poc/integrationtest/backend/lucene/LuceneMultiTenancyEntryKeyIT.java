@@ -0,0 +1,156 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.io.IOException;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.index.spi.StreamIndexWorker;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.backend.lucene.util.impl.LuceneFields;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+/**
+ * Checks that updates and deletes only affect the entry of the current tenant,
+ * both on indexes with entry keys and on indexes built before entry keys were indexed.
+ */
+public class LuceneMultiTenancyEntryKeyIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final String TENANT_1 = "tenant_1";
+	private static final String TENANT_2 = "tenant_2";
+
+	private static final String DOCUMENT_1 = "1";
+	private static final String DOCUMENT_2 = "2";
+
+	private final TemporaryFolder rootFolder = new TemporaryFolder();
+
+	private final SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	// The index may be stored in the temporary folder, so it must be closed before the folder is deleted
+	@Rule
+	public RuleChain ruleChain = RuleChain.outerRule( rootFolder ).around( setupHelper );
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext tenant1SessionContext = new StubSessionContext( TENANT_1 );
+	private SessionContext tenant2SessionContext = new StubSessionContext( TENANT_2 );
+
+	@Test
+	public void sameIdInTwoTenants() {
+		setup( setupHelper.withMultiTenancyConfiguration() );
+
+		for ( SessionContext sessionContext : new SessionContext[] { tenant1SessionContext, tenant2SessionContext } ) {
+			ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+			worker.add( referenceProvider( DOCUMENT_1 ), document -> indexAccessors.string.write( document, "initial" ) );
+			worker.add( referenceProvider( DOCUMENT_2 ), document -> indexAccessors.string.write( document, "initial" ) );
+			worker.execute().join();
+		}
+
+		checkUpdateAndDelete();
+	}
+
+	@Test
+	public void legacyIndex_fallsBackToQueryBasedWorks() throws IOException {
+		// Documents as they were indexed before entry keys were indexed
+		try ( Directory directory = FSDirectory.open( rootFolder.getRoot().toPath().resolve( INDEX_NAME ) );
+				IndexWriter indexWriter = new IndexWriter( directory, new IndexWriterConfig() ) ) {
+			for ( String tenantId : new String[] { TENANT_1, TENANT_2 } ) {
+				indexWriter.addDocument( createLegacyDocument( tenantId, DOCUMENT_1, "initial" ) );
+				indexWriter.addDocument( createLegacyDocument( tenantId, DOCUMENT_2, "initial" ) );
+			}
+			indexWriter.commit();
+		}
+
+		setup( setupHelper.withMultiTenancyConfiguration()
+				.withProperty(
+						"backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.LUCENE_ROOT_DIRECTORY,
+						rootFolder.getRoot().getAbsolutePath()
+				) );
+
+		checkUpdateAndDelete();
+	}
+
+	private void checkUpdateAndDelete() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( tenant1SessionContext );
+		worker.update( referenceProvider( DOCUMENT_1 ), document -> indexAccessors.string.write( document, "updated" ) );
+		worker.execute().join();
+
+		StreamIndexWorker<? extends DocumentElement> streamWorker = indexManager.createStreamWorker( tenant2SessionContext );
+		streamWorker.delete( referenceProvider( DOCUMENT_2 ) );
+		streamWorker.flush();
+
+		// The update replaced the entry of tenant 1 only, without duplicating it
+		assertThat( matchQuery( tenant1SessionContext, "updated" ) ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1 );
+		assertThat( matchQuery( tenant1SessionContext, "initial" ) ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_2 );
+		// The delete removed the entry of tenant 2 only
+		assertThat( matchQuery( tenant2SessionContext, "updated" ) ).hasHitCount( 0 );
+		assertThat( matchQuery( tenant2SessionContext, "initial" ) ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1 );
+	}
+
+	private void setup(SearchSetupHelper.SetupContext setupContext) {
+		setupContext.withIndex(
+				"MappedType", INDEX_NAME,
+				ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+				indexManager -> this.indexManager = indexManager
+		)
+				.withMultiTenancy()
+				.setup();
+	}
+
+	private SearchQuery<DocumentReference> matchQuery(SessionContext sessionContext, String value) {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().match().onField( "string" ).matching( value ).end()
+				.build();
+	}
+
+	private static Document createLegacyDocument(String tenantId, String id, String string) {
+		Document document = new Document();
+		document.add( new StringField( LuceneFields.typeFieldName(), LuceneFields.TYPE_MAIN_DOCUMENT, Field.Store.YES ) );
+		document.add( new StringField( LuceneFields.indexFieldName(), INDEX_NAME, Field.Store.YES ) );
+		document.add( new StringField( LuceneFields.tenantIdFieldName(), tenantId, Field.Store.YES ) );
+		document.add( new StringField( LuceneFields.idFieldName(), id, Field.Store.YES ) );
+		document.add( new StringField( "string", string, Field.Store.NO ) );
+		return document;
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+		}
+	}
+}
@@ -0,0 +1,209 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.IndexObjectFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaObjectField;
+import org.hibernate.search.v6poc.backend.document.model.dsl.ObjectFieldStorage;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.SearchMappingRepository;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.hibernate.search.v6poc.util.impl.test.SubTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneParallelDocumentBuildingIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final int DOCUMENT_COUNT = 100;
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SearchMappingRepository mappingRepository;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		mappingRepository = setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty(
+						"backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.INDEXING_DOCUMENT_BUILDING_THREAD_COUNT,
+						"4"
+				)
+				.withProperty(
+						"backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.INDEXING_DOCUMENT_BUILDING_QUEUE_SIZE,
+						"10"
+				)
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+	}
+
+	@Test
+	public void manyDocuments() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		for ( int i = 0; i < DOCUMENT_COUNT; i++ ) {
+			String id = String.valueOf( i );
+			worker.add( referenceProvider( id ), document -> {
+				indexAccessors.string.write( document, "text " + id );
+			} );
+		}
+		worker.execute().join();
+
+		assertThat( matchAllQuery() ).hasHitCount( DOCUMENT_COUNT );
+	}
+
+	@Test
+	public void preserveOrder() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( "1" ), document -> {
+			indexAccessors.string.write( document, "text 1" );
+		} );
+		worker.add( referenceProvider( "2" ), document -> {
+			indexAccessors.string.write( document, "text 2" );
+		} );
+		worker.delete( referenceProvider( "1" ) );
+		worker.update( referenceProvider( "2" ), document -> {
+			indexAccessors.string.write( document, "update 2" );
+		} );
+		worker.prepare();
+		worker.execute().join();
+
+		assertThat( matchAllQuery() ).hasReferencesHitsAnyOrder( INDEX_NAME, "2" );
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		SearchQuery<DocumentReference> query = searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().match().onField( "string" ).matching( "update 2" ).end()
+				.build();
+		assertThat( query ).hasReferencesHitsAnyOrder( INDEX_NAME, "2" );
+	}
+
+	@Test
+	public void contributorsRunInCallingThread() {
+		Thread callingThread = Thread.currentThread();
+		List<Thread> contributorThreads = new ArrayList<>();
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		for ( int i = 0; i < DOCUMENT_COUNT; i++ ) {
+			String id = String.valueOf( i );
+			worker.add( referenceProvider( id ), document -> {
+				// Contributors may access state bound to the calling thread, such as a Hibernate ORM session
+				contributorThreads.add( Thread.currentThread() );
+				indexAccessors.string.write( document, "text " + id );
+				DocumentElement nestedObject = indexAccessors.nestedObject.self.add( document );
+				indexAccessors.nestedObject.string.write( nestedObject, "nested " + id );
+			} );
+		}
+		worker.execute().join();
+
+		assertThat( contributorThreads ).hasSize( DOCUMENT_COUNT ).containsOnly( callingThread );
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		SearchQuery<DocumentReference> query = searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().nested().onObjectField( "nestedObject" )
+						.match().onField( "nestedObject.string" ).matching( "nested 42" ).end()
+				.build();
+		assertThat( query ).hasReferencesHitsAnyOrder( INDEX_NAME, "42" );
+	}
+
+	@Test
+	public void closed() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( "1" ), document -> {
+			indexAccessors.string.write( document, "text 1" );
+		} );
+
+		mappingRepository.close();
+
+		SubTest.expectException(
+				"Prepare a changeset after the backend was closed",
+				worker::prepare
+		)
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "Unable to build documents: the backend is closed" );
+	}
+
+	@Test
+	public void contributorFailure() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( "1" ), document -> {
+			indexAccessors.string.write( document, "text 1" );
+		} );
+		worker.add( referenceProvider( "2" ), document -> {
+			throw new IllegalStateException( "Simulated failure" );
+		} );
+
+		SubTest.expectException(
+				"Prepare a changeset whose document contributor fails",
+				worker::prepare
+		)
+				.assertThrown()
+				.isInstanceOf( IllegalStateException.class )
+				.hasMessageContaining( "Simulated failure" );
+
+		// The failed changeset must not leave any work behind
+		worker.execute().join();
+		assertThat( matchAllQuery() ).hasHitCount( 0 );
+	}
+
+	private SearchQuery<DocumentReference> matchAllQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+		final ObjectAccessors nestedObject;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+			IndexSchemaObjectField nestedObjectField =
+					root.objectField( "nestedObject", ObjectFieldStorage.NESTED );
+			nestedObject = new ObjectAccessors( nestedObjectField );
+		}
+	}
+
+	private static class ObjectAccessors {
+		final IndexObjectFieldAccessor self;
+		final IndexFieldAccessor<String> string;
+
+		ObjectAccessors(IndexSchemaObjectField objectField) {
+			self = objectField.createAccessor();
+			string = objectField.field( "string" ).asString().createAccessor();
+		}
+	}
+}
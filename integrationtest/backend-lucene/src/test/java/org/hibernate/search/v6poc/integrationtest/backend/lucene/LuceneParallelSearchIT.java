@@ -0,0 +1,131 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Store;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneSearchQuery;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneSearchScroll;
+import org.hibernate.search.v6poc.engine.SearchMappingRepository;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.SearchResult;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.hibernate.search.v6poc.util.impl.test.SubTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneParallelSearchIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final int SEGMENT_COUNT = 5;
+
+	private static final int DOCUMENTS_PER_SEGMENT = 10;
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SearchMappingRepository mappingRepository;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		mappingRepository = setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty( "backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.SEARCH_PARALLEL_THREAD_COUNT, "2" )
+				.withProperty( "backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.SEARCH_PARALLEL_MAX_SLICES_PER_QUERY, "3" )
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+
+		// One changeset per segment, with values interleaved across segments
+		for ( int i = 0; i < SEGMENT_COUNT; i++ ) {
+			ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+			for ( int j = 0; j < DOCUMENTS_PER_SEGMENT; j++ ) {
+				int value = j * SEGMENT_COUNT + i;
+				worker.add( referenceProvider( String.valueOf( value ) ), document -> {
+					indexAccessors.integer.write( document, value );
+				} );
+			}
+			worker.execute().join();
+		}
+	}
+
+	@Test
+	public void sortedPage() {
+		LuceneSearchQuery<List<?>> query = createSortedQuery();
+		query.setFirstResult( 10L );
+		query.setMaxResults( 15L );
+
+		SearchResult<List<?>> result = query.execute();
+
+		assertThat( result.getHitCount() ).isEqualTo( SEGMENT_COUNT * DOCUMENTS_PER_SEGMENT );
+		List<Integer> values = new ArrayList<>();
+		for ( List<?> hit : result.getHits() ) {
+			values.add( (Integer) hit.get( 0 ) );
+		}
+		List<Integer> expectedValues = new ArrayList<>();
+		for ( int i = 10; i < 25; i++ ) {
+			expectedValues.add( i );
+		}
+		assertThat( values ).isEqualTo( expectedValues );
+	}
+
+	@Test
+	public void closed() {
+		LuceneSearchScroll<List<?>> scroll = createSortedQuery().scroll( 10 );
+
+		mappingRepository.close();
+
+		// Must fail instead of waiting forever for slices that will never be executed
+		SubTest.expectException(
+				"Fetch a scroll page after the backend was closed",
+				scroll::next
+		)
+				.assertThrown()
+				.isInstanceOf( SearchException.class );
+	}
+
+	private LuceneSearchQuery<List<?>> createSortedQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return (LuceneSearchQuery<List<?>>) searchTarget.query( sessionContext )
+				.asProjections( "integer" )
+				.predicate().matchAll().end()
+				.sort().byField( "integer" ).asc().end()
+				.build();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<Integer> integer;
+
+		IndexAccessors(IndexSchemaElement root) {
+			integer = root.field( "integer" ).asInteger().store( Store.YES ).sortable( Sortable.YES ).createAccessor();
+		}
+	}
+}
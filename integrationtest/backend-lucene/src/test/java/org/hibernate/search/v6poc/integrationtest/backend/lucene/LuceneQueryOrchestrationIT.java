@@ -0,0 +1,129 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.SearchMappingRepository;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.hibernate.search.v6poc.util.impl.test.SubTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneQueryOrchestrationIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final int DOCUMENT_COUNT = 20;
+
+	private static final int QUERY_COUNT = 200;
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SearchMappingRepository mappingRepository;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		// Few threads and a small queue, so that submitting queries blocks
+		mappingRepository = setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty( "backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.SEARCH_QUERY_THREAD_COUNT, "2" )
+				.withProperty( "backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.SEARCH_QUERY_QUEUE_SIZE, "2" )
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		for ( int i = 0; i < DOCUMENT_COUNT; i++ ) {
+			String id = String.valueOf( i );
+			worker.add( referenceProvider( id ), document -> {
+				indexAccessors.string.write( document, "text " + id );
+			} );
+		}
+		worker.execute().join();
+	}
+
+	@Test
+	public void concurrentQueries() throws Exception {
+		ExecutorService clientExecutor = Executors.newFixedThreadPool( 8 );
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for ( int i = 0; i < QUERY_COUNT; i++ ) {
+				String id = String.valueOf( i % DOCUMENT_COUNT );
+				futures.add( clientExecutor.submit( () -> {
+					assertThat( matchQuery( "text " + id ) ).hasReferencesHitsAnyOrder( INDEX_NAME, id );
+				} ) );
+			}
+			for ( Future<?> future : futures ) {
+				future.get( 10, TimeUnit.SECONDS );
+			}
+		}
+		finally {
+			clientExecutor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void closed() {
+		SearchQuery<DocumentReference> query = matchQuery( "text 1" );
+
+		mappingRepository.close();
+
+		SubTest.expectException(
+				"Execute a query after the backend was closed",
+				query::execute
+		)
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "Unable to execute queries: the backend is closed" );
+	}
+
+	private SearchQuery<DocumentReference> matchQuery(String value) {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().match().onField( "string" ).matching( value ).end()
+				.build();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+		}
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.List;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Store;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.LuceneBackend;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneQueryResultCacheStatistics;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneSearchQuery;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.search.SearchResult;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneQueryResultCacheIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+	private static final String INDEX_NAME = "IndexName";
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private LuceneBackend backend;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Test
+	public void cache() {
+		setup( setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty( "backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.SEARCH_RESULT_CACHE_ENABLED, "true" ) );
+		LuceneQueryResultCacheStatistics statistics = backend.getQueryResultCacheStatistics();
+
+		assertValues( createQuery().execute(), 1, 2, 3 );
+		assertStatistics( statistics, 0, 1, 1 );
+
+		// The same query, built again
+		assertValues( createQuery().execute(), 1, 2, 3 );
+		assertStatistics( statistics, 1, 1, 1 );
+
+		// Another page is another result
+		SearchQuery<List<?>> query = createQuery();
+		query.setFirstResult( 1L );
+		assertValues( query.execute(), 2, 3 );
+		assertStatistics( statistics, 1, 2, 2 );
+
+		// Another predicate too
+		assertThat( createRangeQuery( 2 ).executeCount() ).isEqualTo( 2 );
+		assertStatistics( statistics, 1, 3, 3 );
+		assertThat( createRangeQuery( 2 ).executeCount() ).isEqualTo( 2 );
+		assertStatistics( statistics, 2, 3, 3 );
+	}
+
+	@Test
+	public void newReaderGeneration() {
+		setup( setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty( "backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.SEARCH_RESULT_CACHE_ENABLED, "true" ) );
+		LuceneQueryResultCacheStatistics statistics = backend.getQueryResultCacheStatistics();
+
+		assertValues( createQuery().execute(), 1, 2, 3 );
+		assertStatistics( statistics, 0, 1, 1 );
+
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( "0" ), document -> indexAccessors.integer.write( document, 0 ) );
+		worker.execute().join();
+
+		// Results cached for previous readers are never returned
+		assertValues( createQuery().execute(), 0, 1, 2, 3 );
+		assertThat( statistics.getHitCount() ).isEqualTo( 0 );
+		assertThat( statistics.getMissCount() ).isEqualTo( 2 );
+
+		assertValues( createQuery().execute(), 0, 1, 2, 3 );
+		assertThat( statistics.getHitCount() ).isEqualTo( 1 );
+	}
+
+	@Test
+	public void maxEntries() {
+		setup( setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty( "backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.SEARCH_RESULT_CACHE_ENABLED, "true" )
+				.withProperty( "backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.SEARCH_RESULT_CACHE_MAX_ENTRIES, "2" ) );
+		LuceneQueryResultCacheStatistics statistics = backend.getQueryResultCacheStatistics();
+
+		createRangeQuery( 1 ).executeCount();
+		createRangeQuery( 2 ).executeCount();
+		// Makes the first query the most recently used one
+		createRangeQuery( 1 ).executeCount();
+		createRangeQuery( 3 ).executeCount();
+		assertStatistics( statistics, 1, 3, 2 );
+
+		// The least recently used result was evicted
+		createRangeQuery( 1 ).executeCount();
+		createRangeQuery( 2 ).executeCount();
+		assertStatistics( statistics, 2, 4, 2 );
+	}
+
+	@Test
+	public void disabled() {
+		setup( setupHelper.withDefaultConfiguration( BACKEND_NAME ) );
+		LuceneQueryResultCacheStatistics statistics = backend.getQueryResultCacheStatistics();
+
+		assertValues( createQuery().execute(), 1, 2, 3 );
+		assertValues( createQuery().execute(), 1, 2, 3 );
+		assertStatistics( statistics, 0, 0, 0 );
+	}
+
+	private void setup(SearchSetupHelper.SetupContext setupContext) {
+		this.backend = setupContext.withIndex(
+				"MappedType", INDEX_NAME,
+				ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+				indexManager -> this.indexManager = indexManager
+		)
+				.setup()
+				.getBackend( BACKEND_NAME )
+				.unwrap( LuceneBackend.class );
+
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		for ( int i = 1; i <= 3; i++ ) {
+			int value = i;
+			worker.add( referenceProvider( String.valueOf( value ) ),
+					document -> indexAccessors.integer.write( document, value ) );
+		}
+		worker.execute().join();
+	}
+
+	private SearchQuery<List<?>> createQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asProjections( "integer" )
+				.predicate().matchAll().end()
+				.sort().byField( "integer" ).asc().end()
+				.build();
+	}
+
+	private LuceneSearchQuery<?> createRangeQuery(int lowerBound) {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return (LuceneSearchQuery<?>) searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().range().onField( "integer" ).above( lowerBound ).end()
+				.build();
+	}
+
+	private static void assertValues(SearchResult<List<?>> result, Integer... expectedValues) {
+		assertThat( result.getHitCount() ).isGreaterThanOrEqualTo( expectedValues.length );
+		assertThat( result.getHits() ).hasSize( expectedValues.length );
+		for ( int i = 0; i < expectedValues.length; i++ ) {
+			assertThat( result.getHits().get( i ) ).containsExactly( expectedValues[i] );
+		}
+	}
+
+	private static void assertStatistics(LuceneQueryResultCacheStatistics statistics,
+			long expectedHitCount, long expectedMissCount, int expectedEntryCount) {
+		assertThat( statistics.getHitCount() ).as( "hit count" ).isEqualTo( expectedHitCount );
+		assertThat( statistics.getMissCount() ).as( "miss count" ).isEqualTo( expectedMissCount );
+		assertThat( statistics.getEntryCount() ).as( "entry count" ).isEqualTo( expectedEntryCount );
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<Integer> integer;
+
+		IndexAccessors(IndexSchemaElement root) {
+			integer = root.field( "integer" ).asInteger()
+					.store( Store.YES ).sortable( Sortable.YES ).createAccessor();
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.index.spi.StreamIndexWorker;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneSearchQuery;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneSearchScroll;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.search.SearchResult;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneRefreshIT {
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final String DOCUMENT_1 = "1";
+	private static final String DOCUMENT_2 = "2";
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Test
+	public void synchronousRefresh() {
+		setup( setupHelper.withDefaultConfiguration() );
+
+		add( DOCUMENT_1 );
+		// Readers are refreshed before changesets are acknowledged
+		assertThat( matchAllQuery() ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1 );
+
+		add( DOCUMENT_2 );
+		assertThat( matchAllQuery() ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2 );
+	}
+
+	@Test
+	public void periodicRefresh() throws InterruptedException {
+		setup( setupHelper.withDefaultConfiguration()
+				.withProperty( "index." + INDEX_NAME + "." + SearchBackendLuceneSettings.REFRESH_INTERVAL, "100" ) );
+
+		add( DOCUMENT_1 );
+		add( DOCUMENT_2 );
+
+		// New documents become searchable after the next refresh
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 10 );
+		while ( matchAllQuery().execute().getHitCount() < 2 && System.nanoTime() < deadline ) {
+			Thread.sleep( 50 );
+		}
+		assertThat( matchAllQuery() ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2 );
+	}
+
+	@Test
+	public void snapshotKeptOpenAcrossRefreshes() {
+		setup( setupHelper.withDefaultConfiguration() );
+
+		add( DOCUMENT_1 );
+		add( DOCUMENT_2 );
+
+		Set<String> scrolledIds = new HashSet<>();
+		try ( LuceneSearchScroll<DocumentReference> scroll =
+				( (LuceneSearchQuery<DocumentReference>) matchAllQuery() ).scroll( 1 ) ) {
+			collectIds( scroll.next(), scrolledIds );
+
+			// Replace the current reader several times, and merge away the segments of the scrolled snapshot
+			delete( DOCUMENT_2 );
+			add( "3" );
+			StreamIndexWorker<? extends DocumentElement> streamWorker = indexManager.createStreamWorker( sessionContext );
+			streamWorker.optimize();
+			streamWorker.flush();
+			add( "4" );
+
+			// The snapshot must still be readable, and unchanged
+			SearchResult<DocumentReference> result = scroll.next();
+			assertThat( result.getHitCount() ).isEqualTo( 2 );
+			collectIds( result, scrolledIds );
+			assertThat( scroll.next().getHits() ).isEmpty();
+		}
+		assertThat( scrolledIds ).containsOnly( DOCUMENT_1, DOCUMENT_2 );
+
+		assertThat( matchAllQuery() ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, "3", "4" );
+	}
+
+	private void setup(SearchSetupHelper.SetupContext setupContext) {
+		setupContext.withIndex(
+				"MappedType", INDEX_NAME,
+				ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+				indexManager -> this.indexManager = indexManager
+		)
+				.setup();
+	}
+
+	private void add(String id) {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( id ), document -> {
+			indexAccessors.string.write( document, "text " + id );
+		} );
+		worker.execute().join();
+	}
+
+	private void delete(String id) {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.delete( referenceProvider( id ) );
+		worker.execute().join();
+	}
+
+	private static void collectIds(SearchResult<DocumentReference> result, Set<String> ids) {
+		for ( DocumentReference reference : result.getHits() ) {
+			ids.add( reference.getId() );
+		}
+	}
+
+	private SearchQuery<DocumentReference> matchAllQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.function.Consumer;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.search.SearchSort;
+import org.hibernate.search.v6poc.search.dsl.sort.SearchSortContainerContext;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Checks that field-sorted results are the same whether scores are computed or not.
+ */
+public class LuceneScoreSortIT {
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final String DOCUMENT_1 = "1";
+	private static final String DOCUMENT_2 = "2";
+	private static final String DOCUMENT_3 = "3";
+	private static final String DOCUMENT_4 = "4";
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		setupHelper.withDefaultConfiguration()
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+
+		initData();
+	}
+
+	@Test
+	public void byField() {
+		SearchQuery<DocumentReference> query = matchQuery( b -> b.byField( "sortKey" ).asc() );
+		assertThat( query ).hasReferencesHitsExactOrder( INDEX_NAME, DOCUMENT_4, DOCUMENT_2, DOCUMENT_3, DOCUMENT_1 );
+
+		query = matchQuery( b -> b.byField( "sortKey" ).desc() );
+		assertThat( query ).hasReferencesHitsExactOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_3, DOCUMENT_2, DOCUMENT_4 );
+
+		query = matchQuery( b -> b.byField( "sortKey" ).asc() );
+		query.setFirstResult( 1L );
+		query.setMaxResults( 2L );
+		assertThat( query ).hasReferencesHitsExactOrder( INDEX_NAME, DOCUMENT_2, DOCUMENT_3 );
+	}
+
+	@Test
+	public void byScore_thenByField() {
+		// Documents 1 and 4 have the same score
+		SearchQuery<DocumentReference> query = matchQuery( b -> b.byScore().then().byField( "sortKey" ).asc() );
+		assertThat( query ).hasReferencesHitsExactOrder( INDEX_NAME, DOCUMENT_2, DOCUMENT_3, DOCUMENT_4, DOCUMENT_1 );
+
+		query = matchQuery( b -> b.byScore().then().byField( "sortKey" ).desc() );
+		assertThat( query ).hasReferencesHitsExactOrder( INDEX_NAME, DOCUMENT_2, DOCUMENT_3, DOCUMENT_1, DOCUMENT_4 );
+	}
+
+	@Test
+	public void byField_thenByScore() {
+		// Documents 1 and 2 share a group, documents 3 and 4 share another one
+		SearchQuery<DocumentReference> query = matchQuery( b -> b.byField( "group" ).asc().then().byScore() );
+		assertThat( query ).hasReferencesHitsExactOrder( INDEX_NAME, DOCUMENT_2, DOCUMENT_1, DOCUMENT_3, DOCUMENT_4 );
+
+		query = matchQuery( b -> b.byField( "group" ).desc().then().byScore().asc() );
+		assertThat( query ).hasReferencesHitsExactOrder( INDEX_NAME, DOCUMENT_4, DOCUMENT_3, DOCUMENT_1, DOCUMENT_2 );
+	}
+
+	private SearchQuery<DocumentReference> matchQuery(Consumer<? super SearchSortContainerContext<SearchSort>> sortContributor) {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().match().onField( "text" ).matching( "hooray" ).end()
+				.sort( sortContributor )
+				.build();
+	}
+
+	private void initData() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( DOCUMENT_1 ), document -> {
+			indexAccessors.sortKey.write( document, "d" );
+			indexAccessors.group.write( document, "x" );
+			indexAccessors.text.write( document, "Hooray" );
+		} );
+		worker.add( referenceProvider( DOCUMENT_2 ), document -> {
+			indexAccessors.sortKey.write( document, "b" );
+			indexAccessors.group.write( document, "x" );
+			indexAccessors.text.write( document, "Hooray Hooray Hooray" );
+		} );
+		worker.add( referenceProvider( DOCUMENT_3 ), document -> {
+			indexAccessors.sortKey.write( document, "c" );
+			indexAccessors.group.write( document, "y" );
+			indexAccessors.text.write( document, "Hooray Hooray" );
+		} );
+		worker.add( referenceProvider( DOCUMENT_4 ), document -> {
+			indexAccessors.sortKey.write( document, "a" );
+			indexAccessors.group.write( document, "y" );
+			indexAccessors.text.write( document, "Hooray" );
+		} );
+		worker.execute().join();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> sortKey;
+		final IndexFieldAccessor<String> group;
+		final IndexFieldAccessor<String> text;
+
+		IndexAccessors(IndexSchemaElement root) {
+			sortKey = root.field( "sortKey" ).asString().sortable( Sortable.YES ).createAccessor();
+			group = root.field( "group" ).asString().sortable( Sortable.YES ).createAccessor();
+			text = root.field( "text" ).asString().analyzer( "default" ).createAccessor();
+		}
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Store;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneSearchQuery;
+import org.hibernate.search.v6poc.backend.lucene.search.query.LuceneSearchScroll;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.SearchResult;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.hibernate.search.v6poc.util.impl.test.SubTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneSearchScrollIT {
+
+	private static final String INDEX_NAME = "IndexName";
+
+	// Indexed in several changesets, so that hits are spread over several segments
+	private static final int SEGMENT_COUNT = 5;
+	private static final int DOCUMENTS_PER_SEGMENT = 5;
+	private static final int DOCUMENT_COUNT = SEGMENT_COUNT * DOCUMENTS_PER_SEGMENT;
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		setupHelper.withDefaultConfiguration()
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+
+		initData();
+	}
+
+	@Test
+	public void sorted() {
+		try ( LuceneSearchScroll<List<?>> scroll = createQuery( true ).scroll( 10 ) ) {
+			List<Integer> values = new ArrayList<>();
+			assertPage( scroll.next(), 10, values );
+			assertPage( scroll.next(), 10, values );
+			assertPage( scroll.next(), 5, values );
+			assertPage( scroll.next(), 0, values );
+			assertPage( scroll.next(), 0, values );
+
+			assertThat( values ).containsExactlyElementsOf( range( 0, DOCUMENT_COUNT ) );
+		}
+	}
+
+	@Test
+	public void unsorted() {
+		try ( LuceneSearchScroll<List<?>> scroll = createQuery( false ).scroll( 7 ) ) {
+			List<Integer> values = new ArrayList<>();
+			assertPage( scroll.next(), 7, values );
+			assertPage( scroll.next(), 7, values );
+			assertPage( scroll.next(), 7, values );
+			assertPage( scroll.next(), 4, values );
+			assertPage( scroll.next(), 0, values );
+
+			assertThat( values ).containsOnlyElementsOf( range( 0, DOCUMENT_COUNT ) )
+					.doesNotHaveDuplicates()
+					.hasSize( DOCUMENT_COUNT );
+		}
+	}
+
+	@Test
+	public void firstAndMaxResults() {
+		LuceneSearchQuery<List<?>> query = createQuery( true );
+		query.setFirstResult( 3L );
+		query.setMaxResults( 12L );
+		try ( LuceneSearchScroll<List<?>> scroll = query.scroll( 5 ) ) {
+			List<Integer> values = new ArrayList<>();
+			assertPage( scroll.next(), 5, values );
+			assertPage( scroll.next(), 5, values );
+			assertPage( scroll.next(), 2, values );
+			assertPage( scroll.next(), 0, values );
+
+			assertThat( values ).containsExactlyElementsOf( range( 3, 15 ) );
+		}
+	}
+
+	@Test
+	public void snapshot() {
+		try ( LuceneSearchScroll<List<?>> scroll = createQuery( true ).scroll( 10 ) ) {
+			List<Integer> values = new ArrayList<>();
+			assertPage( scroll.next(), 10, values );
+
+			// Changes after the first page are not visible to the scroll
+			ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+			worker.add( referenceProvider( "new" ), document -> indexAccessors.integer.write( document, -1 ) );
+			worker.delete( referenceProvider( String.valueOf( DOCUMENT_COUNT - 1 ) ) );
+			worker.execute().join();
+
+			assertPage( scroll.next(), 10, values );
+			assertPage( scroll.next(), 5, values );
+			assertPage( scroll.next(), 0, values );
+
+			assertThat( values ).containsExactlyElementsOf( range( 0, DOCUMENT_COUNT ) );
+		}
+
+		// A new scroll sees the changes
+		try ( LuceneSearchScroll<List<?>> scroll = createQuery( true ).scroll( DOCUMENT_COUNT ) ) {
+			SearchResult<List<?>> page = scroll.next();
+			assertThat( page.getHitCount() ).isEqualTo( DOCUMENT_COUNT );
+			assertThat( page.getHits().get( 0 ) ).containsExactly( -1 );
+		}
+	}
+
+	@Test
+	public void closed() {
+		LuceneSearchScroll<List<?>> scroll = createQuery( true ).scroll( 10 );
+		scroll.next();
+		scroll.close();
+		// Closing twice is allowed
+		scroll.close();
+
+		SubTest.expectException( scroll::next )
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "the scroll is closed" );
+	}
+
+	@Test
+	public void invalidPageSize() {
+		SubTest.expectException( () -> createQuery( true ).scroll( 0 ) )
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "Invalid scroll page size" );
+	}
+
+	private LuceneSearchQuery<List<?>> createQuery(boolean sorted) {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		if ( sorted ) {
+			return (LuceneSearchQuery<List<?>>) searchTarget.query( sessionContext )
+					.asProjections( "integer" )
+					.predicate().matchAll().end()
+					.sort().byField( "integer" ).asc().end()
+					.build();
+		}
+		else {
+			return (LuceneSearchQuery<List<?>>) searchTarget.query( sessionContext )
+					.asProjections( "integer" )
+					.predicate().matchAll().end()
+					.build();
+		}
+	}
+
+	private static void assertPage(SearchResult<List<?>> page, int expectedHitCount, List<Integer> values) {
+		assertThat( page.getHitCount() ).isEqualTo( DOCUMENT_COUNT );
+		assertThat( page.getHits() ).hasSize( expectedHitCount );
+		for ( List<?> hit : page.getHits() ) {
+			values.add( (Integer) hit.get( 0 ) );
+		}
+	}
+
+	private static List<Integer> range(int startInclusive, int endExclusive) {
+		List<Integer> result = new ArrayList<>();
+		for ( int i = startInclusive; i < endExclusive; i++ ) {
+			result.add( i );
+		}
+		return result;
+	}
+
+	private void initData() {
+		for ( int segment = 0; segment < SEGMENT_COUNT; segment++ ) {
+			ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+			for ( int i = 0; i < DOCUMENTS_PER_SEGMENT; i++ ) {
+				// Values are not in the order of documents, so that sorting is actually tested
+				int value = ( SEGMENT_COUNT - 1 - segment ) * DOCUMENTS_PER_SEGMENT + i;
+				worker.add( referenceProvider( String.valueOf( value ) ),
+						document -> indexAccessors.integer.write( document, value ) );
+			}
+			worker.execute().join();
+		}
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<Integer> integer;
+
+		IndexAccessors(IndexSchemaElement root) {
+			integer = root.field( "integer" ).asInteger()
+					.store( Store.YES ).sortable( Sortable.YES ).createAccessor();
+		}
+	}
+}
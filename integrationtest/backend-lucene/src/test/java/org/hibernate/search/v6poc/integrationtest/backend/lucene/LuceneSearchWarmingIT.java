@@ -0,0 +1,123 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.SearchException;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.hibernate.search.v6poc.util.impl.test.SubTest;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneSearchWarmingIT {
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final String DOCUMENT_1 = "1";
+	private static final String DOCUMENT_2 = "2";
+	private static final String DOCUMENT_3 = "3";
+	private static final String DOCUMENT_4 = "4";
+	private static final String DOCUMENT_5 = "5";
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Test
+	public void warming() {
+		setupHelper.withDefaultConfiguration()
+				.withProperty( "index." + INDEX_NAME + "." + SearchBackendLuceneSettings.SEARCH_WARMING_ENABLED, "true" )
+				.withProperty( "index." + INDEX_NAME + "." + SearchBackendLuceneSettings.SEARCH_WARMING_SORTS, "string, integer" )
+				// Merge aggressively, so that merged segments are warmed too
+				.withProperty( "index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_MERGE_SEGMENTS_PER_TIER, "2" )
+				.withProperty( "index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_MERGE_MAX_MERGE_AT_ONCE, "2" )
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+
+		// One changeset per document, so that each refresh opens a new segment
+		String[] ids = new String[] { DOCUMENT_3, DOCUMENT_1, DOCUMENT_5, DOCUMENT_2, DOCUMENT_4 };
+		for ( int i = 0; i < ids.length; i++ ) {
+			String id = ids[i];
+			ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+			worker.add( referenceProvider( id ), document -> {
+				indexAccessors.string.write( document, "text " + id );
+				indexAccessors.integer.write( document, Integer.valueOf( id ) );
+				indexAccessors.text.write( document, "some text" );
+			} );
+			worker.execute().join();
+
+			assertThat( sortQuery( "integer" ) ).hasHitCount( i + 1 );
+		}
+
+		assertThat( sortQuery( "integer" ) )
+				.hasReferencesHitsExactOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2, DOCUMENT_3, DOCUMENT_4, DOCUMENT_5 );
+		assertThat( sortQuery( "string" ) )
+				.hasReferencesHitsExactOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2, DOCUMENT_3, DOCUMENT_4, DOCUMENT_5 );
+	}
+
+	@Test
+	public void unknownSortField() {
+		SubTest.expectException(
+				"Warm an index with a sort on an unknown field",
+				() -> setupHelper.withDefaultConfiguration()
+						.withProperty( "index." + INDEX_NAME + "." + SearchBackendLuceneSettings.SEARCH_WARMING_ENABLED, "true" )
+						.withProperty( "index." + INDEX_NAME + "." + SearchBackendLuceneSettings.SEARCH_WARMING_SORTS, "unknownField" )
+						.withIndex(
+								"MappedType", INDEX_NAME,
+								ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+								indexManager -> this.indexManager = indexManager
+						)
+						.setup()
+		)
+				.assertThrown()
+				.isInstanceOf( SearchException.class )
+				.hasMessageContaining( "Unknown field" )
+				.hasMessageContaining( "unknownField" );
+	}
+
+	private SearchQuery<DocumentReference> sortQuery(String fieldPath) {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.sort().byField( fieldPath ).end()
+				.build();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+		final IndexFieldAccessor<Integer> integer;
+		final IndexFieldAccessor<String> text;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().sortable( Sortable.YES ).createAccessor();
+			integer = root.field( "integer" ).asInteger().sortable( Sortable.YES ).createAccessor();
+			text = root.field( "text" ).asString().analyzer( "default" ).createAccessor();
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.Arrays;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneShardingIT {
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final int SHARD_COUNT = 3;
+
+	// These routing keys are assigned to different shards
+	private static final String ROUTING_KEY_1 = "routingKey_1";
+	private static final String ROUTING_KEY_2 = "routingKey_2";
+	private static final String ROUTING_KEY_3 = "routingKey_3";
+
+	private static final String DOCUMENT_1 = "1";
+	private static final String DOCUMENT_2 = "2";
+	private static final String DOCUMENT_3 = "3";
+	private static final String DOCUMENT_4 = "4";
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		setupHelper.withDefaultConfiguration()
+				.withProperty(
+						"index." + INDEX_NAME + "." + SearchBackendLuceneSettings.SHARDING_NUMBER_OF_SHARDS,
+						String.valueOf( SHARD_COUNT )
+				)
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+
+		initData();
+	}
+
+	@Test
+	public void search_allShards() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		SearchQuery<DocumentReference> query = searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+
+		assertThat( query ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2, DOCUMENT_3, DOCUMENT_4 );
+	}
+
+	@Test
+	public void search_routing() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		SearchQuery<DocumentReference> query = searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.routing( ROUTING_KEY_1 )
+				.build();
+
+		assertThat( query ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2 );
+
+		query = searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.routing( Arrays.asList( ROUTING_KEY_2, ROUTING_KEY_3 ) )
+				.build();
+
+		assertThat( query ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_3, DOCUMENT_4 );
+	}
+
+	@Test
+	public void updateAndDelete_routing() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.update( referenceProvider( DOCUMENT_1, ROUTING_KEY_1 ), document -> {
+			indexAccessors.string.write( document, "updated" );
+		} );
+		worker.delete( referenceProvider( DOCUMENT_3, ROUTING_KEY_2 ) );
+		worker.execute().join();
+
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		SearchQuery<DocumentReference> query = searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+
+		assertThat( query ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1, DOCUMENT_2, DOCUMENT_4 );
+
+		query = searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().match().onField( "string" ).matching( "updated" ).end()
+				.routing( ROUTING_KEY_1 )
+				.build();
+
+		assertThat( query ).hasReferencesHitsAnyOrder( INDEX_NAME, DOCUMENT_1 );
+	}
+
+	private void initData() {
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		worker.add( referenceProvider( DOCUMENT_1, ROUTING_KEY_1 ), document -> {
+			indexAccessors.string.write( document, "text 1" );
+		} );
+		worker.add( referenceProvider( DOCUMENT_2, ROUTING_KEY_1 ), document -> {
+			indexAccessors.string.write( document, "text 2" );
+		} );
+		worker.add( referenceProvider( DOCUMENT_3, ROUTING_KEY_2 ), document -> {
+			indexAccessors.string.write( document, "text 3" );
+		} );
+		worker.add( referenceProvider( DOCUMENT_4, ROUTING_KEY_3 ), document -> {
+			indexAccessors.string.write( document, "text 4" );
+		} );
+		worker.execute().join();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().createAccessor();
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.Arrays;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Store;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.index.spi.StreamIndexWorker;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneStreamBackPressureIT {
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final int DOCUMENT_COUNT = 50;
+
+	private static final long INDEXING_TIMEOUT_MS = 10_000L;
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		setupHelper.withDefaultConfiguration()
+				.withProperty(
+						"index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_STREAM_MAX_IN_FLIGHT_WORKS,
+						"2"
+				)
+				.withProperty(
+						"index." + INDEX_NAME + "." + SearchBackendLuceneSettings.INDEXING_STREAM_MAX_IN_FLIGHT_SIZE,
+						"1"
+				)
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+	}
+
+	@Test
+	public void maxInFlightWorks() throws InterruptedException {
+		StreamIndexWorker<? extends DocumentElement> worker = indexManager.createStreamWorker( sessionContext );
+		for ( int i = 0; i < DOCUMENT_COUNT; i++ ) {
+			String id = String.valueOf( i );
+			worker.add( referenceProvider( id ), document -> {
+				indexAccessors.string.write( document, "text " + id );
+			} );
+		}
+		// Deletes are throttled too
+		worker.delete( referenceProvider( "0" ) );
+		worker.flush();
+
+		awaitHitCount( DOCUMENT_COUNT - 1 );
+	}
+
+	@Test
+	public void maxInFlightSize() throws InterruptedException {
+		// Terms are limited to 32kB, so we need many values to get large documents
+		char[] chars = new char[10 * 1024];
+		Arrays.fill( chars, 'a' );
+		String value = new String( chars );
+
+		StreamIndexWorker<? extends DocumentElement> worker = indexManager.createStreamWorker( sessionContext );
+		for ( int i = 0; i < 10; i++ ) {
+			// Each document is larger than half the limit: documents can only be indexed one at a time
+			worker.add( referenceProvider( String.valueOf( i ) ), document -> {
+				for ( int j = 0; j < 30; j++ ) {
+					indexAccessors.string.write( document, value );
+				}
+			} );
+		}
+		// A document larger than the limit is accepted anyway, once no other work is in flight
+		worker.add( referenceProvider( "huge" ), document -> {
+			for ( int j = 0; j < 100; j++ ) {
+				indexAccessors.string.write( document, value );
+			}
+		} );
+		worker.flush();
+
+		awaitHitCount( 11 );
+	}
+
+	private void awaitHitCount(int expectedHitCount) throws InterruptedException {
+		// Stream works are executed asynchronously
+		long deadline = System.currentTimeMillis() + INDEXING_TIMEOUT_MS;
+		while ( matchAllQuery().execute().getHitCount() < expectedHitCount
+				&& System.currentTimeMillis() < deadline ) {
+			Thread.sleep( 50 );
+		}
+		assertThat( matchAllQuery() ).hasHitCount( expectedHitCount );
+	}
+
+	private SearchQuery<DocumentReference> matchAllQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().store( Store.YES ).createAccessor();
+		}
+	}
+}
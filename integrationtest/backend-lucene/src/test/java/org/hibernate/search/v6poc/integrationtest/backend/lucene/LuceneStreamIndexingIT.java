@@ -0,0 +1,147 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.DocumentReferencesSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.assertion.ProjectionsSearchResultAssert.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.List;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.IndexObjectFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaObjectField;
+import org.hibernate.search.v6poc.backend.document.model.dsl.ObjectFieldStorage;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Store;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.index.spi.StreamIndexWorker;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.DocumentReference;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Checks that documents built by stream workers, which reuse field instances, do not leak values into each other.
+ */
+public class LuceneStreamIndexingIT {
+
+	private static final String INDEX_NAME = "IndexName";
+
+	private static final int DOCUMENT_COUNT = 300;
+
+	private static final long INDEXING_TIMEOUT_MS = 10_000L;
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Before
+	public void setup() {
+		setupHelper.withDefaultConfiguration()
+				.withIndex(
+						"MappedType", INDEX_NAME,
+						ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+						indexManager -> this.indexManager = indexManager
+				)
+				.setup();
+	}
+
+	@Test
+	public void reusedFields() throws InterruptedException {
+		StreamIndexWorker<? extends DocumentElement> worker = indexManager.createStreamWorker( sessionContext );
+		for ( int i = 0; i < DOCUMENT_COUNT; i++ ) {
+			int documentIndex = i;
+			worker.add( referenceProvider( String.valueOf( i ) ), document -> {
+				indexAccessors.string.write( document, "string_" + documentIndex );
+				indexAccessors.integer.write( document, documentIndex );
+				// Some documents have no nested object, some have several
+				for ( int j = 0; j < documentIndex % 3; j++ ) {
+					DocumentElement nestedObject = indexAccessors.nestedObject.self.add( document );
+					indexAccessors.nestedObject.string.write( nestedObject, "nested_" + documentIndex + "_" + j );
+				}
+			} );
+		}
+		worker.flush();
+		awaitHitCount( DOCUMENT_COUNT );
+
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		for ( int i : new int[] { 0, 1, 2, 150, DOCUMENT_COUNT - 1 } ) {
+			SearchQuery<List<?>> query = searchTarget.query( sessionContext )
+					.asProjections( "string", "integer" )
+					.predicate().match().onField( "string" ).matching( "string_" + i ).end()
+					.build();
+			assertThat( query ).hasProjectionsHitsAnyOrder( b -> b.projection( "string_" + i, i ) );
+		}
+
+		SearchQuery<DocumentReference> query = searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().nested().onObjectField( "nestedObject" )
+						.match().onField( "nestedObject.string" ).matching( "nested_5_1" ).end()
+				.build();
+		assertThat( query ).hasReferencesHitsAnyOrder( INDEX_NAME, "5" );
+
+		query = searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().nested().onObjectField( "nestedObject" )
+						.match().onField( "nestedObject.string" ).matching( "nested_6_0" ).end()
+				.build();
+		assertThat( query ).hasNoHits();
+	}
+
+	private void awaitHitCount(int expectedHitCount) throws InterruptedException {
+		// Stream works are executed asynchronously
+		long deadline = System.currentTimeMillis() + INDEXING_TIMEOUT_MS;
+		while ( matchAllQuery().execute().getHitCount() < expectedHitCount
+				&& System.currentTimeMillis() < deadline ) {
+			Thread.sleep( 50 );
+		}
+		assertThat( matchAllQuery() ).hasHitCount( expectedHitCount );
+	}
+
+	private SearchQuery<DocumentReference> matchAllQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asReferences()
+				.predicate().matchAll().end()
+				.build();
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<String> string;
+		final IndexFieldAccessor<Integer> integer;
+		final ObjectAccessors nestedObject;
+
+		IndexAccessors(IndexSchemaElement root) {
+			string = root.field( "string" ).asString().store( Store.YES ).sortable( Sortable.YES ).createAccessor();
+			integer = root.field( "integer" ).asInteger().store( Store.YES ).sortable( Sortable.YES ).createAccessor();
+			IndexSchemaObjectField nestedObjectField =
+					root.objectField( "nestedObject", ObjectFieldStorage.NESTED );
+			nestedObject = new ObjectAccessors( nestedObjectField );
+		}
+	}
+
+	private static class ObjectAccessors {
+		final IndexObjectFieldAccessor self;
+		final IndexFieldAccessor<String> string;
+
+		ObjectAccessors(IndexSchemaObjectField objectField) {
+			self = objectField.createAccessor();
+			string = objectField.field( "string" ).asString().store( Store.YES ).createAccessor();
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Hibernate Search, full-text search for your domain model
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.search.v6poc.integrationtest.backend.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.mapper.StubMapperUtils.referenceProvider;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.search.v6poc.backend.document.DocumentElement;
+import org.hibernate.search.v6poc.backend.document.IndexFieldAccessor;
+import org.hibernate.search.v6poc.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Sortable;
+import org.hibernate.search.v6poc.backend.document.model.dsl.Store;
+import org.hibernate.search.v6poc.backend.index.spi.ChangesetIndexWorker;
+import org.hibernate.search.v6poc.backend.index.spi.IndexManager;
+import org.hibernate.search.v6poc.backend.index.spi.IndexSearchTarget;
+import org.hibernate.search.v6poc.backend.lucene.cfg.SearchBackendLuceneSettings;
+import org.hibernate.search.v6poc.engine.spi.SessionContext;
+import org.hibernate.search.v6poc.integrationtest.backend.tck.util.rule.SearchSetupHelper;
+import org.hibernate.search.v6poc.search.SearchQuery;
+import org.hibernate.search.v6poc.search.SearchResult;
+import org.hibernate.search.v6poc.util.impl.integrationtest.common.stub.StubSessionContext;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LuceneUnboundedQueryIT {
+
+	private static final String BACKEND_NAME = "testedBackend";
+	private static final String INDEX_NAME = "IndexName";
+
+	// More than the hits initially collected for queries without a maximum number of results
+	private static final int DOCUMENT_COUNT = 250;
+
+	@Rule
+	public SearchSetupHelper setupHelper = new SearchSetupHelper();
+
+	private IndexAccessors indexAccessors;
+	private IndexManager<?> indexManager;
+	private SessionContext sessionContext = new StubSessionContext();
+
+	@Test
+	public void unbounded() {
+		setup( setupHelper.withDefaultConfiguration( BACKEND_NAME ) );
+
+		SearchQuery<List<?>> query = createQuery();
+		assertHits( query.execute(), DOCUMENT_COUNT, 0 );
+
+		query.setFirstResult( 120L );
+		assertHits( query.execute(), DOCUMENT_COUNT - 120, 120 );
+
+		query.setFirstResult( 240L );
+		assertHits( query.execute(), DOCUMENT_COUNT - 240, 240 );
+
+		query.setFirstResult( (long) DOCUMENT_COUNT );
+		assertHits( query.execute(), 0, DOCUMENT_COUNT );
+	}
+
+	@Test
+	public void defaultMaxResults() {
+		setup( setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty( "backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.SEARCH_DEFAULT_MAX_RESULTS, "20" ) );
+
+		SearchQuery<List<?>> query = createQuery();
+		assertHits( query.execute(), 20, 0 );
+
+		query.setFirstResult( 10L );
+		assertHits( query.execute(), 20, 10 );
+
+		// An explicit maximum number of results overrides the default
+		query.setMaxResults( 200L );
+		assertHits( query.execute(), 200, 10 );
+	}
+
+	@Test
+	public void defaultMaxResults_greaterThanFirstPage() {
+		setup( setupHelper.withDefaultConfiguration( BACKEND_NAME )
+				.withProperty( "backend." + BACKEND_NAME + "." + SearchBackendLuceneSettings.SEARCH_DEFAULT_MAX_RESULTS, "150" ) );
+
+		// Hits are collected in several pages, up to the default maximum number of results
+		SearchQuery<List<?>> query = createQuery();
+		assertHits( query.execute(), 150, 0 );
+
+		query.setFirstResult( 200L );
+		assertHits( query.execute(), DOCUMENT_COUNT - 200, 200 );
+	}
+
+	@Test
+	public void unbounded_scoreSort() {
+		setup( setupHelper.withDefaultConfiguration( BACKEND_NAME ) );
+
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		SearchQuery<List<?>> query = searchTarget.query( sessionContext )
+				.asProjections( "integer" )
+				.predicate().matchAll().end()
+				.build();
+		SearchResult<List<?>> result = query.execute();
+
+		// Every document must be returned exactly once, whatever the page it was collected in
+		assertThat( result.getHitCount() ).isEqualTo( DOCUMENT_COUNT );
+		Set<Object> values = new HashSet<>();
+		for ( List<?> hit : result.getHits() ) {
+			values.add( hit.get( 0 ) );
+		}
+		assertThat( values ).hasSize( DOCUMENT_COUNT );
+	}
+
+	private void setup(SearchSetupHelper.SetupContext setupContext) {
+		setupContext.withIndex(
+				"MappedType", INDEX_NAME,
+				ctx -> this.indexAccessors = new IndexAccessors( ctx.getSchemaElement() ),
+				indexManager -> this.indexManager = indexManager
+		)
+				.setup();
+
+		ChangesetIndexWorker<? extends DocumentElement> worker = indexManager.createWorker( sessionContext );
+		for ( int i = 0; i < DOCUMENT_COUNT; i++ ) {
+			int value = i;
+			worker.add( referenceProvider( String.valueOf( value ) ),
+					document -> indexAccessors.integer.write( document, value ) );
+		}
+		worker.execute().join();
+	}
+
+	private SearchQuery<List<?>> createQuery() {
+		IndexSearchTarget searchTarget = indexManager.createSearchTarget().build();
+		return searchTarget.query( sessionContext )
+				.asProjections( "integer" )
+				.predicate().matchAll().end()
+				.sort().byField( "integer" ).asc().end()
+				.build();
+	}
+
+	private static void assertHits(SearchResult<List<?>> result, int expectedHitCount, int expectedFirstValue) {
+		assertThat( result.getHitCount() ).isEqualTo( DOCUMENT_COUNT );
+		assertThat( result.getHits() ).hasSize( expectedHitCount );
+		for ( int i = 0; i < expectedHitCount; i++ ) {
+			assertThat( result.getHits().get( i ) ).containsExactly( expectedFirstValue + i );
+		}
+	}
+
+	private static class IndexAccessors {
+		final IndexFieldAccessor<Integer> integer;
+
+		IndexAccessors(IndexSchemaElement root) {
+			integer = root.field( "integer" ).asInteger()
+					.store( Store.YES ).sortable( Sortable.YES ).createAccessor();
+		}
+	}
+}